@@ -0,0 +1,96 @@
+package com.manish.resumeai.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manish.resumeai.llm.GeminiRequest;
+import com.manish.resumeai.llm.GeminiRequestWriter;
+import com.manish.resumeai.llm.Prompt;
+import com.manish.resumeai.llm.PromptSegment;
+import com.manish.resumeai.service.QuestionPrompt;
+import com.manish.resumeai.session.CompactText;
+import com.manish.resumeai.session.Conversation;
+import com.manish.resumeai.session.ResumeDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building a question prompt and its Gemini request, as done for every LLM
+ * call: the prompt on top of the document's precompiled head, and the
+ * request streamed to JSON bytes the way the client writes its body.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PromptAssemblyBenchmark {
+
+    private static final String QUESTION = "What are my key strengths for a senior Java role?";
+    private static final double TEMPERATURE = 0.7;
+    private static final int MAX_OUTPUT_TOKENS = 2048;
+
+    @Param({"1", "4"})
+    public int pages;
+
+    @Param({"0", "6"})
+    public int historyTurns;
+
+    private final GeminiRequestWriter requestWriter = new GeminiRequestWriter(new ObjectMapper());
+    // Reused, like the pooled buffers the client writes request bodies into
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+    private PromptSegment head;
+    private Conversation.Snapshot history;
+    private Prompt prompt;
+
+    @Setup
+    public void setUp() {
+        ResumeDocument document = new ResumeDocument("benchmark",
+                CompactText.encode(SyntheticResumes.text(pages), CompactText.Encoding.STRING));
+        head = QuestionPrompt.head(document);
+        List<Conversation.Turn> turns = new ArrayList<>();
+        for (int i = 0; i < historyTurns; i++) {
+            turns.add(new Conversation.Turn("Follow-up question number " + i + " about my experience?",
+                    "A three-sentence coaching answer that refers to the resume. ".repeat(5)));
+        }
+        history = new Conversation.Snapshot(historyTurns > 0 ? "The user asked about leadership." : null, turns);
+        prompt = buildPrompt();
+    }
+
+    @Benchmark
+    public Prompt buildPrompt() {
+        return QuestionPrompt.build(QUESTION, head, null, null, history);
+    }
+
+    @Benchmark
+    public int writeRequest() throws Exception {
+        return write(prompt);
+    }
+
+    /**
+     * Everything from question to request bytes.
+     */
+    @Benchmark
+    public int assembleAndSerialize() throws Exception {
+        return write(QuestionPrompt.build(QUESTION, head, null, null, history));
+    }
+
+    private int write(Prompt built) throws Exception {
+        out.reset();
+        requestWriter.write(GeminiRequest.of(built, TEMPERATURE, MAX_OUTPUT_TOKENS), out);
+        return out.size();
+    }
+}
@@ -0,0 +1,88 @@
+package com.manish.resumeai.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manish.resumeai.llm.GeminiResponseParser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pulling the answer out of Gemini responses shaped like the real ones
+ * (candidate parts, safety ratings, citation and usage metadata): the
+ * streaming parser the service uses, against a tree-model baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseParsingBenchmark {
+
+    /**
+     * SSE_CHUNK is one partial response of a streamed answer; SHORT and LONG
+     * are complete answers of a few sentences and of several paragraphs.
+     */
+    @Param({"SSE_CHUNK", "SHORT", "LONG"})
+    public String shape;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private GeminiResponseParser parser;
+    private String response;
+
+    @Setup
+    public void setUp() throws IOException {
+        parser = new GeminiResponseParser(objectMapper, new SimpleMeterRegistry());
+        String sentence = "Your experience leading the payments migration shows ownership and technical depth. ";
+        int sentences = Map.of("SSE_CHUNK", 1, "SHORT", 4, "LONG", 40).get(shape);
+        response = response(sentence.repeat(sentences), !"SSE_CHUNK".equals(shape));
+    }
+
+    @Benchmark
+    public String streamingParser() throws IOException {
+        return parser.extractText(response);
+    }
+
+    @Benchmark
+    public String treeModelBaseline() throws IOException {
+        JsonNode parts = objectMapper.readTree(response).path("candidates").path(0).path("content").path("parts");
+        StringBuilder text = new StringBuilder();
+        for (JsonNode part : parts) {
+            text.append(part.path("text").asText());
+        }
+        return text.toString();
+    }
+
+    private String response(String text, boolean complete) throws IOException {
+        String finish = complete ? "\"finishReason\": \"STOP\", " : "";
+        String json = "{\"candidates\": [{\"content\": {\"parts\": [{\"text\": " + objectMapper.writeValueAsString(text)
+                + "}], \"role\": \"model\"}, " + finish + "\"index\": 0, \"safetyRatings\": ["
+                + rating("HARM_CATEGORY_SEXUALLY_EXPLICIT") + ", " + rating("HARM_CATEGORY_HATE_SPEECH") + ", "
+                + rating("HARM_CATEGORY_HARASSMENT") + ", " + rating("HARM_CATEGORY_DANGEROUS_CONTENT") + "], "
+                + "\"citationMetadata\": {\"citationSources\": [{\"startIndex\": 10, \"endIndex\": 120, "
+                + "\"uri\": \"https://example.com/career-advice\"}]}}], "
+                + "\"usageMetadata\": {\"promptTokenCount\": 1423, \"candidatesTokenCount\": " + text.length() / 4
+                + ", \"totalTokenCount\": " + (1423 + text.length() / 4) + "}, "
+                + "\"modelVersion\": \"gemini-2.0-flash\"}";
+        // Real responses are pretty-printed
+        return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(objectMapper.readTree(json));
+    }
+
+    private static String rating(String category) {
+        return "{\"category\": \"" + category + "\", \"probability\": \"NEGLIGIBLE\"}";
+    }
+}
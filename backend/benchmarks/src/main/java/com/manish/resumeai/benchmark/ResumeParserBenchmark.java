@@ -0,0 +1,86 @@
+package com.manish.resumeai.benchmark;
+
+import com.manish.resumeai.util.ResumeParser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Text extraction from PDF and DOCX resumes of increasing length, in both
+ * parser modes: STREAMING (memory-mapped PDF, SAX over the DOCX parts) and
+ * IN_MEMORY (whole file on the heap, full POI object model).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResumeParserBenchmark {
+
+    @Param({"1", "4", "16"})
+    public int pages;
+
+    @Param({"STREAMING", "IN_MEMORY"})
+    public ResumeParser.Mode mode;
+
+    private Path dir;
+    private Path pdf;
+    private Path docx;
+    private ResumeParser parser;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("resume-bench-");
+        pdf = SyntheticResumes.writePdf(pages, dir);
+        docx = SyntheticResumes.writeDocx(pages, dir);
+
+        // Outside Spring, so the @Value fields get the application.properties defaults by hand
+        parser = new ResumeParser(new SimpleMeterRegistry(), ObservationRegistry.NOOP);
+        set(parser, "mode", mode);
+        set(parser, "maxPages", 0);
+        set(parser, "maxChars", 200_000);
+        set(parser, "pdfMemory", DataSize.ofMegabytes(4));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        FileUtils.deleteQuietly(dir.toFile());
+    }
+
+    @Benchmark
+    public String extractPdf() throws IOException {
+        return parser.extractText(pdf, "resume.pdf");
+    }
+
+    @Benchmark
+    public String extractDocx() throws IOException {
+        return parser.extractText(docx, "resume.docx");
+    }
+
+    private static void set(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
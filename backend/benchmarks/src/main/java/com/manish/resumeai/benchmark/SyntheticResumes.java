@@ -0,0 +1,130 @@
+package com.manish.resumeai.benchmark;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic resumes of a given length, as plain lines and as
+ * PDF and DOCX files, so runs on different machines parse the same input.
+ */
+final class SyntheticResumes {
+
+    private static final int LINES_PER_PAGE = 50;
+
+    private static final String[] SKILLS = {
+        "Java", "Spring Boot", "Kubernetes", "AWS", "Kafka", "PostgreSQL", "Docker", "Python",
+        "React", "TypeScript", "Terraform", "Redis", "GraphQL", "Microservices", "CI/CD", "Linux"
+    };
+    private static final String[] VERBS = {
+        "Designed", "Built", "Led", "Migrated", "Scaled", "Optimized", "Automated", "Mentored"
+    };
+    private static final String[] OBJECTS = {
+        "a payments platform", "the search backend", "an event streaming pipeline", "customer-facing APIs",
+        "the deployment tooling", "a recommendation service", "internal analytics dashboards", "the billing system"
+    };
+    private static final String[] OUTCOMES = {
+        "cutting p99 latency by 40%", "serving 2M requests per day", "reducing cloud spend by 25%",
+        "improving release frequency to daily", "raising test coverage to 85%", "onboarding 12 engineers"
+    };
+
+    private SyntheticResumes() {
+    }
+
+    /**
+     * Resume text of roughly {@code pages} pages: contact block, summary,
+     * dated positions with bullet points, skills and education.
+     */
+    static List<String> lines(int pages) {
+        Random random = new Random(42);
+        List<String> lines = new ArrayList<>();
+        lines.add("JANE DOE");
+        lines.add("Senior Software Engineer | jane.doe@example.com | +1 555 0100");
+        lines.add("SUMMARY");
+        lines.add("Backend engineer with 10 years of experience building distributed systems on the JVM.");
+        lines.add("EXPERIENCE");
+
+        int target = pages * LINES_PER_PAGE - 8;
+        int year = 2024;
+        while (lines.size() < target) {
+            lines.add("Senior Software Engineer, Company " + (char) ('A' + random.nextInt(26)) + " Inc    Jan "
+                    + (year - 2) + " - Dec " + year);
+            for (int i = 0; i < 6 && lines.size() < target; i++) {
+                lines.add("- " + VERBS[random.nextInt(VERBS.length)] + " " + OBJECTS[random.nextInt(OBJECTS.length)]
+                        + " with " + SKILLS[random.nextInt(SKILLS.length)] + " and "
+                        + SKILLS[random.nextInt(SKILLS.length)] + ", " + OUTCOMES[random.nextInt(OUTCOMES.length)]);
+            }
+            year -= 2;
+        }
+
+        lines.add("SKILLS");
+        lines.add("Languages: Java, Python, TypeScript, SQL");
+        lines.add("Platforms: Spring Boot, Kubernetes, AWS, Kafka, PostgreSQL, Redis");
+        lines.add("EDUCATION");
+        lines.add("B.Sc. Computer Science, State University 2010 - 2014");
+        return lines;
+    }
+
+    static String text(int pages) {
+        return String.join("\n", lines(pages));
+    }
+
+    static Path writePdf(int pages, Path dir) throws IOException {
+        Path file = dir.resolve("resume-" + pages + ".pdf");
+        List<String> lines = lines(pages);
+        try (PDDocument document = new PDDocument()) {
+            PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+            for (int start = 0; start < lines.size(); start += LINES_PER_PAGE) {
+                PDPage page = new PDPage(PDRectangle.LETTER);
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(font, 9);
+                    content.setLeading(14);
+                    content.newLineAtOffset(40, 750);
+                    for (String line : lines.subList(start, Math.min(lines.size(), start + LINES_PER_PAGE))) {
+                        content.showText(line);
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            document.save(file.toFile());
+        }
+        return file;
+    }
+
+    /**
+     * DOCX with the same lines as paragraphs, plus a small skills table so
+     * table extraction is exercised too.
+     */
+    static Path writeDocx(int pages, Path dir) throws IOException {
+        Path file = dir.resolve("resume-" + pages + ".docx");
+        try (XWPFDocument document = new XWPFDocument();
+             OutputStream out = Files.newOutputStream(file)) {
+            for (String line : lines(pages)) {
+                document.createParagraph().createRun().setText(line);
+            }
+            XWPFTable table = document.createTable(4, 2);
+            for (int row = 0; row < 4; row++) {
+                table.getRow(row).getCell(0).setText(SKILLS[row * 2]);
+                table.getRow(row).getCell(1).setText(SKILLS[row * 2 + 1]);
+            }
+            document.write(out);
+        }
+        return file;
+    }
+}
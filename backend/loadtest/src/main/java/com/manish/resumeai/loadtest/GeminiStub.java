@@ -0,0 +1,237 @@
+package com.manish.resumeai.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Stand-in for the Gemini API. Serves {@code generateContent} and
+ * {@code streamGenerateContent?alt=sse} with response bodies shaped like the
+ * real ones, after a log-normal latency with a configurable median and p99.
+ * A share of calls can fail with 503, and 429 bursts can be switched on
+ * periodically. Structured-output calls (batched summaries, re-ranking) get
+ * a JSON array with one entry per "=== Resume N ===" in the prompt.
+ * {@code GET /stats} reports request counts, concurrency and connections.
+ *
+ * <p>Point the backend at it with
+ * {@code --gemini.api.base-url=http://localhost:18090/v1beta}.
+ */
+public final class GeminiStub {
+
+    private static final Pattern RESUME_MARKER = Pattern.compile("=== Resume (\\d+) ===");
+    private static final String SENTENCE =
+            "Your experience leading backend migrations shows strong ownership and technical depth. ";
+
+    private final double medianMillis;
+    private final double sigma;
+    private final double errorRate;
+    private final long burstEveryNanos;
+    private final long burstLengthNanos;
+    private final int answerSentences;
+    private final int streamChunks;
+    private final long startedAt = System.nanoTime();
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong streams = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final Set<Integer> connections = ConcurrentHashMap.newKeySet();
+
+    GeminiStub(Options options) {
+        this.medianMillis = options.decimal("latency-median-ms", 800);
+        double p99Millis = Math.max(options.decimal("latency-p99-ms", 3000), medianMillis);
+        // For a log-normal, p99 = median * e^(2.326 sigma)
+        this.sigma = Math.log(p99Millis / medianMillis) / 2.326;
+        this.errorRate = options.decimal("error-rate", 0);
+        this.burstEveryNanos = options.duration("burst-429-every", Duration.ZERO).toNanos();
+        this.burstLengthNanos = options.duration("burst-429-length", Duration.ofSeconds(5)).toNanos();
+        this.answerSentences = options.integer("answer-sentences", 8);
+        this.streamChunks = options.integer("stream-chunks", 8);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Options options = new Options(args);
+        if (options.flag("help")) {
+            System.out.println("""
+                    GeminiStub options:
+                      --port 18090                 listen port
+                      --latency-median-ms 800      median response latency
+                      --latency-p99-ms 3000        99th percentile latency (log-normal in between)
+                      --error-rate 0.0             share of calls failing with 503
+                      --burst-429-every 0s         start a 429 burst this often (0s = never)
+                      --burst-429-length 5s        length of each 429 burst
+                      --answer-sentences 8         length of generated answers
+                      --stream-chunks 8            SSE events per streamed answer
+                      --threads 512                worker threads (each waiting call holds one)""");
+            return;
+        }
+        GeminiStub stub = new GeminiStub(options);
+        int port = options.integer("port", 18090);
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 1024);
+        server.setExecutor(Executors.newFixedThreadPool(options.integer("threads", 512)));
+        server.createContext("/", stub::handle);
+        server.start();
+        System.out.printf("Gemini stub on port %d: median %.0f ms, sigma %.2f, error rate %.3f, 429 bursts %s%n",
+                port, stub.medianMillis, stub.sigma, stub.errorRate,
+                stub.burstEveryNanos > 0 ? "every " + Duration.ofNanos(stub.burstEveryNanos).toSeconds() + "s" : "off");
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            if ("GET".equals(exchange.getRequestMethod()) && path.equals("/stats")) {
+                send(exchange, 200, "application/json", stats());
+                return;
+            }
+            String body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            connections.add(exchange.getRemoteAddress().getPort());
+            int concurrent = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(concurrent, Math::max);
+            try {
+                serve(exchange, path, body);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    private void serve(HttpExchange exchange, String path, String body) throws IOException {
+        requests.incrementAndGet();
+        if (inBurst()) {
+            throttled.incrementAndGet();
+            exchange.getResponseHeaders().add("Retry-After", "1");
+            send(exchange, 429, "application/json",
+                    "{\"error\": {\"code\": 429, \"message\": \"Resource has been exhausted\", \"status\": \"RESOURCE_EXHAUSTED\"}}");
+            return;
+        }
+
+        long latencyMillis = sampleLatency();
+        if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+            sleep(latencyMillis / 4);
+            errors.incrementAndGet();
+            send(exchange, 503, "application/json",
+                    "{\"error\": {\"code\": 503, \"message\": \"The model is overloaded\", \"status\": \"UNAVAILABLE\"}}");
+            return;
+        }
+
+        if (path.endsWith(":streamGenerateContent")) {
+            streams.incrementAndGet();
+            stream(exchange, latencyMillis);
+        } else if (path.endsWith(":generateContent")) {
+            sleep(latencyMillis);
+            String text = body.contains("\"responseMimeType\"") ? structuredAnswer(body) : answer(answerSentences);
+            send(exchange, 200, "application/json", response(text, true));
+        } else {
+            send(exchange, 404, "application/json", "{\"error\": {\"code\": 404, \"status\": \"NOT_FOUND\"}}");
+        }
+    }
+
+    /**
+     * The answer as SSE events spread over the latency, the first one after
+     * a quarter of it (time to first token).
+     */
+    private void stream(HttpExchange exchange, long latencyMillis) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        sleep(latencyMillis / 4);
+        long gap = latencyMillis * 3 / 4 / Math.max(1, streamChunks);
+        int perChunk = Math.max(1, answerSentences / Math.max(1, streamChunks));
+        for (int i = 0; i < streamChunks; i++) {
+            String event = "data: " + response(answer(perChunk), i == streamChunks - 1) + "\r\n\r\n";
+            out.write(event.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            if (i < streamChunks - 1) {
+                sleep(gap);
+            }
+        }
+    }
+
+    private boolean inBurst() {
+        if (burstEveryNanos <= 0) {
+            return false;
+        }
+        long elapsed = System.nanoTime() - startedAt;
+        return elapsed >= burstEveryNanos && elapsed % burstEveryNanos < burstLengthNanos;
+    }
+
+    private long sampleLatency() {
+        double gaussian = ThreadLocalRandom.current().nextGaussian();
+        return Math.round(medianMillis * Math.exp(sigma * gaussian));
+    }
+
+    private static String answer(int sentences) {
+        return SENTENCE.repeat(sentences);
+    }
+
+    private static String structuredAnswer(String prompt) {
+        Matcher matcher = RESUME_MARKER.matcher(prompt);
+        StringBuilder items = new StringBuilder("[");
+        while (matcher.find()) {
+            int id = Integer.parseInt(matcher.group(1));
+            if (items.length() > 1) {
+                items.append(',');
+            }
+            items.append("{\"id\":").append(id)
+                    .append(",\"summary\":\"Backend engineer number ").append(id).append(" with distributed systems experience.\"")
+                    .append(",\"score\":").append(ThreadLocalRandom.current().nextInt(40, 96))
+                    .append(",\"reason\":\"Relevant backend experience.\"}");
+        }
+        return items.append(']').toString();
+    }
+
+    private static String response(String text, boolean complete) {
+        return "{\"candidates\": [{\"content\": {\"parts\": [{\"text\": \"" + escape(text) + "\"}], \"role\": \"model\"}, "
+                + (complete ? "\"finishReason\": \"STOP\", " : "")
+                + "\"index\": 0, \"safetyRatings\": ["
+                + "{\"category\": \"HARM_CATEGORY_HATE_SPEECH\", \"probability\": \"NEGLIGIBLE\"}, "
+                + "{\"category\": \"HARM_CATEGORY_DANGEROUS_CONTENT\", \"probability\": \"NEGLIGIBLE\"}]}], "
+                + "\"usageMetadata\": {\"promptTokenCount\": 1200, \"candidatesTokenCount\": " + text.length() / 4
+                + ", \"totalTokenCount\": " + (1200 + text.length() / 4) + "}, \"modelVersion\": \"stub\"}";
+    }
+
+    private String stats() {
+        return String.format("{\"requests\": %d, \"streams\": %d, \"errors\": %d, \"throttled\": %d, "
+                        + "\"inFlight\": %d, \"maxInFlight\": %d, \"connectionsOpened\": %d}",
+                requests.get(), streams.get(), errors.get(), throttled.get(),
+                inFlight.get(), maxInFlight.get(), connections.size());
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(Math.max(0, millis));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.manish.resumeai.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Latencies of one operation type, with success and error counts. Samples
+ * are kept in a growable {@code long[]} so percentiles are exact; a run of a
+ * few million requests needs tens of megabytes at most.
+ */
+final class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int size;
+    private long errors;
+
+    synchronized void record(long nanos, boolean success) {
+        if (!success) {
+            errors++;
+        }
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, size * 2);
+        }
+        samples[size++] = nanos;
+    }
+
+    synchronized Summary summarize(double seconds) {
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        return new Summary(size, errors, size / seconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                size == 0 ? 0 : sorted[size - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+    }
+
+    /**
+     * Latencies in milliseconds, throughput in requests per second.
+     */
+    record Summary(long count, long errors, double throughput, double p50, double p95, double p99, double max) {
+    }
+}
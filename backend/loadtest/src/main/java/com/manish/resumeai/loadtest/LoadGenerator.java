@@ -0,0 +1,313 @@
+package com.manish.resumeai.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Closed-loop load against the backend: {@code concurrency} workers each
+ * send one request at a time, an upload with probability
+ * {@code upload-ratio} and otherwise a question on one of the sessions
+ * created so far. Prints latency percentiles and throughput per operation,
+ * and the backend's thread, connection-pool and LLM concurrency gauges
+ * sampled once a second from its actuator metrics. If {@code --stub} is
+ * given, the Gemini stub's own counters are printed as well.
+ */
+public final class LoadGenerator {
+
+    private static final Pattern SESSION_ID = Pattern.compile("\"sessionId\"\\s*:\\s*\"([^\"]+)\"");
+
+    private static final List<String> QUESTIONS = List.of(
+        "How should I answer 'Tell me about yourself'?",
+        "What are my key strengths for a senior Java role?",
+        "Help me prepare for 'Why should we hire you?'",
+        "What's my biggest achievement to highlight?",
+        "What are my strongest technical skills?",
+        "How many years of Java experience do I have?",
+        "What domains have I worked in?",
+        "Summarize my leadership experience"
+    );
+
+    /**
+     * Backend gauges sampled during the run; ones the backend does not
+     * expose are skipped.
+     */
+    private static final List<String> GAUGES = List.of(
+        "jvm.threads.live",
+        "tomcat.threads.busy",
+        "tomcat.threads.config.max",
+        "executor.active",
+        "reactor.netty.connection.provider.active.connections",
+        "reactor.netty.connection.provider.idle.connections",
+        "reactor.netty.connection.provider.pending.connections",
+        "llm.concurrency.in-flight",
+        "llm.concurrency.queued",
+        "llm.concurrency.limit"
+    );
+
+    private final HttpClient client;
+    private final String target;
+    private final List<Path> resumes;
+    private final double uploadRatio;
+    private final boolean skipCache;
+    private final Duration timeout;
+    private final List<String> sessions = new CopyOnWriteArrayList<>();
+    private final Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+
+    LoadGenerator(Options options, List<Path> resumes) {
+        this.target = options.string("target", "http://localhost:8080");
+        this.resumes = resumes;
+        this.uploadRatio = options.decimal("upload-ratio", 0.05);
+        this.skipCache = options.flag("skip-cache");
+        this.timeout = options.duration("timeout", Duration.ofSeconds(60));
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newCachedThreadPool())
+                .build();
+        recorders.put("upload", new LatencyRecorder());
+        recorders.put("query", new LatencyRecorder());
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new Options(args);
+        if (options.flag("help") || !options.has("resumes")) {
+            System.out.println("""
+                    LoadGenerator options:
+                      --target http://localhost:8080   backend base URL
+                      --resumes <file or directory>    PDF/DOCX resumes to upload (required)
+                      --concurrency 16                 concurrent workers
+                      --duration 60s                   measured run length
+                      --warmup 10s                     unmeasured run before it
+                      --sessions 20                    sessions uploaded before the run
+                      --upload-ratio 0.05              share of requests that are uploads
+                      --skip-cache                     bypass the backend's answer cache
+                      --timeout 60s                    per-request timeout
+                      --stub http://localhost:18090    Gemini stub to read /stats from""");
+            return;
+        }
+
+        List<Path> resumes = resumeFiles(Path.of(options.string("resumes", ".")));
+        LoadGenerator generator = new LoadGenerator(options, resumes);
+        int concurrency = options.integer("concurrency", 16);
+        Duration warmup = options.duration("warmup", Duration.ofSeconds(10));
+        Duration duration = options.duration("duration", Duration.ofSeconds(60));
+
+        generator.seedSessions(options.integer("sessions", 20));
+        System.out.printf("Warming up for %ds with %d workers...%n", warmup.toSeconds(), concurrency);
+        generator.run(concurrency, warmup, null);
+        generator.reset();
+
+        System.out.printf("Measuring for %ds...%n", duration.toSeconds());
+        Map<String, List<Double>> samples = new LinkedHashMap<>();
+        double seconds = generator.run(concurrency, duration, samples);
+        generator.report(seconds, samples);
+
+        if (options.has("stub")) {
+            System.out.println("\nGemini stub: " + generator.get(options.string("stub", "") + "/stats"));
+        }
+    }
+
+    private void seedSessions(int count) throws InterruptedException {
+        for (int i = 0; i < count; i++) {
+            upload();
+        }
+        if (sessions.isEmpty()) {
+            throw new IllegalStateException("No upload succeeded; is the backend running at " + target + "?");
+        }
+        System.out.printf("Seeded %d sessions%n", sessions.size());
+    }
+
+    /**
+     * Run the workers for the duration, sampling the backend gauges into
+     * {@code samples} once a second if it is not null. Returns the seconds
+     * the run actually took.
+     */
+    private double run(int concurrency, Duration duration, Map<String, List<Double>> samples)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        if (samples != null) {
+            sampler.scheduleAtFixedRate(() -> sampleGauges(samples), 0, 1, TimeUnit.SECONDS);
+        }
+
+        CountDownLatch done = new CountDownLatch(concurrency);
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < concurrency; i++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        if (ThreadLocalRandom.current().nextDouble() < uploadRatio) {
+                            upload();
+                        } else {
+                            query();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }, "load-" + i);
+            worker.start();
+        }
+        done.await();
+        sampler.shutdownNow();
+        return (System.nanoTime() - startedAt) / 1e9;
+    }
+
+    private void upload() throws InterruptedException {
+        Path resume = resumes.get(ThreadLocalRandom.current().nextInt(resumes.size()));
+        String boundary = "----load" + UUID.randomUUID();
+        try {
+            byte[] body = multipart(boundary, resume);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(target + "/api/resume/upload"))
+                    .timeout(timeout)
+                    .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                    .build();
+            String response = send("upload", request);
+            if (response != null) {
+                Matcher matcher = SESSION_ID.matcher(response);
+                if (matcher.find()) {
+                    sessions.add(matcher.group(1));
+                }
+            }
+        } catch (IOException e) {
+            recorders.get("upload").record(0, false);
+        }
+    }
+
+    private void query() throws InterruptedException {
+        String session = sessions.get(ThreadLocalRandom.current().nextInt(sessions.size()));
+        String question = QUESTIONS.get(ThreadLocalRandom.current().nextInt(QUESTIONS.size()));
+        String json = "{\"question\": \"" + question.replace("\"", "\\\"") + "\", \"skipCache\": " + skipCache + "}";
+        HttpRequest request = HttpRequest.newBuilder(URI.create(target + "/api/resume/query"))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .header("X-Session-ID", session)
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        send("query", request);
+    }
+
+    /**
+     * Send and record the latency. Returns the body of a successful response, or null.
+     */
+    private String send(String operation, HttpRequest request) throws InterruptedException {
+        long startedAt = System.nanoTime();
+        boolean success = false;
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            success = response.statusCode() == 200 && response.body().contains("\"success\":true");
+            return success ? response.body() : null;
+        } catch (IOException e) {
+            return null;
+        } finally {
+            recorders.get(operation).record(System.nanoTime() - startedAt, success);
+        }
+    }
+
+    private void sampleGauges(Map<String, List<Double>> samples) {
+        for (String gauge : GAUGES) {
+            String body = get(target + "/actuator/metrics/" + gauge);
+            Matcher matcher = Pattern.compile("\"statistic\"\\s*:\\s*\"VALUE\"\\s*,\\s*\"value\"\\s*:\\s*([-0-9.Ee]+)")
+                    .matcher(body == null ? "" : body);
+            double total = 0;
+            boolean found = false;
+            // Gauges with several tag combinations (e.g. one per pool) are summed
+            while (matcher.find()) {
+                total += Double.parseDouble(matcher.group(1));
+                found = true;
+            }
+            if (found) {
+                samples.computeIfAbsent(gauge, name -> new ArrayList<>()).add(total);
+            }
+        }
+    }
+
+    private String get(String url) {
+        try {
+            HttpResponse<String> response = client.send(
+                    HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(5)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            return response.statusCode() == 200 ? response.body() : null;
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private void reset() {
+        recorders.replaceAll((operation, recorder) -> new LatencyRecorder());
+    }
+
+    private void report(double seconds, Map<String, List<Double>> samples) {
+        System.out.printf("%nRun: %.1f s%n", seconds);
+        System.out.printf("%-8s %9s %7s %10s %9s %9s %9s %9s%n",
+                "op", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        recorders.forEach((operation, recorder) -> {
+            LatencyRecorder.Summary summary = recorder.summarize(seconds);
+            System.out.printf("%-8s %9d %7d %10.1f %9.1f %9.1f %9.1f %9.1f%n", operation, summary.count(),
+                    summary.errors(), summary.throughput(), summary.p50(), summary.p95(), summary.p99(), summary.max());
+        });
+
+        System.out.printf("%n%-56s %9s %9s%n", "utilization (sampled each second)", "mean", "max");
+        samples.forEach((gauge, values) -> System.out.printf("%-56s %9.1f %9.1f%n", gauge,
+                values.stream().mapToDouble(Double::doubleValue).average().orElse(0),
+                values.stream().mapToDouble(Double::doubleValue).max().orElse(0)));
+    }
+
+    private static byte[] multipart(String boundary, Path file) throws IOException {
+        String head = "--" + boundary + "\r\nContent-Disposition: form-data; name=\"file\"; filename=\""
+                + file.getFileName() + "\"\r\nContent-Type: application/octet-stream\r\n\r\n";
+        byte[] headBytes = head.getBytes(StandardCharsets.UTF_8);
+        byte[] content = Files.readAllBytes(file);
+        byte[] tail = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8);
+        byte[] body = new byte[headBytes.length + content.length + tail.length];
+        System.arraycopy(headBytes, 0, body, 0, headBytes.length);
+        System.arraycopy(content, 0, body, headBytes.length, content.length);
+        System.arraycopy(tail, 0, body, headBytes.length + content.length, tail.length);
+        return body;
+    }
+
+    private static List<Path> resumeFiles(Path path) throws IOException {
+        if (!Files.isDirectory(path)) {
+            return List.of(path);
+        }
+        try (Stream<Path> files = Files.list(path)) {
+            List<Path> resumes = files
+                    .filter(file -> {
+                        String name = file.getFileName().toString().toLowerCase();
+                        return name.endsWith(".pdf") || name.endsWith(".docx");
+                    })
+                    .sorted()
+                    .toList();
+            if (resumes.isEmpty()) {
+                throw new IllegalArgumentException("No PDF or DOCX files in " + path);
+            }
+            return resumes;
+        }
+    }
+}
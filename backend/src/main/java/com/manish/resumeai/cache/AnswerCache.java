@@ -0,0 +1,31 @@
+package com.manish.resumeai.cache;
+
+/**
+ * Cache of LLM answers keyed by a content hash of the fully assembled request
+ * (prompt, model and generation settings). Only successful answers are stored.
+ */
+public interface AnswerCache {
+
+    /**
+     * Cached answer for the key, or null on a miss.
+     */
+    String get(String key);
+
+    void put(String key, String answer);
+
+    /**
+     * Cache that never stores anything, used when caching is switched off.
+     */
+    static AnswerCache disabled() {
+        return new AnswerCache() {
+            @Override
+            public String get(String key) {
+                return null;
+            }
+
+            @Override
+            public void put(String key, String answer) {
+            }
+        };
+    }
+}
@@ -0,0 +1,37 @@
+package com.manish.resumeai.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+
+/**
+ * In-memory answer cache with size and time-to-live bounds. Hit, miss and
+ * eviction counts are published under the {@code cache.*} meters with
+ * {@code cache=llm.answers}.
+ */
+public class CaffeineAnswerCache implements AnswerCache {
+
+    private final Cache<String, String> cache;
+
+    public CaffeineAnswerCache(long maxEntries, Duration ttl, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "llm.answers");
+    }
+
+    @Override
+    public String get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    @Override
+    public void put(String key, String answer) {
+        cache.put(key, answer);
+    }
+}
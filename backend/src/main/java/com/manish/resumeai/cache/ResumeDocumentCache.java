@@ -0,0 +1,44 @@
+package com.manish.resumeai.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.manish.resumeai.session.ResumeDocument;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+
+/**
+ * Content-addressed cache of extracted resumes, keyed by the SHA-256 of the
+ * uploaded file, so re-uploads skip parsing and summary generation.
+ */
+public class ResumeDocumentCache {
+
+    private final Cache<String, ResumeDocument> documents;
+
+    public ResumeDocumentCache(long maxBytes, Duration ttl, MeterRegistry meterRegistry) {
+        this.documents = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String hash, ResumeDocument document) -> document.retainedBytes())
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, documents, "resume.documents");
+    }
+
+    /**
+     * The document for the content hash, or null if it is not cached.
+     */
+    public ResumeDocument get(String contentHash) {
+        return documents.getIfPresent(contentHash);
+    }
+
+    /**
+     * Cache the document unless another upload of the same bytes got there
+     * first, in which case that one is returned so both share it.
+     */
+    public ResumeDocument putIfAbsent(ResumeDocument document) {
+        ResumeDocument existing = documents.asMap().putIfAbsent(document.getContentHash(), document);
+        return existing != null ? existing : document;
+    }
+}
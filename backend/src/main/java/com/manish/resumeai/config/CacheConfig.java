@@ -0,0 +1,41 @@
+package com.manish.resumeai.config;
+
+import com.manish.resumeai.cache.AnswerCache;
+import com.manish.resumeai.cache.CaffeineAnswerCache;
+import com.manish.resumeai.cache.ResumeDocumentCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Slf4j
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public AnswerCache answerCache(
+            @Value("${gemini.cache.enabled:true}") boolean enabled,
+            @Value("${gemini.cache.max-entries:10000}") long maxEntries,
+            @Value("${gemini.cache.ttl:1h}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        if (!enabled) {
+            log.info("LLM answer cache disabled");
+            return AnswerCache.disabled();
+        }
+        log.info("LLM answer cache: max {} entries, ttl {}", maxEntries, ttl);
+        return new CaffeineAnswerCache(maxEntries, ttl, meterRegistry);
+    }
+
+    @Bean
+    public ResumeDocumentCache resumeDocumentCache(
+            @Value("${resume.documents.max-size:128MB}") DataSize maxSize,
+            @Value("${resume.documents.ttl:24h}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        log.info("Resume document cache: budget {}, ttl {}", maxSize, ttl);
+        return new ResumeDocumentCache(maxSize.toBytes(), ttl, meterRegistry);
+    }
+}
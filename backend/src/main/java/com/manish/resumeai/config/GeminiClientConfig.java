@@ -0,0 +1,81 @@
+package com.manish.resumeai.config;
+
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * HTTP client for the Gemini API: a dedicated, bounded Reactor Netty
+ * connection pool with timeouts, compression and (over TLS) HTTP/2. Pool and
+ * client metrics are published under {@code reactor.netty.*}.
+ */
+@Slf4j
+@Configuration
+public class GeminiClientConfig {
+
+    public static final String POOL_NAME = "gemini";
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider geminiConnectionProvider(
+            @Value("${gemini.http.max-connections:64}") int maxConnections,
+            @Value("${gemini.http.pending-acquire-max:256}") int pendingAcquireMax,
+            @Value("${gemini.http.pending-acquire-timeout:5s}") Duration pendingAcquireTimeout,
+            @Value("${gemini.http.max-idle-time:30s}") Duration maxIdleTime,
+            @Value("${gemini.http.max-life-time:5m}") Duration maxLifeTime) {
+        log.info("Gemini connection pool: {} connections, {} pending acquires (timeout {}), idle {}, life {}",
+                maxConnections, pendingAcquireMax, pendingAcquireTimeout, maxIdleTime, maxLifeTime);
+        return ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMax)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                // Close idle connections before the server or a load balancer drops them
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(maxIdleTime)
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClient geminiWebClient(
+            WebClient.Builder webClientBuilder,
+            ConnectionProvider geminiConnectionProvider,
+            @Value("${gemini.api.key}") String apiKey,
+            @Value("${gemini.http.connect-timeout:5s}") Duration connectTimeout,
+            @Value("${gemini.http.response-timeout:30s}") Duration responseTimeout,
+            @Value("${gemini.http.http2:true}") boolean http2,
+            @Value("${gemini.http.compression:true}") boolean compression) {
+        HttpClient httpClient = HttpClient.create(geminiConnectionProvider)
+                // HTTP/2 is negotiated over TLS; plain-HTTP endpoints such as a local stub use HTTP/1.1
+                .protocol(http2 ? new HttpProtocol[] {HttpProtocol.H2, HttpProtocol.HTTP11}
+                                : new HttpProtocol[] {HttpProtocol.HTTP11})
+                .compress(compression)
+                .keepAlive(true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                // Longest wait for the response or, when streaming, between two chunks
+                .responseTimeout(responseTimeout)
+                .metrics(true, Function.identity());
+
+        log.info("Gemini HTTP client: connect timeout {}, response timeout {}, http2 {}, compression {}",
+                connectTimeout, responseTimeout, http2, compression);
+        return webClientBuilder.clone()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                // Sent as a header so the key never appears in URIs, logs or metric tags
+                .defaultHeader("x-goog-api-key", apiKey)
+                .build();
+    }
+}
@@ -0,0 +1,51 @@
+package com.manish.resumeai.config;
+
+import com.manish.resumeai.cache.ResumeDocumentCache;
+import com.manish.resumeai.session.CompactText;
+import com.manish.resumeai.session.FileSessionStore;
+import com.manish.resumeai.session.InMemorySessionStore;
+import com.manish.resumeai.session.SessionStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Slf4j
+@Configuration
+public class SessionStoreConfig {
+
+    /**
+     * MEMORY keeps sessions in this instance's heap; FILE keeps them in a
+     * directory shared by every instance on the host, with a heap near-cache.
+     */
+    public enum Type {
+        MEMORY, FILE
+    }
+
+    @Bean
+    public SessionStore sessionStore(
+            @Value("${session.store.type:MEMORY}") Type type,
+            @Value("${session.store.max-size:256MB}") DataSize maxSize,
+            @Value("${session.store.idle-ttl:2h}") Duration idleTtl,
+            @Value("${session.store.file.dir:${java.io.tmpdir}/resume-ai-sessions}") Path dir,
+            @Value("${session.store.file.max-disk-size:1GB}") DataSize maxDiskSize,
+            @Value("${session.store.file.revalidate-after:1s}") Duration revalidateAfter,
+            @Value("${session.store.file.sweep-interval:5m}") Duration sweepInterval,
+            @Value("${session.store.text-encoding:UTF8}") CompactText.Encoding textEncoding,
+            ResumeDocumentCache documentCache,
+            MeterRegistry meterRegistry) {
+        if (type == Type.FILE) {
+            log.info("Session store: file-backed at {}, disk budget {}, near-cache budget {}, idle ttl {}",
+                    dir, maxDiskSize, maxSize, idleTtl);
+            return new FileSessionStore(dir, maxSize.toBytes(), idleTtl, maxDiskSize.toBytes(),
+                    revalidateAfter, sweepInterval, textEncoding, documentCache, meterRegistry);
+        }
+        log.info("Session store: in-memory, budget {}, idle ttl {}", maxSize, idleTtl);
+        return new InMemorySessionStore(maxSize.toBytes(), idleTtl, meterRegistry);
+    }
+}
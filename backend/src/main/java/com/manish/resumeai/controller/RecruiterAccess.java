@@ -0,0 +1,49 @@
+package com.manish.resumeai.controller;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Guards the recruiter endpoints (batch ingestion and candidate ranking),
+ * which handle many people's resumes at once. Callers must send the
+ * configured key in the {@code X-Recruiter-Key} header; without a
+ * configured key the endpoints are disabled.
+ */
+@Slf4j
+@Component
+public class RecruiterAccess {
+
+    public static final String HEADER = "X-Recruiter-Key";
+
+    private final byte[] key;
+
+    public RecruiterAccess(@Value("${resume.recruiter.api-key:}") String key) {
+        this.key = key == null || key.isBlank() ? null : key.getBytes(StandardCharsets.UTF_8);
+        log.info("Recruiter endpoints {}", this.key != null ? "enabled" : "disabled (no resume.recruiter.api-key)");
+    }
+
+    /**
+     * Null if the request may proceed, otherwise the status to refuse it with.
+     */
+    public HttpStatus check(String presentedKey) {
+        if (key == null) {
+            return HttpStatus.FORBIDDEN;
+        }
+        if (presentedKey == null
+                || !MessageDigest.isEqual(key, presentedKey.getBytes(StandardCharsets.UTF_8))) {
+            return HttpStatus.UNAUTHORIZED;
+        }
+        return null;
+    }
+
+    public static String message(HttpStatus status) {
+        return status == HttpStatus.FORBIDDEN
+                ? "Recruiter features are disabled on this server."
+                : "A valid recruiter key is required.";
+    }
+}
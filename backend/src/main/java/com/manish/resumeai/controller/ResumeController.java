@@ -1,19 +1,41 @@
 package com.manish.resumeai.controller;
 
+import com.manish.resumeai.dto.BatchJobResponse;
 import com.manish.resumeai.dto.QueryRequest;
 import com.manish.resumeai.dto.QueryResponse;
+import com.manish.resumeai.dto.RankRequest;
+import com.manish.resumeai.dto.RankResponse;
+import com.manish.resumeai.dto.SummaryResponse;
 import com.manish.resumeai.dto.UploadResponse;
+import com.manish.resumeai.llm.LlmCaller;
+import com.manish.resumeai.llm.LlmCapacityExceededException;
+import com.manish.resumeai.llm.LlmQuotaExceededException;
+import com.manish.resumeai.service.BatchIngestService;
+import com.manish.resumeai.service.BatchJob;
+import com.manish.resumeai.service.CandidateRanker;
+import com.manish.resumeai.service.ParseCapacityExceededException;
 import com.manish.resumeai.service.ResumeAIService;
+import com.manish.resumeai.service.ResumeIngestService;
+import com.manish.resumeai.session.ResumeDocument;
 import com.manish.resumeai.util.ResumeParser;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeoutException;
 
 @Slf4j
 @RestController
@@ -23,91 +45,319 @@ public class ResumeController {
 
     private final ResumeAIService aiService;
     private final ResumeParser resumeParser;
+    private final ResumeIngestService ingestService;
+    private final BatchIngestService batchIngestService;
+    private final CandidateRanker candidateRanker;
+    private final RecruiterAccess recruiterAccess;
 
     /**
      * Upload resume file (PDF or DOCX)
      */
     @PostMapping("/upload")
-    public ResponseEntity<UploadResponse> uploadResume(@RequestParam("file") MultipartFile file) {
+    public Mono<ResponseEntity<UploadResponse>> uploadResume(@RequestParam("file") MultipartFile file) {
         try {
             log.info("Received resume upload: {}", file.getOriginalFilename());
             
             // Validate file
             if (!resumeParser.isValidResumeFile(file)) {
-                return ResponseEntity.badRequest().body(
+                return Mono.just(ResponseEntity.badRequest().body(
                     UploadResponse.error("Invalid file. Please upload a PDF or DOCX file.")
-                );
-            }
-            
-            // Extract text from resume
-            String resumeText = resumeParser.extractText(file);
-            
-            if (resumeText == null || resumeText.trim().isEmpty()) {
-                return ResponseEntity.badRequest().body(
-                    UploadResponse.error("Could not extract text from the file. Please ensure it's a valid resume.")
-                );
+                ));
             }
             
-            // Generate session ID
-            String sessionId = UUID.randomUUID().toString();
-            
-            // Store resume and get summary
-            String summary = aiService.storeResume(sessionId, resumeText);
+            // Extract text on the parse workers (duplicate uploads reuse the earlier extraction)
+            return ingestService.ingest(file)
+                    .flatMap(document -> {
+                        // Generate session ID
+                        String sessionId = UUID.randomUUID().toString();
+                        
+                        if (aiService.isSummaryDeferred()) {
+                            String summary = aiService.storeResumeDeferred(sessionId, document);
+                            log.info("Resume uploaded successfully. Session: {}", sessionId);
+                            return Mono.just(ResponseEntity.ok(summary != null
+                                    ? UploadResponse.success(sessionId, "Resume uploaded successfully!", document.getLength(), summary)
+                                    : UploadResponse.pending(sessionId, "Resume uploaded successfully!", document.getLength())));
+                        }
+                        
+                        // Store resume and get summary
+                        return aiService.storeResumeAsync(sessionId, document)
+                                .map(summary -> {
+                                    log.info("Resume uploaded successfully. Session: {}", sessionId);
+                                    
+                                    return ResponseEntity.ok(UploadResponse.success(
+                                        sessionId,
+                                        "Resume uploaded successfully!",
+                                        document.getLength(),
+                                        summary
+                                    ));
+                                });
+                    })
+                    .defaultIfEmpty(ResponseEntity.badRequest().body(
+                        UploadResponse.error("Could not extract text from the file. Please ensure it's a valid resume.")
+                    ))
+                    .onErrorResume(e -> Mono.just(uploadError(e)));
             
-            log.info("Resume uploaded successfully. Session: {}", sessionId);
+        } catch (Exception e) {
+            return Mono.just(uploadError(e));
+        }
+    }
+
+    private ResponseEntity<UploadResponse> uploadError(Throwable e) {
+        if (e instanceof ParseCapacityExceededException) {
+            log.warn("Upload rejected: no parse worker available");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body(UploadResponse.error(e.getMessage()));
+        }
+        if (e instanceof TimeoutException) {
+            // Counted from when a worker started on the file, so this is the file's doing
+            log.warn("Upload rejected: parse timed out");
+            return ResponseEntity.unprocessableEntity().body(
+                UploadResponse.error("The file took too long to process. Please upload a simpler PDF or DOCX file.")
+            );
+        }
+        log.error("Error uploading resume: ", e);
+        return ResponseEntity.internalServerError().body(
+            UploadResponse.error("Error processing resume: " + e.getMessage())
+        );
+    }
+
+    /**
+     * Get the resume summary, which may still be generating when uploads
+     * return before it is ready
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<SummaryResponse> getSummary(
+            @RequestHeader(value = "X-Session-ID", required = false) String sessionId) {
+        
+        if (sessionId == null || sessionId.isEmpty()) {
+            return ResponseEntity.badRequest().body(
+                SummaryResponse.error("Session ID required. Please upload your resume first.")
+            );
+        }
+        
+        ResumeDocument document = aiService.getDocument(sessionId);
+        if (document == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(
+                SummaryResponse.error("No resume found for this session. Please upload your resume first.")
+            );
+        }
+        
+        String summary = document.getSummary();
+        if (summary != null) {
+            return ResponseEntity.ok(SummaryResponse.ready(sessionId, summary));
+        }
+        
+        // Restarts generation if an earlier attempt failed; joins it otherwise
+        aiService.startSummary(document);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(SummaryResponse.pending(sessionId));
+    }
+
+    /**
+     * Upload many resumes at once (PDF, DOCX or ZIP archives of them).
+     * Processing continues in the background; poll the returned job for results.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchJobResponse> uploadBatch(
+            @RequestParam("files") List<MultipartFile> files,
+            @RequestHeader(value = RecruiterAccess.HEADER, required = false) String recruiterKey) {
+        HttpStatus denied = recruiterAccess.check(recruiterKey);
+        if (denied != null) {
+            return ResponseEntity.status(denied).body(BatchJobResponse.error(RecruiterAccess.message(denied)));
+        }
+        
+        try {
+            log.info("Received batch upload: {} files", files.size());
             
-            return ResponseEntity.ok(UploadResponse.success(
-                sessionId,
-                "Resume uploaded successfully!",
-                resumeText.length(),
-                summary
-            ));
+            BatchJob job = batchIngestService.submit(files);
+            return ResponseEntity.accepted().body(job.toResponse());
             
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(BatchJobResponse.error(e.getMessage()));
         } catch (Exception e) {
-            log.error("Error uploading resume: ", e);
+            log.error("Error accepting batch upload: ", e);
             return ResponseEntity.internalServerError().body(
-                UploadResponse.error("Error processing resume: " + e.getMessage())
+                BatchJobResponse.error("Error processing batch: " + e.getMessage())
             );
         }
     }
 
+    /**
+     * Progress and per-file results of a batch upload
+     */
+    @GetMapping("/batch/{jobId}")
+    public ResponseEntity<BatchJobResponse> getBatch(
+            @PathVariable String jobId,
+            @RequestHeader(value = RecruiterAccess.HEADER, required = false) String recruiterKey) {
+        HttpStatus denied = recruiterAccess.check(recruiterKey);
+        if (denied != null) {
+            return ResponseEntity.status(denied).body(BatchJobResponse.error(RecruiterAccess.message(denied)));
+        }
+        
+        BatchJob job = batchIngestService.getJob(jobId);
+        
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(
+                BatchJobResponse.error("Batch job not found or expired.")
+            );
+        }
+        
+        return ResponseEntity.ok(job.toResponse());
+    }
+
+    /**
+     * Rank the batch-ingested resumes against a job description, optionally
+     * re-ranking the best matches with the model
+     */
+    @PostMapping("/rank")
+    public Mono<ResponseEntity<RankResponse>> rankCandidates(
+            @Valid @RequestBody RankRequest request,
+            @RequestHeader(value = RecruiterAccess.HEADER, required = false) String recruiterKey,
+            HttpServletRequest servletRequest) {
+        HttpStatus denied = recruiterAccess.check(recruiterKey);
+        if (denied != null) {
+            return Mono.just(ResponseEntity.status(denied).body(RankResponse.error(RecruiterAccess.message(denied))));
+        }
+        
+        if (!candidateRanker.isEnabled()) {
+            return Mono.just(ResponseEntity.badRequest().body(
+                RankResponse.error("Candidate ranking is disabled on this server.")
+            ));
+        }
+        
+        return candidateRanker.rank(request)
+                .map(ResponseEntity::ok)
+                .onErrorResume(e -> {
+                    log.error("Error ranking candidates: ", e);
+                    return Mono.just(ResponseEntity.internalServerError().body(
+                        RankResponse.error("Error ranking candidates: " + e.getMessage())
+                    ));
+                })
+                .contextWrite(caller(servletRequest, null).context());
+    }
+
     /**
      * Ask questions about the uploaded resume
      */
     @PostMapping("/query")
-    public ResponseEntity<QueryResponse> queryResume(
+    public Mono<ResponseEntity<QueryResponse>> queryResume(
             @Valid @RequestBody QueryRequest request,
-            @RequestHeader(value = "X-Session-ID", required = false) String sessionId) {
+            @RequestHeader(value = "X-Session-ID", required = false) String sessionId,
+            HttpServletRequest servletRequest) {
         
         try {
             log.info("Received query: {} (session: {})", request.getQuestion(), sessionId);
             
             if (sessionId == null || sessionId.isEmpty()) {
-                return ResponseEntity.badRequest().body(
+                return Mono.just(ResponseEntity.badRequest().body(
                     QueryResponse.error("Session ID required. Please upload your resume first.")
-                );
+                ));
             }
             
             if (!aiService.hasResume(sessionId)) {
-                return ResponseEntity.badRequest().body(
+                return Mono.just(ResponseEntity.badRequest().body(
                     QueryResponse.error("No resume found for this session. Please upload your resume first.")
-                );
+                ));
             }
             
-            String answer = aiService.answerQuestion(
-                sessionId, 
-                request.getQuestion(), 
-                request.getContext()
-            );
-            
-            return ResponseEntity.ok(QueryResponse.success(answer, sessionId));
+            return aiService.answerQuestionAsync(
+                        sessionId, 
+                        request.getQuestion(), 
+                        request.getContext(),
+                        !request.isSkipCache()
+                    )
+                    .map(answer -> ResponseEntity.ok(
+                        QueryResponse.success(answer.text(), sessionId, answer.promptTokens())
+                    ))
+                    .onErrorResume(LlmCapacityExceededException.class, e -> Mono.just(capacityError(e)))
+                    .contextWrite(caller(servletRequest, sessionId).context());
             
         } catch (Exception e) {
             log.error("Error processing query: ", e);
-            return ResponseEntity.ok(QueryResponse.error(
+            return Mono.just(ResponseEntity.ok(QueryResponse.error(
                 "I encountered an error processing your question. Please try again."
-            ));
+            )));
+        }
+    }
+
+    /**
+     * Stream the answer as server-sent events: "chunk" events carry text as it
+     * is generated, followed by a single "done" (or "error") event.
+     */
+    @PostMapping(value = "/query/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamQuery(
+            @Valid @RequestBody QueryRequest request,
+            @RequestHeader(value = "X-Session-ID", required = false) String sessionId,
+            HttpServletRequest servletRequest) {
+        
+        return streamAnswer(sessionId, request.getQuestion(), request.getContext(), !request.isSkipCache())
+                .contextWrite(caller(servletRequest, sessionId).context());
+    }
+
+    /**
+     * EventSource-friendly variant of the streaming query (browsers cannot set
+     * headers on an EventSource, so the session is passed as a parameter)
+     */
+    @GetMapping(value = "/query/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamQuery(
+            @RequestParam String question,
+            @RequestParam(required = false) String context,
+            @RequestParam String sessionId,
+            @RequestParam(defaultValue = "false") boolean skipCache,
+            HttpServletRequest servletRequest) {
+        
+        return streamAnswer(sessionId, question, context, !skipCache)
+                .contextWrite(caller(servletRequest, sessionId).context());
+    }
+
+    private Flux<ServerSentEvent<String>> streamAnswer(String sessionId, String question, String context,
+                                                       boolean useCache) {
+        log.info("Received streaming query: {} (session: {})", question, sessionId);
+        
+        if (sessionId == null || sessionId.isEmpty()) {
+            return Flux.just(errorEvent("Session ID required. Please upload your resume first."));
+        }
+        
+        if (!aiService.hasResume(sessionId)) {
+            return Flux.just(errorEvent("No resume found for this session. Please upload your resume first."));
         }
+        
+        return aiService.streamAnswer(sessionId, question, context, useCache)
+                .map(chunk -> ServerSentEvent.builder(chunk).event("chunk").build())
+                .concatWithValues(ServerSentEvent.builder("").event("done").build())
+                .onErrorResume(e -> {
+                    if (e instanceof LlmCapacityExceededException) {
+                        return Flux.just(errorEvent(e.getMessage()));
+                    }
+                    log.error("Error streaming query: ", e);
+                    return Flux.just(errorEvent("I encountered an error processing your question. Please try again."));
+                });
+    }
+
+    /**
+     * The caller LLM calls are scheduled and rate limited for. The client is
+     * the remote address, which reflects X-Forwarded-For only when
+     * server.forward-headers-strategy is set for a trusted proxy.
+     */
+    private static LlmCaller caller(HttpServletRequest servletRequest, String sessionId) {
+        return new LlmCaller(servletRequest.getRemoteAddr(), sessionId);
+    }
+
+    private ResponseEntity<QueryResponse> capacityError(LlmCapacityExceededException e) {
+        // The caller's own limits are theirs to back off from; the rest is the service's capacity
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(e instanceof LlmQuotaExceededException
+                ? HttpStatus.TOO_MANY_REQUESTS
+                : HttpStatus.SERVICE_UNAVAILABLE);
+        if (e.getRetryAfter() != null) {
+            // Whole seconds, rounded up so clients never retry too early
+            long seconds = (e.getRetryAfter().toMillis() + 999) / 1000;
+            response.header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(seconds, 1)));
+        }
+        return response.body(QueryResponse.error(e.getMessage()));
+    }
+
+    private ServerSentEvent<String> errorEvent(String message) {
+        return ServerSentEvent.builder(message).event("error").build();
     }
 
     /**
@@ -0,0 +1,456 @@
+package com.manish.resumeai.corpus;
+
+import com.manish.resumeai.profile.ResumeProfile;
+import com.manish.resumeai.profile.ResumeProfileExtractor;
+import com.manish.resumeai.retrieval.Tokenizer;
+import com.manish.resumeai.session.ResumeDocument;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Inverted index over the resumes a recruiter has batch-ingested into this
+ * instance, for ranking them against a job description. Interactive uploads
+ * are never added. Each resume stays indexed while a session created for it
+ * exists: once its last session is cleared, expires or is evicted from the
+ * session store, it is removed.
+ *
+ * <p> Terms come from the
+ * {@link Tokenizer}; skills are additionally indexed under a normalized
+ * {@code skill:} term ("k8s" and "Kubernetes" are one skill) that queries
+ * weight above plain words.
+ *
+ * <p>Documents get dense integer ids in upload order, so posting lists are
+ * sorted {@code int} arrays. Scoring is term-at-a-time BM25 into a
+ * {@code float[]} accumulator; large corpora are split into id ranges scored
+ * in parallel, each keeping its own top hits, which are merged at the end.
+ * A re-ingested file is indexed once. Removed resumes are skipped while
+ * scoring and dropped from the postings once they make up half the ids.
+ */
+@Slf4j
+@Component
+public class CorpusIndex implements DisposableBean {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double SKILL_BOOST = 3.0;
+    private static final String SKILL_PREFIX = "skill:";
+    private static final int HEADLINE_SKILLS = 5;
+    private static final int MIN_COMPACTION = 64;
+
+    /**
+     * One ranked resume.
+     *
+     * @param documentId content hash of the resume
+     * @param matchedSkills skills of the job description found in the resume
+     * @param missingSkills skills of the job description the resume does not mention
+     */
+    public record Hit(String documentId, String filename, String headline, double score,
+                      List<String> matchedSkills, List<String> missingSkills) {
+    }
+
+    private final boolean enabled;
+    private final int maxDocuments;
+    private final int partitionSize;
+    private final ForkJoinPool pool;
+    private final Timer searchTimer;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final Map<String, Set<String>> sessionsByDocument = new HashMap<>();
+    private final Map<String, String> documentBySession = new HashMap<>();
+    private final BitSet removed = new BitSet();
+    private String[] documentIds = new String[64];
+    private String[] filenames = new String[64];
+    private String[] headlines = new String[64];
+    private int[] lengths = new int[64];
+    // Ids handed out, including removed resumes; live resumes are count - removed
+    private int count;
+    private int live;
+    private long totalLength;
+
+    public CorpusIndex(@Value("${resume.corpus.enabled:false}") boolean enabled,
+                       @Value("${resume.corpus.max-documents:100000}") int maxDocuments,
+                       @Value("${resume.corpus.parallelism:0}") int parallelism,
+                       @Value("${resume.corpus.partition-size:4096}") int partitionSize,
+                       MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxDocuments = maxDocuments;
+        this.partitionSize = partitionSize;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.searchTimer = Timer.builder("resume.corpus.search")
+                .description("Time to score the corpus against a job description")
+                .register(meterRegistry);
+        Gauge.builder("resume.corpus.documents", this, CorpusIndex::size)
+                .description("Resumes in the ranking corpus")
+                .register(meterRegistry);
+        Gauge.builder("resume.corpus.retained", this, CorpusIndex::retainedBytes)
+                .description("Approximate heap retained by the corpus index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        if (enabled) {
+            log.info("Candidate corpus: up to {} resumes, {} scoring threads, {} resumes per partition",
+                    maxDocuments, pool.getParallelism(), partitionSize);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Add the document for a session created for it, unless the corpus is
+     * full. A document that is already indexed only gains the session.
+     */
+    public void add(ResumeDocument document, String filename, String sessionId) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (ids.containsKey(document.getContentHash())) {
+                reference(document.getContentHash(), sessionId);
+                return;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // Tokenize outside the lock; only the posting appends are serialized
+        String text = document.getText();
+        Map<String, Integer> frequencies = new HashMap<>();
+        List<String> terms = Tokenizer.tokenize(text);
+        for (String term : terms) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        ResumeProfile profile = document.getProfile() != null
+                ? document.getProfile()
+                : ResumeProfileExtractor.extract(text);
+        for (ResumeProfile.Skill skill : profile.skills()) {
+            frequencies.put(skillTerm(skill.name()), skill.mentions());
+        }
+        String headline = headline(profile);
+
+        lock.writeLock().lock();
+        try {
+            if (ids.containsKey(document.getContentHash())) {
+                reference(document.getContentHash(), sessionId);
+                return;
+            }
+            if (live >= maxDocuments) {
+                log.warn("Candidate corpus is full ({} resumes); not indexing {}", live, document.getContentHash());
+                return;
+            }
+            int id = count;
+            ensureCapacity(id + 1);
+            documentIds[id] = document.getContentHash();
+            filenames[id] = filename;
+            headlines[id] = headline;
+            lengths[id] = terms.size();
+            frequencies.forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, key -> new Postings()).add(id, frequency));
+            ids.put(document.getContentHash(), id);
+            reference(document.getContentHash(), sessionId);
+            totalLength += terms.size();
+            count++;
+            live++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Forget a session; its document leaves the corpus with its last session.
+     * Called by the session store for every session that leaves it.
+     */
+    public void removeSession(String sessionId) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            String documentId = documentBySession.remove(sessionId);
+            if (documentId == null) {
+                return;
+            }
+            Set<String> sessions = sessionsByDocument.get(documentId);
+            sessions.remove(sessionId);
+            if (!sessions.isEmpty()) {
+                return;
+            }
+            sessionsByDocument.remove(documentId);
+            int id = ids.remove(documentId);
+            removed.set(id);
+            filenames[id] = null;
+            headlines[id] = null;
+            totalLength -= lengths[id];
+            live--;
+            log.info("Removed resume {} from the candidate corpus", documentId);
+
+            if (count - live >= MIN_COMPACTION && (count - live) * 2 >= count) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void reference(String documentId, String sessionId) {
+        if (sessionId != null) {
+            sessionsByDocument.computeIfAbsent(documentId, key -> new HashSet<>()).add(sessionId);
+            documentBySession.put(sessionId, documentId);
+        }
+    }
+
+    /**
+     * Renumber the live resumes densely and drop removed ones from every
+     * posting list. Called with the write lock held.
+     */
+    private void compact() {
+        int[] remap = new int[count];
+        int next = 0;
+        for (int id = 0; id < count; id++) {
+            if (removed.get(id)) {
+                remap[id] = -1;
+            } else {
+                remap[id] = next;
+                documentIds[next] = documentIds[id];
+                filenames[next] = filenames[id];
+                headlines[next] = headlines[id];
+                lengths[next] = lengths[id];
+                ids.put(documentIds[next], next);
+                next++;
+            }
+        }
+        Arrays.fill(documentIds, next, count, null);
+        Arrays.fill(filenames, next, count, null);
+        Arrays.fill(headlines, next, count, null);
+
+        postings.replaceAll((term, list) -> list.remap(remap));
+        postings.values().removeIf(list -> list.size() == 0);
+        removed.clear();
+        count = next;
+    }
+
+    /**
+     * The best {@code limit} resumes for the job description, best first.
+     */
+    public List<Hit> search(String jobDescription, int limit) {
+        long startedAt = System.nanoTime();
+        Map<String, Double> query = queryTerms(jobDescription);
+        List<String> skills = ResumeProfileExtractor.knownMentions(jobDescription);
+
+        lock.readLock().lock();
+        try {
+            int n = count;
+            if (live == 0 || limit <= 0) {
+                return List.of();
+            }
+            List<Postings> lists = new ArrayList<>();
+            List<Double> weights = new ArrayList<>();
+            query.forEach((term, weight) -> {
+                Postings list = postings.get(term);
+                if (list != null) {
+                    double idf = Math.log(1 + (n - list.size() + 0.5) / (list.size() + 0.5));
+                    lists.add(list);
+                    weights.add(weight * idf);
+                }
+            });
+            double averageLength = (double) totalLength / live;
+
+            List<Callable<List<Scored>>> tasks = new ArrayList<>();
+            for (int from = 0; from < n; from += partitionSize) {
+                int start = from;
+                int end = Math.min(n, from + partitionSize);
+                tasks.add(() -> score(lists, weights, start, end, averageLength, limit));
+            }
+            List<Scored> top = tasks.size() == 1 ? tasks.get(0).call() : merge(pool.invokeAll(tasks), limit);
+
+            List<Hit> hits = new ArrayList<>(top.size());
+            for (Scored scored : top) {
+                hits.add(hit(scored, skills));
+            }
+            return hits;
+        } catch (Exception e) {
+            throw new IllegalStateException("Corpus search failed", e);
+        } finally {
+            lock.readLock().unlock();
+            searchTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Approximate heap retained by the posting lists and per-resume data.
+     */
+    public long retainedBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = (long) documentIds.length * 20;
+            for (Map.Entry<String, Postings> entry : postings.entrySet()) {
+                bytes += 64 + entry.getKey().length() * 2L + entry.getValue().retainedBytes();
+            }
+            for (int i = 0; i < count; i++) {
+                bytes += 180 + (filenames[i] != null ? filenames[i].length() * 2L : 0)
+                        + (headlines[i] != null ? headlines[i].length() * 2L : 0);
+            }
+            bytes += documentBySession.size() * 200L;
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * BM25 over the documents with ids in {@code [from, to)}, keeping the
+     * {@code limit} best. Runs on a scoring thread while the caller holds the
+     * read lock.
+     */
+    private List<Scored> score(List<Postings> lists, List<Double> weights, int from, int to,
+                               double averageLength, int limit) {
+        float[] scores = new float[to - from];
+        for (int t = 0; t < lists.size(); t++) {
+            Postings list = lists.get(t);
+            double weight = weights.get(t);
+            for (int i = list.lowerBound(from); i < list.size(); i++) {
+                int document = list.document(i);
+                if (document >= to) {
+                    break;
+                }
+                int tf = list.frequency(i);
+                double norm = K1 * (1 - B + B * lengths[document] / averageLength);
+                scores[document - from] += (float) (weight * tf * (K1 + 1) / (tf + norm));
+            }
+        }
+
+        PriorityQueue<Scored> best = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(Scored::score));
+        for (int i = 0; i < scores.length; i++) {
+            float score = scores[i];
+            if (score > 0 && !removed.get(from + i) && (best.size() < limit || score > best.peek().score())) {
+                best.add(new Scored(from + i, score));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+        List<Scored> sorted = new ArrayList<>(best);
+        sorted.sort(Comparator.comparingDouble(Scored::score).reversed());
+        return sorted;
+    }
+
+    private static List<Scored> merge(List<Future<List<Scored>>> partitions, int limit)
+            throws InterruptedException, ExecutionException {
+        List<Scored> all = new ArrayList<>();
+        for (Future<List<Scored>> partition : partitions) {
+            all.addAll(partition.get());
+        }
+        all.sort(Comparator.comparingDouble(Scored::score).reversed());
+        return all.size() > limit ? all.subList(0, limit) : all;
+    }
+
+    private Hit hit(Scored scored, List<String> skills) {
+        int document = scored.document();
+        List<String> matched = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        for (String skill : skills) {
+            Postings list = postings.get(skillTerm(skill));
+            if (list != null && list.contains(document)) {
+                matched.add(skill);
+            } else {
+                missing.add(skill);
+            }
+        }
+        return new Hit(documentIds[document], filenames[document], headlines[document],
+                Math.round(scored.score() * 100) / 100.0, matched, missing);
+    }
+
+    /**
+     * Weighted query terms: words by how often the job description repeats
+     * them (damped), skills boosted above words.
+     */
+    private static Map<String, Double> queryTerms(String jobDescription) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String term : Tokenizer.tokenize(jobDescription)) {
+            counts.merge(term, 1, Integer::sum);
+        }
+        Map<String, Double> weights = new LinkedHashMap<>();
+        counts.forEach((term, n) -> weights.put(term, 1 + Math.log(n)));
+        for (String skill : ResumeProfileExtractor.knownMentions(jobDescription)) {
+            weights.put(skillTerm(skill), SKILL_BOOST);
+        }
+        return weights;
+    }
+
+    private static String skillTerm(String skill) {
+        return SKILL_PREFIX + skill.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * "Most recent position · top skills", shown with each hit.
+     */
+    private static String headline(ResumeProfile profile) {
+        String skills = profile.skills().stream()
+                .limit(HEADLINE_SKILLS)
+                .map(ResumeProfile.Skill::name)
+                .collect(Collectors.joining(", "));
+        String position = profile.positions().stream()
+                .max(Comparator.comparing(ResumeProfile.Position::start))
+                .map(ResumeProfile.Position::describe)
+                .orElse(null);
+        if (position == null) {
+            return skills;
+        }
+        return skills.isEmpty() ? position : position + " · " + skills;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > documentIds.length) {
+            int grown = Math.max(capacity, documentIds.length + (documentIds.length >> 1));
+            documentIds = Arrays.copyOf(documentIds, grown);
+            filenames = Arrays.copyOf(filenames, grown);
+            headlines = Arrays.copyOf(headlines, grown);
+            lengths = Arrays.copyOf(lengths, grown);
+        }
+    }
+
+    private record Scored(int document, float score) {
+    }
+}
@@ -0,0 +1,83 @@
+package com.manish.resumeai.corpus;
+
+import java.util.Arrays;
+
+/**
+ * Posting list of one term: the ids of the documents containing it, in
+ * increasing order, and the term's frequency in each. Kept in parallel
+ * {@code int} arrays rather than boxed collections, so a list costs eight
+ * bytes per posting and scans stay sequential in memory.
+ */
+final class Postings {
+
+    private int[] documents = new int[4];
+    private int[] frequencies = new int[4];
+    private int size;
+
+    /**
+     * Append a posting; document ids must be added in increasing order.
+     */
+    void add(int document, int frequency) {
+        if (size == documents.length) {
+            int capacity = size + (size >> 1);
+            documents = Arrays.copyOf(documents, capacity);
+            frequencies = Arrays.copyOf(frequencies, capacity);
+        }
+        documents[size] = document;
+        frequencies[size] = frequency;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int document(int index) {
+        return documents[index];
+    }
+
+    int frequency(int index) {
+        return frequencies[index];
+    }
+
+    /**
+     * Index of the first posting for a document id at or above {@code document}.
+     */
+    int lowerBound(int document) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (documents[middle] < document) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    boolean contains(int document) {
+        int index = lowerBound(document);
+        return index < size && documents[index] == document;
+    }
+
+    /**
+     * The list with document ids mapped through {@code remap}, leaving out
+     * documents mapped to -1. The mapping must preserve order.
+     */
+    Postings remap(int[] remap) {
+        Postings mapped = new Postings();
+        for (int i = 0; i < size; i++) {
+            int document = remap[documents[i]];
+            if (document >= 0) {
+                mapped.add(document, frequencies[i]);
+            }
+        }
+        return mapped;
+    }
+
+    int retainedBytes() {
+        return 48 + documents.length * 8;
+    }
+}
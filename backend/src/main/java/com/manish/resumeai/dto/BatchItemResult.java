@@ -0,0 +1,21 @@
+package com.manish.resumeai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResult {
+    
+    private String filename;
+    private String status;
+    private String sessionId;
+    private int resumeLength;
+    private String summary;
+    private boolean duplicate;
+    private String error;
+}
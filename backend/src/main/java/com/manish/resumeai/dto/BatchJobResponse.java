@@ -0,0 +1,34 @@
+package com.manish.resumeai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchJobResponse {
+    
+    private String jobId;
+    private String status;
+    private boolean success;
+    private String error;
+    private int total;
+    private int parsed;
+    private int completed;
+    private int failed;
+    private long elapsedMillis;
+    private double resumesPerSecond;
+    private List<BatchItemResult> results;
+    
+    public static BatchJobResponse error(String error) {
+        return BatchJobResponse.builder()
+                .error(error)
+                .success(false)
+                .build();
+    }
+}
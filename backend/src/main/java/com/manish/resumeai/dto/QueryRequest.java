@@ -14,4 +14,6 @@ public class QueryRequest {
     private String question;
     
     private String context; // Optional: job description or additional context
+    
+    private boolean skipCache; // Optional: always ask the model, bypassing cached answers
 }
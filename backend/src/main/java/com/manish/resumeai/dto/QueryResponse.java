@@ -15,6 +15,7 @@ public class QueryResponse {
     private boolean success;
     private String error;
     private String sessionId;
+    private Integer promptTokens; // Estimated size of the prompt sent for this answer
     
     public static QueryResponse success(String answer, String sessionId) {
         return QueryResponse.builder()
@@ -24,6 +25,15 @@ public class QueryResponse {
                 .build();
     }
     
+    public static QueryResponse success(String answer, String sessionId, int promptTokens) {
+        return QueryResponse.builder()
+                .answer(answer)
+                .success(true)
+                .sessionId(sessionId)
+                .promptTokens(promptTokens)
+                .build();
+    }
+    
     public static QueryResponse error(String error) {
         return QueryResponse.builder()
                 .error(error)
@@ -0,0 +1,21 @@
+package com.manish.resumeai.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankRequest {
+    
+    @NotBlank(message = "Job description cannot be empty")
+    private String jobDescription;
+    
+    private Integer limit; // Optional: number of candidates to return
+    
+    private boolean rerank; // Optional: have the model re-rank the best local matches
+    
+    private Integer rerankTopK; // Optional: how many of the best local matches the model re-ranks
+}
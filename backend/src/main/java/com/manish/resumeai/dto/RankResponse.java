@@ -0,0 +1,30 @@
+package com.manish.resumeai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankResponse {
+    
+    private boolean success;
+    private String error;
+    private int corpusSize;
+    private long searchMillis;
+    private boolean reranked;
+    private String rerankError;
+    private List<RankedCandidate> candidates;
+    
+    public static RankResponse error(String error) {
+        return RankResponse.builder()
+                .error(error)
+                .success(false)
+                .build();
+    }
+}
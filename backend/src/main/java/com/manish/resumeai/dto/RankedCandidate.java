@@ -0,0 +1,25 @@
+package com.manish.resumeai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankedCandidate {
+    
+    private int rank;
+    private String documentId;
+    private String filename;
+    private String headline;
+    private double score;
+    private List<String> matchedSkills;
+    private List<String> missingSkills;
+    private Integer llmScore;
+    private String llmReason;
+}
@@ -0,0 +1,43 @@
+package com.manish.resumeai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SummaryResponse {
+    
+    private String sessionId;
+    private String summary;
+    private boolean ready;
+    private boolean success;
+    private String error;
+    
+    public static SummaryResponse ready(String sessionId, String summary) {
+        return SummaryResponse.builder()
+                .sessionId(sessionId)
+                .summary(summary)
+                .ready(true)
+                .success(true)
+                .build();
+    }
+    
+    public static SummaryResponse pending(String sessionId) {
+        return SummaryResponse.builder()
+                .sessionId(sessionId)
+                .ready(false)
+                .success(true)
+                .build();
+    }
+    
+    public static SummaryResponse error(String error) {
+        return SummaryResponse.builder()
+                .success(false)
+                .error(error)
+                .build();
+    }
+}
@@ -16,6 +16,7 @@ public class UploadResponse {
     private boolean success;
     private int resumeLength;
     private String summary;
+    private boolean summaryPending; // Summary still being generated; fetch it from /summary
     
     public static UploadResponse success(String sessionId, String message, int length, String summary) {
         return UploadResponse.builder()
@@ -27,6 +28,16 @@ public class UploadResponse {
                 .build();
     }
     
+    public static UploadResponse pending(String sessionId, String message, int length) {
+        return UploadResponse.builder()
+                .sessionId(sessionId)
+                .message(message)
+                .success(true)
+                .resumeLength(length)
+                .summaryPending(true)
+                .build();
+    }
+    
     public static UploadResponse error(String message) {
         return UploadResponse.builder()
                 .message(message)
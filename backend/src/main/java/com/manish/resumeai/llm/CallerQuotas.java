@@ -0,0 +1,90 @@
+package com.manish.resumeai.llm;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request quotas per client and per session, each a {@link TokenBucket} that
+ * never waits: a call over either quota is refused straight away with the
+ * time until the next one would be accepted. Buckets of callers that have
+ * gone quiet are dropped after an idle period long enough for them to have
+ * refilled completely, so dropping them changes nothing.
+ */
+final class CallerQuotas {
+
+    private final Quota clients;
+    private final Quota sessions;
+
+    CallerQuotas(int clientRequestsPerMinute, int clientBurst,
+                 int sessionRequestsPerMinute, int sessionBurst, MeterRegistry meterRegistry) {
+        this.clients = clientRequestsPerMinute > 0
+                ? new Quota(clientRequestsPerMinute, clientBurst, "client", meterRegistry)
+                : null;
+        this.sessions = sessionRequestsPerMinute > 0
+                ? new Quota(sessionRequestsPerMinute, sessionBurst, "session", meterRegistry)
+                : null;
+    }
+
+    /**
+     * Take one request from the caller's quotas.
+     *
+     * @throws LlmQuotaExceededException if the session or client has none left
+     */
+    void acquire(LlmCaller caller) {
+        if (caller == null) {
+            return;
+        }
+        // The narrower quota first, so a refused session does not use up its client's
+        if (sessions != null && caller.session() != null) {
+            sessions.acquire(caller.session(), "You are asking questions too quickly. Please slow down a little.");
+        }
+        if (clients != null && caller.client() != null) {
+            clients.acquire(caller.client(), "Too many AI requests from your network. Please try again shortly.");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "client " + (clients != null ? clients : "off") + ", session " + (sessions != null ? sessions : "off");
+    }
+
+    private static final class Quota {
+
+        private final int requestsPerMinute;
+        private final int burst;
+        private final Cache<String, TokenBucket> buckets;
+        private final Counter rejected;
+
+        Quota(int requestsPerMinute, int burst, String scope, MeterRegistry meterRegistry) {
+            this.requestsPerMinute = requestsPerMinute;
+            this.burst = burst;
+            long refillNanos = TimeUnit.MINUTES.toNanos(1) * Math.max(burst, 1) / requestsPerMinute;
+            this.buckets = Caffeine.newBuilder()
+                    .expireAfterAccess(Duration.ofNanos(refillNanos).plusMinutes(1))
+                    .build();
+            this.rejected = Counter.builder("llm.quota.rejected")
+                    .description("LLM calls refused because the caller's request quota was used up")
+                    .tag("scope", scope)
+                    .register(meterRegistry);
+        }
+
+        void acquire(String key, String message) {
+            TokenBucket bucket = buckets.get(key, k -> new TokenBucket(requestsPerMinute / 60.0, burst, 0,
+                    TimeUnit.NANOSECONDS));
+            if (bucket.reserve() < 0) {
+                rejected.increment();
+                throw new LlmQuotaExceededException(message, Duration.ofNanos(bucket.nanosUntilFree()));
+            }
+        }
+
+        @Override
+        public String toString() {
+            return requestsPerMinute + "/min (burst " + burst + ")";
+        }
+    }
+}
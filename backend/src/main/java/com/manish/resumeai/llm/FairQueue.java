@@ -0,0 +1,118 @@
+package com.manish.resumeai.llm;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Waiting items in one queue per key, served by deficit round robin. Each
+ * turn credits a queue with its key's weight, and the queue is served once
+ * for every whole unit of credit: with weights 2 and 1, the first key gets
+ * two items for each of the second's, and a weight of 0.5 is served every
+ * other round. A key with many waiting items therefore gets no larger share
+ * than one with a few. Not thread-safe.
+ */
+final class FairQueue<T> {
+
+    private final ToDoubleFunction<String> weights;
+    private final Map<String, Lane<T>> lanes = new HashMap<>();
+    // Lanes with waiting items, in round-robin order; the head is taking its turn
+    private final Deque<Lane<T>> active = new ArrayDeque<>();
+    private int size;
+
+    FairQueue(ToDoubleFunction<String> weights) {
+        this.weights = weights;
+    }
+
+    void offer(String key, T item) {
+        Lane<T> lane = lanes.get(key);
+        if (lane == null) {
+            lane = new Lane<>(key, Math.max(weights.applyAsDouble(key), 0.01));
+            lanes.put(key, lane);
+            active.addLast(lane);
+        }
+        lane.items.addLast(item);
+        size++;
+    }
+
+    /**
+     * The next item to serve, or null if none is waiting.
+     */
+    T poll() {
+        while (!active.isEmpty()) {
+            Lane<T> lane = active.peekFirst();
+            if (lane.deficit < 1) {
+                // Start of the lane's turn
+                lane.deficit += lane.weight;
+                if (lane.deficit < 1) {
+                    active.addLast(active.pollFirst());
+                    continue;
+                }
+            }
+
+            T item = lane.items.pollFirst();
+            lane.deficit -= 1;
+            size--;
+            if (lane.items.isEmpty()) {
+                // An idle key does not keep credit for later
+                active.pollFirst();
+                lanes.remove(lane.key);
+            } else if (lane.deficit < 1) {
+                active.addLast(active.pollFirst());
+            }
+            return item;
+        }
+        return null;
+    }
+
+    /**
+     * Remove an item that is no longer waiting, e.g. because it was cancelled.
+     */
+    boolean remove(String key, T item) {
+        Lane<T> lane = lanes.get(key);
+        if (lane == null || !lane.items.removeFirstOccurrence(item)) {
+            return false;
+        }
+        size--;
+        if (lane.items.isEmpty()) {
+            active.remove(lane);
+            lanes.remove(key);
+        }
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int size(String key) {
+        Lane<T> lane = lanes.get(key);
+        return lane == null ? 0 : lane.items.size();
+    }
+
+    /**
+     * Number of keys with items waiting.
+     */
+    int keys() {
+        return lanes.size();
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    private static final class Lane<T> {
+
+        final String key;
+        final double weight;
+        final Deque<T> items = new ArrayDeque<>();
+        double deficit;
+
+        Lane(String key, double weight) {
+            this.key = key;
+            this.weight = weight;
+        }
+    }
+}
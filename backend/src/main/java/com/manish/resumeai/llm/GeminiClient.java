@@ -0,0 +1,114 @@
+package com.manish.resumeai.llm;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.ReactiveHttpOutputMessage;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Raw calls to the Gemini generate endpoints. Endpoint URIs are built once
+ * from the configured base URL and model; every call carries a deadline.
+ * Requests are serialized straight into the connection's (pooled) buffer.
+ */
+@Slf4j
+@Component
+public class GeminiClient {
+
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_STRING =
+            new ParameterizedTypeReference<>() {};
+
+    private final WebClient webClient;
+    private final GeminiRequestWriter requestWriter;
+    private final String model;
+    private final URI generateUri;
+    private final URI streamUri;
+    private final Duration deadline;
+    private final Duration streamDeadline;
+
+    public GeminiClient(WebClient geminiWebClient,
+                        GeminiRequestWriter requestWriter,
+                        @Value("${gemini.api.base-url:https://generativelanguage.googleapis.com/v1beta}") String baseUrl,
+                        @Value("${gemini.model:gemini-2.0-flash-exp}") String model,
+                        @Value("${gemini.http.deadline:45s}") Duration deadline,
+                        @Value("${gemini.http.stream-deadline:2m}") Duration streamDeadline) {
+        this.webClient = geminiWebClient;
+        this.requestWriter = requestWriter;
+        this.model = model;
+        this.generateUri = UriComponentsBuilder.fromHttpUrl(baseUrl)
+                .path("/models/{model}:generateContent")
+                .buildAndExpand(model)
+                .toUri();
+        this.streamUri = UriComponentsBuilder.fromHttpUrl(baseUrl)
+                .path("/models/{model}:streamGenerateContent")
+                .queryParam("alt", "sse")
+                .buildAndExpand(model)
+                .toUri();
+        this.deadline = deadline;
+        this.streamDeadline = streamDeadline;
+        log.info("Gemini endpoint: {} (deadline {}, stream deadline {})", generateUri, deadline, streamDeadline);
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    /**
+     * POST the request to {@code generateContent} and return the raw JSON response.
+     */
+    public Mono<String> generate(GeminiRequest request) {
+        log.info("Calling Gemini API with model: {}", model);
+        return webClient.post()
+                .uri(generateUri)
+                .body(body(request))
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(deadline);
+    }
+
+    /**
+     * POST the request to {@code streamGenerateContent} and return the
+     * server-sent events as they arrive.
+     */
+    public Flux<ServerSentEvent<String>> stream(GeminiRequest request) {
+        log.info("Streaming from Gemini API with model: {}", model);
+        return webClient.post()
+                .uri(streamUri)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .body(body(request))
+                .retrieve()
+                .bodyToFlux(SSE_STRING)
+                .timeout(streamDeadline);
+    }
+
+    /**
+     * Writes the request into one buffer from the connection's allocator; as a
+     * single buffer it is sent with a Content-Length.
+     */
+    private BodyInserter<GeminiRequest, ReactiveHttpOutputMessage> body(GeminiRequest request) {
+        return (message, context) -> message.writeWith(Mono.fromCallable(() -> {
+            DataBuffer buffer = message.bufferFactory().allocateBuffer(request.estimatedSize());
+            try (OutputStream out = buffer.asOutputStream()) {
+                requestWriter.write(request, out);
+                return buffer;
+            } catch (IOException | RuntimeException e) {
+                DataBufferUtils.release(buffer);
+                throw e;
+            }
+        }));
+    }
+}
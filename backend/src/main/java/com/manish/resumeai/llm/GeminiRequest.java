@@ -0,0 +1,33 @@
+package com.manish.resumeai.llm;
+
+/**
+ * A single-turn {@code generateContent} request. The prompt must not be
+ * changed once the request is built: it is written out again for every
+ * attempt.
+ *
+ * @param responseSchema schema of the JSON output to ask for, or null for text
+ */
+public record GeminiRequest(Prompt prompt, double temperature, int maxOutputTokens, Object responseSchema) {
+
+    public static GeminiRequest of(Prompt prompt, double temperature, int maxOutputTokens) {
+        return new GeminiRequest(prompt, temperature, maxOutputTokens, null);
+    }
+
+    public static GeminiRequest of(String prompt, double temperature, int maxOutputTokens) {
+        return of(Prompt.of(prompt), temperature, maxOutputTokens);
+    }
+
+    /**
+     * The same request asking for JSON output that matches the schema.
+     */
+    public GeminiRequest withJsonOutput(Object schema) {
+        return new GeminiRequest(prompt, temperature, maxOutputTokens, schema);
+    }
+
+    /**
+     * Rough size of the serialized request, to size its buffer.
+     */
+    int estimatedSize() {
+        return prompt.estimatedJsonSize() + (responseSchema != null ? 1024 : 128);
+    }
+}
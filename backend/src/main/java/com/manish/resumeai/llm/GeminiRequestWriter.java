@@ -0,0 +1,59 @@
+package com.manish.resumeai.llm;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Serializes a {@link GeminiRequest} with Jackson's streaming generator, in
+ * the Gemini {@code GenerateContentRequest} format. The prompt goes to the
+ * output as it is written, without an intermediate string or object tree.
+ */
+@Component
+public class GeminiRequestWriter {
+
+    private final ObjectMapper objectMapper;
+
+    public GeminiRequestWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Write the request to the stream, which is left open.
+     */
+    public void write(GeminiRequest request, OutputStream out) throws IOException {
+        try (JsonGenerator json = objectMapper.createGenerator(out)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.writeStartObject();
+            json.writeArrayFieldStart("contents");
+            json.writeStartObject();
+            json.writeArrayFieldStart("parts");
+            json.writeStartObject();
+
+            json.writeFieldName("text");
+            // Open the string, then copy the escaped prompt behind the generator's back
+            json.writeRawValue("\"");
+            json.flush();
+            request.prompt().writeJson(out);
+            json.writeRaw('"');
+
+            json.writeEndObject();
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeEndArray();
+
+            json.writeObjectFieldStart("generationConfig");
+            json.writeNumberField("temperature", request.temperature());
+            json.writeNumberField("maxOutputTokens", request.maxOutputTokens());
+            if (request.responseSchema() != null) {
+                json.writeStringField("responseMimeType", "application/json");
+                json.writeObjectField("responseSchema", request.responseSchema());
+            }
+            json.writeEndObject();
+            json.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.manish.resumeai.llm;
+
+/**
+ * What is used of a {@code GenerateContentResponse} or stream chunk.
+ *
+ * @param text concatenated text of the first candidate, or null if it has none
+ * @param finishReason why generation stopped, or null while a stream is still going
+ * @param promptTokens prompt tokens counted by the provider, or -1 if not reported
+ * @param outputTokens output tokens counted by the provider, or -1 if not reported
+ */
+public record GeminiResponse(String text, String finishReason, int promptTokens, int outputTokens) {
+
+    static final GeminiResponse EMPTY = new GeminiResponse(null, null, -1, -1);
+
+    public boolean isFinished() {
+        return finishReason != null;
+    }
+}
@@ -0,0 +1,170 @@
+package com.manish.resumeai.llm;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pulls the answer text out of a Gemini {@code GenerateContentResponse} with
+ * Jackson's streaming parser, so no tree is built for the (mostly ignored)
+ * safety ratings. Works for both full responses and the partial responses
+ * delivered by {@code streamGenerateContent}. Parse time is timed, and the
+ * token counts of each finished response are recorded as {@code llm.tokens}.
+ */
+@Component
+public class GeminiResponseParser {
+
+    private final JsonFactory jsonFactory;
+    private final Timer parseTimer;
+    private final DistributionSummary promptTokens;
+    private final DistributionSummary outputTokens;
+
+    public GeminiResponseParser(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.jsonFactory = objectMapper.getFactory();
+        this.parseTimer = Timer.builder("llm.response.parse")
+                .description("Time to read the answer out of one Gemini response or stream chunk")
+                .register(meterRegistry);
+        this.promptTokens = DistributionSummary.builder("llm.tokens")
+                .description("Tokens per LLM call as counted by the provider")
+                .baseUnit("tokens")
+                .tag("type", "prompt")
+                .register(meterRegistry);
+        this.outputTokens = DistributionSummary.builder("llm.tokens")
+                .description("Tokens per LLM call as counted by the provider")
+                .baseUnit("tokens")
+                .tag("type", "output")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Concatenated text of all parts of the first candidate, or null when the
+     * response carries no candidate text (e.g. a blocked prompt).
+     */
+    public String extractText(String json) throws IOException {
+        return parse(json).text();
+    }
+
+    /**
+     * Answer text, finish reason and token counts of a response or stream chunk.
+     */
+    public GeminiResponse parse(String json) throws IOException {
+        long startedAt = System.nanoTime();
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return GeminiResponse.EMPTY;
+            }
+
+            Fields fields = new Fields();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("candidates".equals(field) && value == JsonToken.START_ARRAY) {
+                    readFirstCandidate(parser, fields);
+                } else if ("usageMetadata".equals(field) && value == JsonToken.START_OBJECT) {
+                    readUsage(parser, fields);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+
+            // Stream chunks before the last carry partial counts; only a finished response is final
+            if (fields.finishReason != null) {
+                if (fields.promptTokens >= 0) {
+                    promptTokens.record(fields.promptTokens);
+                }
+                if (fields.outputTokens >= 0) {
+                    outputTokens.record(fields.outputTokens);
+                }
+            }
+            return new GeminiResponse(fields.text, fields.finishReason,
+                    fields.promptTokens, fields.outputTokens);
+        } finally {
+            parseTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void readFirstCandidate(JsonParser parser, Fields fields) throws IOException {
+        boolean first = true;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (first && parser.currentToken() == JsonToken.START_OBJECT) {
+                readCandidate(parser, fields);
+            } else {
+                parser.skipChildren();
+            }
+            first = false;
+        }
+    }
+
+    private void readCandidate(JsonParser parser, Fields fields) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("content".equals(field) && value == JsonToken.START_OBJECT) {
+                fields.text = readContent(parser);
+            } else if ("finishReason".equals(field) && value == JsonToken.VALUE_STRING) {
+                fields.finishReason = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private void readUsage(JsonParser parser, Fields fields) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value != JsonToken.VALUE_NUMBER_INT) {
+                parser.skipChildren();
+            } else if ("promptTokenCount".equals(field)) {
+                fields.promptTokens = parser.getIntValue();
+            } else if ("candidatesTokenCount".equals(field)) {
+                fields.outputTokens = parser.getIntValue();
+            }
+        }
+    }
+
+    private String readContent(JsonParser parser) throws IOException {
+        StringBuilder text = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (!"parts".equals(field) || value != JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                continue;
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String partField = parser.currentName();
+                    JsonToken partValue = parser.nextToken();
+                    if ("text".equals(partField) && partValue == JsonToken.VALUE_STRING) {
+                        if (text == null) {
+                            text = new StringBuilder();
+                        }
+                        text.append(parser.getText());
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+        }
+        return text == null ? null : text.toString();
+    }
+
+    /**
+     * Fields collected while reading one response.
+     */
+    private static final class Fields {
+        String text;
+        String finishReason;
+        int promptTokens = -1;
+        int outputTokens = -1;
+    }
+}
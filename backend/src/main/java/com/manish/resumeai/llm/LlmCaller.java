@@ -0,0 +1,32 @@
+package com.manish.resumeai.llm;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Who an LLM call is made for, carried in the Reactor context from the
+ * controller to the per-caller quotas and the fair scheduler. Calls without
+ * a caller are background work, such as summaries and conversation
+ * compaction.
+ *
+ * @param client the client the call is scheduled for, usually its address
+ * @param session the session asking, or null if the call is not for a session
+ */
+public record LlmCaller(String client, String session) {
+
+    private static final Class<LlmCaller> KEY = LlmCaller.class;
+
+    /**
+     * Context to write into the caller's publisher.
+     */
+    public Context context() {
+        return Context.of(KEY, this);
+    }
+
+    /**
+     * The caller in the context, or null for background work.
+     */
+    static LlmCaller from(ContextView context) {
+        return context.getOrDefault(KEY, null);
+    }
+}
@@ -0,0 +1,31 @@
+package com.manish.resumeai.llm;
+
+import java.time.Duration;
+
+/**
+ * Thrown when an LLM call cannot be admitted: the in-flight limit and the
+ * waiting queue are both full, the request quota is used up, or the circuit
+ * breaker is open. Carries a retry hint when one is known.
+ */
+public class LlmCapacityExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Duration retryAfter;
+
+    public LlmCapacityExceededException(String message) {
+        this(message, null);
+    }
+
+    public LlmCapacityExceededException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Suggested wait before trying again, or null if unknown.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,266 @@
+package com.manish.resumeai.llm;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Bounds the number of LLM calls in flight at once, independently of how many
+ * servlet threads are available. Calls over the limit wait without holding a
+ * thread, in one queue per client (see {@link LlmCaller}) plus one for
+ * background work. Freed permits go to the queues by deficit round robin, so
+ * under contention every waiting client gets an equal share whatever the
+ * number of calls it has queued. A client with too many calls waiting is
+ * refused with {@link LlmQuotaExceededException}; calls over the overall
+ * queue limit are rejected.
+ *
+ * <p>When adaptive, the limit follows AIMD between the configured minimum and
+ * maximum: it grows by one per limit's worth of successful calls while the
+ * limit is actually in use, and shrinks multiplicatively whenever the provider
+ * signals overload (429, 503 or a timeout).
+ */
+@Slf4j
+@Component
+public class LlmConcurrencyLimiter {
+
+    private static final double BACKOFF_RATIO = 0.75;
+    private static final String BACKGROUND = "";
+
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final int maxQueuedPerClient;
+    private final boolean adaptive;
+    private final int minLimit;
+
+    private final Object lock = new Object();
+    private final FairQueue<Waiter> waiting;
+    private int inFlight;
+    private double limit;
+
+    private final Counter rejected;
+    private final Counter clientRejected;
+    private final Timer clientQueueTime;
+    private final Timer backgroundQueueTime;
+
+    public LlmConcurrencyLimiter(
+            @Value("${gemini.max-concurrent-requests:32}") int maxConcurrent,
+            @Value("${gemini.max-queued-requests:256}") int maxQueued,
+            @Value("${gemini.scheduler.max-queued-per-client:32}") int maxQueuedPerClient,
+            @Value("${gemini.scheduler.background-weight:1.0}") double backgroundWeight,
+            @Value("${gemini.concurrency.adaptive:true}") boolean adaptive,
+            @Value("${gemini.concurrency.initial-limit:8}") int initialLimit,
+            @Value("${gemini.concurrency.min-limit:2}") int minLimit,
+            MeterRegistry meterRegistry) {
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.maxQueuedPerClient = maxQueuedPerClient;
+        this.waiting = new FairQueue<>(key -> key.equals(BACKGROUND) ? backgroundWeight : 1.0);
+        this.adaptive = adaptive;
+        this.minLimit = Math.min(minLimit, maxConcurrent);
+        this.limit = adaptive ? Math.max(this.minLimit, Math.min(initialLimit, maxConcurrent)) : maxConcurrent;
+
+        Gauge.builder("llm.concurrency.limit", this, LlmConcurrencyLimiter::getLimit)
+                .description("Current LLM concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("llm.concurrency.in-flight", this, LlmConcurrencyLimiter::getInFlight)
+                .description("LLM calls in flight")
+                .register(meterRegistry);
+        Gauge.builder("llm.concurrency.queued", this, LlmConcurrencyLimiter::getQueued)
+                .description("LLM calls waiting for a permit")
+                .register(meterRegistry);
+        Gauge.builder("llm.concurrency.queued-clients", this, LlmConcurrencyLimiter::getQueuedClients)
+                .description("Clients with LLM calls waiting for a permit")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("llm.concurrency.rejected")
+                .description("LLM calls rejected because the queue was full")
+                .tag("reason", "queue-full")
+                .register(meterRegistry);
+        this.clientRejected = Counter.builder("llm.concurrency.rejected")
+                .description("LLM calls rejected because the queue was full")
+                .tag("reason", "client-queue-full")
+                .register(meterRegistry);
+        this.clientQueueTime = queueTimer(meterRegistry, "client");
+        this.backgroundQueueTime = queueTimer(meterRegistry, "background");
+
+        log.info("LLM concurrency limit: {} in flight{}, {} queued ({} per client, background weight {})",
+                maxConcurrent, adaptive ? " (adaptive from " + (int) limit + ", min " + this.minLimit + ")" : "",
+                maxQueued, maxQueuedPerClient, backgroundWeight);
+    }
+
+    private static Timer queueTimer(MeterRegistry meterRegistry, String caller) {
+        return Timer.builder("llm.concurrency.queue-time")
+                .description("Time LLM calls waited for a permit")
+                .tag("caller", caller)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run the call once a permit is available. The permit is released when the
+     * returned Mono completes, errors or is cancelled.
+     */
+    public <T> Mono<T> execute(Supplier<Mono<T>> call) {
+        return Mono.create(sink -> {
+            Disposable.Swap cancellation = Disposables.swap();
+            sink.onCancel(cancellation);
+
+            admit(sink.contextView(), cancellation, () -> Mono.defer(call)
+                    .doOnSuccess(value -> onSample(false))
+                    .doOnError(e -> onSample(LlmErrors.isOverload(e)))
+                    .doFinally(signal -> release())
+                    // Subscribed separately, so the caller's context (e.g. its observation) is passed on
+                    .contextWrite(sink.contextView())
+                    .subscribe(sink::success, sink::error, sink::success), sink::error);
+        });
+    }
+
+    /**
+     * Streaming variant of {@link #execute}: the permit is held until the
+     * stream terminates or is cancelled.
+     */
+    public <T> Flux<T> executeMany(Supplier<Flux<T>> call) {
+        return Flux.create(sink -> {
+            Disposable.Swap cancellation = Disposables.swap();
+            sink.onCancel(cancellation);
+
+            admit(sink.contextView(), cancellation, () -> Flux.defer(call)
+                    .doOnComplete(() -> onSample(false))
+                    .doOnError(e -> onSample(LlmErrors.isOverload(e)))
+                    .doFinally(signal -> release())
+                    .contextWrite(sink.contextView())
+                    .subscribe(sink::next, sink::error, sink::complete), sink::error);
+        });
+    }
+
+    private void admit(ContextView context, Disposable.Swap cancellation, Supplier<Disposable> subscribe,
+                       Consumer<Throwable> onRejected) {
+        LlmCaller caller = LlmCaller.from(context);
+        String key = caller != null ? caller.client() : BACKGROUND;
+        Waiter waiter = new Waiter(() -> cancellation.update(subscribe.get()),
+                caller != null ? clientQueueTime : backgroundQueueTime);
+
+        synchronized (lock) {
+            if (inFlight < (int) limit) {
+                inFlight++;
+            } else if (waiting.size() >= maxQueued) {
+                rejected.increment();
+                onRejected.accept(new LlmCapacityExceededException(
+                    "Too many AI requests in progress. Please try again shortly."
+                ));
+                return;
+            } else if (caller != null && waiting.size(key) >= maxQueuedPerClient) {
+                clientRejected.increment();
+                onRejected.accept(new LlmQuotaExceededException(
+                    "You have too many questions waiting for an answer. Please wait for them to finish."
+                ));
+                return;
+            } else {
+                // Registered before the waiter is visible to release(), so a later
+                // hand-over replaces this hook instead of being disposed by it
+                cancellation.update(() -> {
+                    synchronized (lock) {
+                        waiting.remove(key, waiter);
+                    }
+                });
+                waiting.offer(key, waiter);
+                return;
+            }
+        }
+
+        waiter.start();
+    }
+
+    /**
+     * Adjust the limit after a call that completed or failed. Cancelled calls
+     * say nothing about the provider and are not sampled.
+     */
+    private void onSample(boolean overloaded) {
+        if (!adaptive) {
+            return;
+        }
+        synchronized (lock) {
+            double previous = limit;
+            if (overloaded) {
+                limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+            } else if (inFlight * 2 >= limit) {
+                // Only grow while the current limit is actually being used
+                limit = Math.min(maxConcurrent, limit + 1 / limit);
+            }
+            if ((int) limit != (int) previous) {
+                log.debug("LLM concurrency limit {} -> {}", (int) previous, (int) limit);
+            }
+        }
+    }
+
+    private void release() {
+        List<Waiter> admitted = new ArrayList<>(1);
+        synchronized (lock) {
+            inFlight--;
+            // Usually hands this permit to one waiter; more after the limit grew, none after it shrank
+            while (inFlight < (int) limit && !waiting.isEmpty()) {
+                inFlight++;
+                admitted.add(waiting.poll());
+            }
+        }
+        admitted.forEach(Waiter::start);
+    }
+
+    public int getLimit() {
+        synchronized (lock) {
+            return (int) limit;
+        }
+    }
+
+    public int getInFlight() {
+        synchronized (lock) {
+            return inFlight;
+        }
+    }
+
+    public int getQueued() {
+        synchronized (lock) {
+            return waiting.size();
+        }
+    }
+
+    public int getQueuedClients() {
+        synchronized (lock) {
+            return waiting.keys();
+        }
+    }
+
+    /**
+     * A call waiting for a permit. Identity matters: it is removed from the
+     * queue by reference when cancelled.
+     */
+    private static final class Waiter {
+
+        private final Runnable start;
+        private final Timer queueTime;
+        private final long enqueuedNanos = System.nanoTime();
+
+        Waiter(Runnable start, Timer queueTime) {
+            this.start = start;
+            this.queueTime = queueTime;
+        }
+
+        void start() {
+            queueTime.record(System.nanoTime() - enqueuedNanos, TimeUnit.NANOSECONDS);
+            start.run();
+        }
+    }
+}
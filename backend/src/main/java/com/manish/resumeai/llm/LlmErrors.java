@@ -0,0 +1,98 @@
+package com.manish.resumeai.llm;
+
+import io.netty.handler.timeout.ReadTimeoutException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Classifies failed LLM calls for the retry, circuit breaker and adaptive
+ * concurrency decisions.
+ */
+final class LlmErrors {
+
+    private LlmErrors() {
+    }
+
+    /**
+     * The provider is telling us to slow down: rate limited, overloaded or too slow.
+     */
+    static boolean isOverload(Throwable e) {
+        int status = status(e);
+        return status == 429 || status == 503 || isTimeout(e);
+    }
+
+    /**
+     * A fresh attempt may succeed. Response timeouts are not retried: they have
+     * already used most of the caller's time.
+     */
+    static boolean isRetryable(Throwable e) {
+        int status = status(e);
+        if (status == 429 || status == 500 || status == 502 || status == 503 || status == 504) {
+            return true;
+        }
+        return e instanceof WebClientRequestException && !(e.getCause() instanceof ReadTimeoutException);
+    }
+
+    /**
+     * Counts against the provider's health. Client errors such as a bad request
+     * or an invalid key do not.
+     */
+    static boolean isFailure(Throwable e) {
+        int status = status(e);
+        return status == 429 || status >= 500 || e instanceof WebClientRequestException || isTimeout(e);
+    }
+
+    /**
+     * The response's Retry-After delay (seconds or HTTP date), or null if absent.
+     */
+    static Duration retryAfter(Throwable e) {
+        if (!(e instanceof WebClientResponseException response)) {
+            return null;
+        }
+        String value = response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(Long.parseLong(value.trim()), 0));
+        } catch (NumberFormatException notSeconds) {
+            try {
+                Instant at = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+                Duration delay = Duration.between(Instant.now(), at);
+                return delay.isNegative() ? Duration.ZERO : delay;
+            } catch (DateTimeParseException notDate) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Short label for metrics.
+     */
+    static String reason(Throwable e) {
+        int status = status(e);
+        if (status > 0) {
+            return String.valueOf(status);
+        }
+        if (isTimeout(e)) {
+            return "timeout";
+        }
+        return e instanceof WebClientRequestException ? "io" : "other";
+    }
+
+    private static int status(Throwable e) {
+        return e instanceof WebClientResponseException response ? response.getStatusCode().value() : -1;
+    }
+
+    private static boolean isTimeout(Throwable e) {
+        return e instanceof TimeoutException || e.getCause() instanceof ReadTimeoutException;
+    }
+}
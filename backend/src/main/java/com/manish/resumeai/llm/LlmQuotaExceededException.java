@@ -0,0 +1,21 @@
+package com.manish.resumeai.llm;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a call is refused because its own caller is over a limit: the
+ * client's or session's request quota, or the client's share of the waiting
+ * queue. Unlike its parent, it says nothing about the service's capacity.
+ */
+public class LlmQuotaExceededException extends LlmCapacityExceededException {
+
+    private static final long serialVersionUID = 1L;
+
+    public LlmQuotaExceededException(String message) {
+        super(message);
+    }
+
+    public LlmQuotaExceededException(String message, Duration retryAfter) {
+        super(message, retryAfter);
+    }
+}
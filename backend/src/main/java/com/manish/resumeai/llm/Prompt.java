@@ -0,0 +1,98 @@
+package com.manish.resumeai.llm;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.manish.resumeai.util.ContentHash;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A prompt as a sequence of precompiled {@link PromptSegment}s and text
+ * added per call. It is written straight into the request body, so the full
+ * prompt is never assembled as one string: the segments are copied as they
+ * are and only the per-call text is escaped.
+ */
+public final class Prompt {
+
+    /**
+     * {@link PromptSegment}s and {@link StringBuilder}s; consecutive text is
+     * collected in one builder.
+     */
+    private final List<Object> parts = new ArrayList<>(6);
+    private int length;
+
+    public static Prompt of(String text) {
+        return new Prompt().append(text);
+    }
+
+    public Prompt append(PromptSegment segment) {
+        parts.add(segment);
+        length += segment.length();
+        return this;
+    }
+
+    public Prompt append(CharSequence text) {
+        if (text == null || text.isEmpty()) {
+            return this;
+        }
+        if (!parts.isEmpty() && parts.get(parts.size() - 1) instanceof StringBuilder last) {
+            last.append(text);
+        } else {
+            parts.add(new StringBuilder(text));
+        }
+        length += text.length();
+        return this;
+    }
+
+    /**
+     * Length of the prompt text in characters.
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Rough size of the prompt once escaped, to size the request buffer.
+     */
+    int estimatedJsonSize() {
+        int size = 0;
+        for (Object part : parts) {
+            size += part instanceof PromptSegment segment ? segment.json().length : ((StringBuilder) part).length() + 16;
+        }
+        return size;
+    }
+
+    /**
+     * Write the prompt as the contents of a JSON string: escaped, without the quotes.
+     */
+    void writeJson(OutputStream out) throws IOException {
+        JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+        for (Object part : parts) {
+            out.write(part instanceof PromptSegment segment ? segment.json() : encoder.quoteAsUTF8(part.toString()));
+        }
+    }
+
+    /**
+     * Hash identifying the prompt together with the given settings. Segments
+     * contribute their precomputed digest, so only the per-call text is hashed.
+     * The same text split into different parts gives a different key.
+     */
+    public String cacheKey(String... settings) {
+        MessageDigest digest = ContentHash.newDigest();
+        for (String setting : settings) {
+            ContentHash.update(digest, setting);
+        }
+        for (Object part : parts) {
+            if (part instanceof PromptSegment segment) {
+                digest.update((byte) 2);
+                digest.update(segment.digest());
+            } else {
+                ContentHash.update(digest, (StringBuilder) part);
+            }
+        }
+        return ContentHash.hex(digest);
+    }
+}
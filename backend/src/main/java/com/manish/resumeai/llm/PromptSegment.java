@@ -0,0 +1,56 @@
+package com.manish.resumeai.llm;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.manish.resumeai.util.ContentHash;
+
+/**
+ * Prompt text kept JSON-escaped as UTF-8, ready to be copied into request
+ * bodies as is. For the parts of prompts sent over and over (instructions,
+ * a resume asked about many times), so they are escaped and encoded once
+ * instead of on every call.
+ */
+public final class PromptSegment {
+
+    private final byte[] json;
+    private final byte[] digest;
+    private final int length;
+
+    private PromptSegment(byte[] json, byte[] digest, int length) {
+        this.json = json;
+        this.digest = digest;
+        this.length = length;
+    }
+
+    public static PromptSegment of(String text) {
+        byte[] json = JsonStringEncoder.getInstance().quoteAsUTF8(text);
+        return new PromptSegment(json, ContentHash.newDigest().digest(json), text.length());
+    }
+
+    /**
+     * Length of the text in characters.
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * The escaped UTF-8 bytes; not to be modified.
+     */
+    byte[] json() {
+        return json;
+    }
+
+    /**
+     * SHA-256 of the escaped bytes, which stands in for the text in cache keys.
+     */
+    byte[] digest() {
+        return digest;
+    }
+
+    /**
+     * Approximate heap retained by the segment.
+     */
+    public int retainedBytes() {
+        return 64 + json.length + digest.length;
+    }
+}
@@ -0,0 +1,299 @@
+package com.manish.resumeai.llm;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.reactivestreams.Publisher;
+import org.springframework.stereotype.Component;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Runs LLM calls so that a fixed provider quota yields as many successful
+ * answers as possible, shared fairly between callers. A call made for a
+ * client or session ({@link LlmCaller}) is first charged to their request
+ * quotas, once however many attempts it takes; a call shared by several
+ * callers is run with {@link #executeCharged} after charging each of them
+ * with {@link #charge}. Each attempt then passes, in order:
+ * <ol>
+ *   <li>the circuit breaker, failing fast while the provider is failing;</li>
+ *   <li>a token bucket matched to the quota, delaying the attempt (without
+ *       holding a thread) or refusing it if the wait would be too long;</li>
+ *   <li>the adaptive {@link LlmConcurrencyLimiter}.</li>
+ * </ol>
+ * Attempts that fail with 429, 5xx or a connection error are retried with
+ * full-jitter exponential backoff, or after the provider's Retry-After delay
+ * when it sends one. Streams are only retried before their first element.
+ * <p>
+ * Each call, retries included, is an {@code llm.request} observation (a
+ * timer tagged by mode and final status, and a span when tracing) that the
+ * HTTP client's per-attempt spans are nested under.
+ */
+@Slf4j
+@Component
+public class ResilientLlmExecutor {
+
+    private static final String OBSERVATION = "llm.request";
+    private static final KeyValue UNARY = KeyValue.of("mode", "unary");
+    private static final KeyValue STREAM = KeyValue.of("mode", "stream");
+    private static final KeyValue STATUS_OK = KeyValue.of("status", "ok");
+    private static final KeyValue STATUS_CANCELLED = KeyValue.of("status", "cancelled");
+
+    private final LlmConcurrencyLimiter concurrencyLimiter;
+    private final TokenBucket rateLimiter;
+    private final CircuitBreaker circuitBreaker;
+    private final CallerQuotas callerQuotas;
+    private final int maxRetries;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
+    private final Timer rateLimitWait;
+    private final Counter rateLimitRejected;
+    private final Counter circuitRejected;
+
+    public ResilientLlmExecutor(
+            LlmConcurrencyLimiter concurrencyLimiter,
+            @Value("${gemini.rate-limit.requests-per-minute:0}") int requestsPerMinute,
+            @Value("${gemini.rate-limit.burst:20}") int burst,
+            @Value("${gemini.rate-limit.max-wait:5s}") Duration maxWait,
+            @Value("${gemini.retry.max-retries:2}") int maxRetries,
+            @Value("${gemini.retry.initial-backoff:500ms}") Duration initialBackoff,
+            @Value("${gemini.retry.max-backoff:8s}") Duration maxBackoff,
+            @Value("${gemini.circuit.failure-rate-threshold:50}") int failureRateThreshold,
+            @Value("${gemini.circuit.window-size:20}") int windowSize,
+            @Value("${gemini.circuit.minimum-calls:10}") int minimumCalls,
+            @Value("${gemini.circuit.open-duration:30s}") Duration openDuration,
+            @Value("${gemini.circuit.half-open-calls:3}") int halfOpenCalls,
+            @Value("${gemini.quota.client.requests-per-minute:0}") int clientRequestsPerMinute,
+            @Value("${gemini.quota.client.burst:20}") int clientBurst,
+            @Value("${gemini.quota.session.requests-per-minute:0}") int sessionRequestsPerMinute,
+            @Value("${gemini.quota.session.burst:5}") int sessionBurst,
+            MeterRegistry meterRegistry,
+            ObservationRegistry observationRegistry) {
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.rateLimiter = requestsPerMinute > 0
+                ? new TokenBucket(requestsPerMinute / 60.0, burst, maxWait.toNanos(), TimeUnit.NANOSECONDS)
+                : null;
+        this.circuitBreaker = new CircuitBreaker(failureRateThreshold, windowSize, minimumCalls,
+                openDuration, halfOpenCalls);
+        this.callerQuotas = new CallerQuotas(clientRequestsPerMinute, clientBurst,
+                sessionRequestsPerMinute, sessionBurst, meterRegistry);
+        this.maxRetries = maxRetries;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.meterRegistry = meterRegistry;
+        this.observationRegistry = observationRegistry;
+
+        this.rateLimitWait = Timer.builder("llm.ratelimit.wait")
+                .description("Time LLM calls waited for a rate limit token")
+                .register(meterRegistry);
+        this.rateLimitRejected = Counter.builder("llm.ratelimit.rejected")
+                .description("LLM calls refused because the request quota was used up")
+                .register(meterRegistry);
+        this.circuitRejected = Counter.builder("llm.circuit.rejected")
+                .description("LLM calls failed fast by the open circuit breaker")
+                .register(meterRegistry);
+        Gauge.builder("llm.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("Circuit breaker state: 0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+
+        log.info("LLM resilience: rate limit {}, {} retries (backoff {}..{}), circuit opens at {}% of {} calls for {}",
+                requestsPerMinute > 0 ? requestsPerMinute + "/min (burst " + burst + ")" : "off",
+                maxRetries, initialBackoff, maxBackoff, failureRateThreshold, windowSize, openDuration);
+        log.info("LLM caller quotas: {}", callerQuotas);
+    }
+
+    public <T> Mono<T> execute(Supplier<Mono<T>> call) {
+        return charge().then(executeCharged(call));
+    }
+
+    /**
+     * Like {@link #execute}, for a call whose callers were charged with
+     * {@link #charge} before it started, such as a call that later callers
+     * join: charging inside it would bill the first caller only, and fail the
+     * call for everyone when that caller is over quota.
+     */
+    public <T> Mono<T> executeCharged(Supplier<Mono<T>> call) {
+        Mono<T> resilient = Mono.defer(() -> admit()
+                        .then(concurrencyLimiter.execute(() -> Mono.from(inObservationScope(call.get())))
+                                .doOnSuccess(value -> succeeded())
+                                .doOnError(this::failed))
+                        .doOnCancel(circuitBreaker::onIgnored))
+                .retryWhen(retry(() -> true));
+
+        // Calls are assembled on the request thread, whose observation becomes the parent
+        Observation parent = observationRegistry.getCurrentObservation();
+        return Mono.deferContextual(context -> {
+            Observation observation = startObservation(UNARY, context, parent);
+            return resilient
+                    .doOnSuccess(value -> observation.lowCardinalityKeyValue(STATUS_OK))
+                    .doOnError(e -> observation.lowCardinalityKeyValue(status(e)).error(e))
+                    .doOnCancel(() -> observation.lowCardinalityKeyValue(STATUS_CANCELLED))
+                    .doFinally(signal -> observation.stop())
+                    .contextWrite(inner -> inner.put(ObservationThreadLocalAccessor.KEY, observation));
+        });
+    }
+
+    public <T> Flux<T> executeMany(Supplier<Flux<T>> call) {
+        Flux<T> resilient = Flux.defer(() -> {
+            // Once output has reached the caller a retry would repeat it
+            AtomicBoolean emitted = new AtomicBoolean();
+            return charge().thenMany(Flux.defer(() -> admit()
+                            .thenMany(concurrencyLimiter.executeMany(() -> Flux.from(inObservationScope(call.get())))
+                                    .doOnComplete(this::succeeded)
+                                    .doOnError(this::failed))
+                            .doOnCancel(circuitBreaker::onIgnored))
+                    .doOnNext(element -> emitted.set(true))
+                    .retryWhen(retry(() -> !emitted.get())));
+        });
+
+        Observation parent = observationRegistry.getCurrentObservation();
+        return Flux.deferContextual(context -> {
+            Observation observation = startObservation(STREAM, context, parent);
+            return resilient
+                    .doOnComplete(() -> observation.lowCardinalityKeyValue(STATUS_OK))
+                    .doOnError(e -> observation.lowCardinalityKeyValue(status(e)).error(e))
+                    .doOnCancel(() -> observation.lowCardinalityKeyValue(STATUS_CANCELLED))
+                    .doFinally(signal -> observation.stop())
+                    .contextWrite(inner -> inner.put(ObservationThreadLocalAccessor.KEY, observation));
+        });
+    }
+
+    private Observation startObservation(KeyValue mode, ContextView context, Observation parent) {
+        return Observation.createNotStarted(OBSERVATION, observationRegistry)
+                .parentObservation(context.getOrDefault(ObservationThreadLocalAccessor.KEY, parent))
+                .lowCardinalityKeyValue(mode)
+                .start();
+    }
+
+    /**
+     * Subscribe to an attempt with the call's observation in scope. Tracing
+     * prefers the thread's current span over the observation in the Reactor
+     * context, so the HTTP client's span would otherwise attach to whichever
+     * request the subscribing thread happens to be serving.
+     */
+    private static <T> Publisher<T> inObservationScope(Publisher<T> attempt) {
+        return subscriber -> {
+            Observation observation = subscriber instanceof CoreSubscriber<?> core
+                    ? core.currentContext().getOrDefault(ObservationThreadLocalAccessor.KEY, null)
+                    : null;
+            if (observation == null) {
+                attempt.subscribe(subscriber);
+                return;
+            }
+            try (Observation.Scope ignored = observation.openScope()) {
+                attempt.subscribe(subscriber);
+            }
+        };
+    }
+
+    /**
+     * Take one call from the subscriber's caller's quotas, if it has a caller:
+     * completes when the call may go ahead, or fails with
+     * {@link LlmQuotaExceededException}.
+     */
+    public Mono<Void> charge() {
+        return Mono.deferContextual(context -> {
+            callerQuotas.acquire(LlmCaller.from(context));
+            return Mono.empty();
+        });
+    }
+
+    /**
+     * Pass the circuit breaker and the rate limiter: completes when the attempt
+     * may start, or fails with {@link LlmCapacityExceededException}.
+     */
+    private Mono<Void> admit() {
+        return Mono.defer(() -> {
+            if (!circuitBreaker.tryAcquire()) {
+                circuitRejected.increment();
+                return Mono.error(new LlmCapacityExceededException(
+                    "The AI service is temporarily unavailable. Please try again shortly.",
+                    circuitBreaker.remainingOpen()
+                ));
+            }
+            if (rateLimiter == null) {
+                return Mono.empty();
+            }
+
+            long waitNanos = rateLimiter.reserve();
+            if (waitNanos < 0) {
+                circuitBreaker.onIgnored();
+                rateLimitRejected.increment();
+                return Mono.error(new LlmCapacityExceededException(
+                    "AI request quota reached. Please try again shortly.",
+                    Duration.ofNanos(rateLimiter.nanosUntilFree())
+                ));
+            }
+            rateLimitWait.record(waitNanos, TimeUnit.NANOSECONDS);
+            return waitNanos > 0 ? Mono.delay(Duration.ofNanos(waitNanos)).then() : Mono.empty();
+        });
+    }
+
+    private void succeeded() {
+        circuitBreaker.onSuccess();
+        meterRegistry.counter("llm.calls", "outcome", "success").increment();
+    }
+
+    private void failed(Throwable e) {
+        if (LlmErrors.isFailure(e)) {
+            circuitBreaker.onFailure();
+        } else {
+            circuitBreaker.onIgnored();
+        }
+        meterRegistry.counter("llm.calls", "outcome", outcome(e)).increment();
+    }
+
+    private static String outcome(Throwable e) {
+        return e instanceof LlmCapacityExceededException ? "rejected" : LlmErrors.reason(e);
+    }
+
+    private static KeyValue status(Throwable e) {
+        return KeyValue.of("status", outcome(e));
+    }
+
+    private Retry retry(BooleanSupplier allowed) {
+        return Retry.from(signals -> signals.concatMap(signal -> {
+            Throwable failure = signal.failure();
+            if (signal.totalRetries() >= maxRetries || !LlmErrors.isRetryable(failure) || !allowed.getAsBoolean()) {
+                return Mono.error(failure);
+            }
+
+            Duration delay = LlmErrors.retryAfter(failure);
+            if (delay == null) {
+                // Full jitter: uniform in [0, initial * 2^n], capped
+                long ceiling = Math.min(maxBackoff.toMillis(),
+                        initialBackoff.toMillis() << Math.min(signal.totalRetries(), 20));
+                delay = Duration.ofMillis(ThreadLocalRandom.current().nextLong(ceiling + 1));
+            } else if (delay.compareTo(maxBackoff) > 0) {
+                // Waiting that long would outlast the caller; give the quota back instead
+                return Mono.error(failure);
+            }
+
+            String reason = LlmErrors.reason(failure);
+            meterRegistry.counter("llm.retries", "reason", reason).increment();
+            log.warn("LLM call failed ({}), retry {} of {} in {} ms",
+                    reason, signal.totalRetries() + 1, maxRetries, delay.toMillis());
+            return Mono.delay(delay);
+        }));
+    }
+}
@@ -0,0 +1,56 @@
+package com.manish.resumeai.llm;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical LLM calls: while a call for a key is in
+ * flight, later callers with the same key subscribe to it instead of starting
+ * their own, and all of them receive its result or error. The upstream call is
+ * cancelled only when every caller has cancelled.
+ */
+@Component
+public class SingleFlight {
+
+    private final Map<String, Mono<String>> inFlight = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+
+    public SingleFlight(MeterRegistry meterRegistry) {
+        this.coalesced = Counter.builder("llm.coalesced")
+                .description("LLM calls answered by joining an identical call already in flight")
+                .register(meterRegistry);
+        Gauge.builder("llm.coalesced.in-flight", inFlight, Map::size)
+                .description("Distinct LLM calls in flight that others can join")
+                .register(meterRegistry);
+    }
+
+    public Mono<String> execute(String key, Supplier<Mono<String>> call) {
+        return Mono.defer(() -> {
+            boolean[] started = new boolean[1];
+            Mono<String> shared = inFlight.computeIfAbsent(key, k -> {
+                started[0] = true;
+                return lead(k, call);
+            });
+            if (!started[0]) {
+                coalesced.increment();
+            }
+            return shared;
+        });
+    }
+
+    private Mono<String> lead(String key, Supplier<Mono<String>> call) {
+        AtomicReference<Mono<String>> self = new AtomicReference<>();
+        self.set(Mono.defer(call)
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .share());
+        return self.get();
+    }
+}
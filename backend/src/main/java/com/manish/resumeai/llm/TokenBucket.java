@@ -0,0 +1,50 @@
+package com.manish.resumeai.llm;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket refilled at a fixed rate, implemented as a virtual scheduling
+ * (GCRA) clock: callers reserve a slot and are told how long to wait for it,
+ * so waiting never holds a thread. Reservations that would wait longer than
+ * the limit are refused and consume nothing.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final long maxWaitNanos;
+
+    // Theoretical arrival time of the next request when the bucket is empty
+    private long nextFreeNanos;
+
+    TokenBucket(double permitsPerSecond, int burst, long maxWait, TimeUnit unit) {
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.burstNanos = intervalNanos * Math.max(burst - 1, 0);
+        this.maxWaitNanos = unit.toNanos(maxWait);
+        // Starts full, so a new caller can use its whole burst
+        this.nextFreeNanos = System.nanoTime() - burstNanos;
+    }
+
+    /**
+     * Reserve one permit.
+     *
+     * @return nanoseconds to wait before using it, or -1 if the wait would exceed the limit
+     */
+    synchronized long reserve() {
+        long now = System.nanoTime();
+        long start = Math.max(nextFreeNanos, now - burstNanos);
+        long wait = Math.max(start - now, 0);
+        if (wait > maxWaitNanos) {
+            return -1;
+        }
+        nextFreeNanos = start + intervalNanos;
+        return wait;
+    }
+
+    /**
+     * Nanoseconds until a permit could be reserved without waiting.
+     */
+    synchronized long nanosUntilFree() {
+        return Math.max(nextFreeNanos - System.nanoTime(), 0);
+    }
+}
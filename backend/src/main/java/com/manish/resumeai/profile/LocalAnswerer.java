@@ -0,0 +1,187 @@
+package com.manish.resumeai.profile;
+
+import com.manish.resumeai.session.ResumeDocument;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.format.TextStyle;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Answers simple factual questions ("How many years of Java experience do I
+ * have?", "What are my strongest technical skills?", "Where have I worked?")
+ * from the document's {@link ResumeProfile} without calling the LLM. Anything
+ * it cannot answer with confidence, including questions asking for advice or
+ * a comparison, is left to the LLM.
+ */
+@Component
+public class LocalAnswerer {
+
+    private static final int TOP_SKILLS = 6;
+
+    private static final Pattern NEEDS_LLM = Pattern.compile(
+            "\\b(missing|lack|improve|learn|should|could|would|better|compare|fit|match|suit|rate|role for|"
+            + "job description|interview|prepare|why|how do i|how can i|tell me more|explain)\\b");
+    private static final Pattern YEARS = Pattern.compile(
+            "\\b(how many|how much|number of) years\\b|\\bhow long have i\\b|\\byears of (\\S+ )*experience\\b");
+    private static final Pattern SKILLS = Pattern.compile(
+            "\\b(strongest|top|main|key|core|best|primary|technical) (technical )?skills\\b"
+            + "|\\bwhat (are|r) my skills\\b|\\bwhat skills do i have\\b|\\blist my skills\\b");
+    private static final Pattern EMPLOYERS = Pattern.compile(
+            "\\b(which|what) (companies|employers|organi[sz]ations)\\b|\\bwhere have i worked\\b|\\blist my employers\\b");
+    private static final Pattern CURRENT = Pattern.compile(
+            "\\b(current|latest|most recent) (role|job|position|title|employer|company)\\b"
+            + "|\\bwhere do i (currently )?work\\b");
+
+    private final boolean enabled;
+
+    public LocalAnswerer(@Value("${resume.local-answers.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The document's profile, extracted now if the document does not carry
+     * one yet (documents restored from a shared session store).
+     */
+    public ResumeProfile profile(ResumeDocument document) {
+        ResumeProfile profile = document.getProfile();
+        if (profile == null) {
+            profile = ResumeProfileExtractor.extract(document.getText());
+            document.setProfile(profile);
+        }
+        return profile;
+    }
+
+    /**
+     * An answer built from the resume's profile, or null if the question
+     * should go to the LLM.
+     */
+    public String answer(ResumeDocument document, String question) {
+        if (!enabled || question == null) {
+            return null;
+        }
+        String normalized = question.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9+#./ ]", " ").replaceAll("\\s+", " ");
+        if (NEEDS_LLM.matcher(normalized).find()) {
+            return null;
+        }
+
+        ResumeProfile profile = profile(document);
+        if (YEARS.matcher(normalized).find()) {
+            return yearsOfExperience(profile, question);
+        }
+        if (SKILLS.matcher(normalized).find()) {
+            return strongestSkills(profile);
+        }
+        if (EMPLOYERS.matcher(normalized).find()) {
+            return employers(profile);
+        }
+        if (CURRENT.matcher(normalized).find()) {
+            return currentPosition(profile);
+        }
+        return null;
+    }
+
+    private String yearsOfExperience(ResumeProfile profile, String question) {
+        if (profile.positions().isEmpty()) {
+            return null;
+        }
+        YearMonth now = YearMonth.now();
+        List<String> mentioned = ResumeProfileExtractor.knownMentions(question);
+        if (mentioned.size() > 1) {
+            return null;
+        }
+        if (mentioned.isEmpty()) {
+            int months = ResumeProfile.months(profile.positions(), now);
+            return "Based on the dated roles in your resume, you have " + duration(months)
+                    + " of professional experience across " + profile.positions().size()
+                    + (profile.positions().size() == 1 ? " role" : " roles") + ":\n" + roles(profile.positions());
+        }
+
+        String skill = mentioned.get(0);
+        if (profile.skill(skill) == null) {
+            return "Your resume doesn't mention " + skill + ". If you have experience with it, consider adding it "
+                    + "to the role where you used it.";
+        }
+        List<ResumeProfile.Position> positions = profile.positionsWith(skill);
+        if (positions.isEmpty()) {
+            // Listed, but not tied to a dated role: leave the estimate to the LLM
+            return null;
+        }
+        return "Based on the roles in your resume that mention " + skill + ", you have about "
+                + duration(ResumeProfile.months(positions, now)) + " of " + skill + " experience:\n" + roles(positions);
+    }
+
+    private String strongestSkills(ResumeProfile profile) {
+        if (profile.skills().size() < 3) {
+            return null;
+        }
+        YearMonth now = YearMonth.now();
+        List<String> lines = profile.skills().stream()
+                .limit(TOP_SKILLS)
+                .map(skill -> {
+                    List<ResumeProfile.Position> positions = profile.positionsWith(skill.name());
+                    String evidence = positions.isEmpty()
+                            ? (skill.listed() ? "listed in your skills" : "mentioned " + times(skill.mentions()))
+                            : duration(ResumeProfile.months(positions, now)) + " across " + positions.size()
+                                    + (positions.size() == 1 ? " role" : " roles");
+                    return "- " + skill.name() + " (" + evidence + ")";
+                })
+                .toList();
+        return "Going by how often they appear in your resume and the roles that use them, your strongest "
+                + "technical skills are:\n" + String.join("\n", lines);
+    }
+
+    private String employers(ResumeProfile profile) {
+        List<ResumeProfile.Position> positions = profile.positions().stream()
+                .filter(position -> position.employer() != null)
+                .toList();
+        if (positions.isEmpty()) {
+            return null;
+        }
+        return "According to your resume, you have worked at:\n" + roles(positions);
+    }
+
+    private String currentPosition(ResumeProfile profile) {
+        ResumeProfile.Position current = profile.positions().stream()
+                .filter(ResumeProfile.Position::isCurrent)
+                .findFirst()
+                .orElse(null);
+        if (current == null) {
+            return null;
+        }
+        return "Your current role is " + current.describe() + " (since " + month(current.start()) + ").";
+    }
+
+    private static String roles(List<ResumeProfile.Position> positions) {
+        return positions.stream()
+                .map(position -> "- " + position.describe() + " (" + month(position.start()) + " - "
+                        + (position.isCurrent() ? "present" : month(position.end())) + ")")
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static String duration(int months) {
+        int years = months / 12;
+        int rest = months % 12;
+        if (years == 0) {
+            return rest + (rest == 1 ? " month" : " months");
+        }
+        String text = years + (years == 1 ? " year" : " years");
+        return rest == 0 ? text : text + " and " + rest + (rest == 1 ? " month" : " months");
+    }
+
+    private static String month(YearMonth month) {
+        return month.getMonth().getDisplayName(TextStyle.SHORT, Locale.ENGLISH) + " " + month.getYear();
+    }
+
+    private static String times(int count) {
+        return count == 1 ? "once" : count + " times";
+    }
+}
@@ -0,0 +1,119 @@
+package com.manish.resumeai.profile;
+
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Structured view of a resume: its section headings, the dated positions of
+ * its experience sections and the technical skills it mentions. Extracted
+ * once per document by {@link ResumeProfileExtractor}.
+ *
+ * @param sections headings in document order
+ * @param positions dated positions in document order
+ * @param skills skills ordered by how often they are mentioned, most first
+ */
+public record ResumeProfile(List<String> sections, List<Position> positions, List<Skill> skills) {
+
+    /**
+     * One dated position.
+     *
+     * @param title job title, or null if none was recognized
+     * @param employer employer, or null if none was recognized
+     * @param end last month, or null for a current position
+     * @param skills names of the skills mentioned in the position's description
+     */
+    public record Position(String title, String employer, YearMonth start, YearMonth end, Set<String> skills) {
+
+        public boolean isCurrent() {
+            return end == null;
+        }
+
+        /**
+         * "Title at Employer", or whichever of the two is known.
+         */
+        public String describe() {
+            if (title != null && employer != null) {
+                return title + " at " + employer;
+            }
+            if (title == null && employer == null) {
+                return "Untitled position";
+            }
+            return title != null ? title : employer;
+        }
+    }
+
+    /**
+     * @param mentions occurrences anywhere in the resume
+     * @param listed whether the skill appears in a skills section
+     */
+    public record Skill(String name, int mentions, boolean listed) {
+    }
+
+    public ResumeProfile {
+        sections = List.copyOf(sections);
+        positions = List.copyOf(positions);
+        skills = List.copyOf(skills);
+    }
+
+    /**
+     * The skill with this name, ignoring case, or null.
+     */
+    public Skill skill(String name) {
+        for (Skill skill : skills) {
+            if (skill.name().equalsIgnoreCase(name)) {
+                return skill;
+            }
+        }
+        return null;
+    }
+
+    public List<Position> positionsWith(String skill) {
+        return positions.stream().filter(position -> position.skills().contains(skill)).toList();
+    }
+
+    /**
+     * Months covered by the given positions up to {@code now}, counting
+     * overlapping positions once.
+     */
+    public static int months(List<Position> positions, YearMonth now) {
+        List<Position> sorted = new ArrayList<>(positions);
+        sorted.sort(Comparator.comparing(Position::start));
+
+        int total = 0;
+        YearMonth coveredUntil = null;
+        for (Position position : sorted) {
+            YearMonth end = position.isCurrent() || position.end().isAfter(now) ? now : position.end();
+            YearMonth start = coveredUntil != null && !position.start().isAfter(coveredUntil)
+                    ? coveredUntil.plusMonths(1)
+                    : position.start();
+            if (!start.isAfter(end)) {
+                total += (int) start.until(end, ChronoUnit.MONTHS) + 1;
+                coveredUntil = end;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Approximate heap retained by the profile.
+     */
+    public int retainedBytes() {
+        int bytes = 64;
+        for (String section : sections) {
+            bytes += 48 + section.length() * 2;
+        }
+        for (Position position : positions) {
+            bytes += 160 + position.skills().size() * 32
+                    + (position.title() != null ? position.title().length() * 2 : 0)
+                    + (position.employer() != null ? position.employer().length() * 2 : 0);
+        }
+        for (Skill skill : skills) {
+            bytes += 64 + skill.name().length() * 2;
+        }
+        return bytes;
+    }
+}
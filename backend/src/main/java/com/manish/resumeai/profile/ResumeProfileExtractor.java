@@ -0,0 +1,329 @@
+package com.manish.resumeai.profile;
+
+import com.manish.resumeai.retrieval.ResumeChunker;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Builds a {@link ResumeProfile} from extracted resume text with a single
+ * pass over its lines. Positions are lines carrying a date range ("Jan 2019 -
+ * Present", "03/2016 – 12/2018", "2014 to 2016") outside the education
+ * section; the title and employer come from the rest of that line or the line
+ * before it. Skills are the known technology names below plus the items of a
+ * skills section.
+ */
+public final class ResumeProfileExtractor {
+
+    private static final String MONTHS = "jan|feb|mar|apr|may|jun|jul|aug|sep|oct|nov|dec";
+    private static final Pattern DATE_RANGE = Pattern.compile(
+            "\\b" + datePattern("1") + "\\s*(?:-|–|—|to|until)\\s*(?:" + datePattern("2") + "|(?<current>present|current|now|today|date))\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern TITLE_WORDS = Pattern.compile(
+            "\\b(engineer|developer|programmer|architect|manager|lead|director|head|analyst|consultant|"
+            + "scientist|designer|administrator|specialist|intern|officer|associate|founder|owner|"
+            + "tester|devops|sre|president|vp|cto|ceo)\\b",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern HEADER_SEPARATOR = Pattern.compile("\\s+at\\s+|\\s*[|,@·•]\\s*|\\s+[-–—]\\s+");
+    private static final Pattern LIST_SEPARATOR = Pattern.compile("\\s*[,;|•·/]\\s*");
+
+    /**
+     * Display name and lower-case aliases of technologies recognized anywhere
+     * in the text, whether or not the resume has a skills section.
+     */
+    private static final Map<String, List<String>> KNOWN_SKILLS = new LinkedHashMap<>();
+
+    static {
+        known("Java", "java", "j2ee", "jee");
+        known("Kotlin", "kotlin");
+        known("Scala", "scala");
+        known("Python", "python");
+        known("Go", "golang");
+        known("JavaScript", "javascript", "js", "es6");
+        known("TypeScript", "typescript");
+        known("C++", "c++");
+        known("C#", "c#");
+        known(".NET", ".net", "asp.net");
+        known("Ruby", "ruby", "rails");
+        known("PHP", "php");
+        known("Rust", "rust");
+        known("SQL", "sql");
+        known("Spring Boot", "spring boot", "spring-boot");
+        known("Spring", "spring mvc", "spring framework", "spring cloud");
+        known("Hibernate", "hibernate", "jpa");
+        known("Microservices", "microservices", "microservice");
+        known("REST APIs", "restful", "rest api", "rest apis");
+        known("GraphQL", "graphql");
+        known("gRPC", "grpc");
+        known("React", "react", "react.js", "reactjs");
+        known("Angular", "angular", "angularjs");
+        known("Vue", "vue", "vue.js");
+        known("Node.js", "node.js", "nodejs");
+        known("Docker", "docker");
+        known("Kubernetes", "kubernetes", "k8s");
+        known("AWS", "aws", "amazon web services");
+        known("Azure", "azure");
+        known("GCP", "gcp", "google cloud");
+        known("Terraform", "terraform");
+        known("Jenkins", "jenkins");
+        known("CI/CD", "ci/cd", "cicd");
+        known("Git", "git");
+        known("Linux", "linux");
+        known("Kafka", "kafka");
+        known("RabbitMQ", "rabbitmq");
+        known("PostgreSQL", "postgresql", "postgres");
+        known("MySQL", "mysql");
+        known("Oracle", "oracle");
+        known("MongoDB", "mongodb", "mongo");
+        known("Redis", "redis");
+        known("Elasticsearch", "elasticsearch");
+        known("Cassandra", "cassandra");
+        known("Spark", "spark", "apache spark");
+        known("Hadoop", "hadoop");
+        known("Machine Learning", "machine learning", "ml");
+        known("TensorFlow", "tensorflow");
+        known("PyTorch", "pytorch");
+        known("Maven", "maven");
+        known("Gradle", "gradle");
+        known("JUnit", "junit");
+        known("Agile", "agile", "scrum");
+    }
+
+    private static final Map<String, Pattern> KNOWN_PATTERNS = new LinkedHashMap<>();
+
+    static {
+        KNOWN_SKILLS.forEach((name, aliases) -> KNOWN_PATTERNS.put(name, mentionPattern(aliases)));
+    }
+
+    private ResumeProfileExtractor() {
+    }
+
+    /**
+     * A month and year ("Jan 2019", "January 2019", "01/2019") or a year alone,
+     * in named groups suffixed with {@code n}.
+     */
+    private static String datePattern(String n) {
+        return "(?:(?<m" + n + ">" + MONTHS + ")[a-z]*\\.?\\s*|(?<n" + n + ">\\d{1,2})/)?(?<y" + n + ">(?:19|20)\\d{2})";
+    }
+
+    private static void known(String name, String... aliases) {
+        KNOWN_SKILLS.put(name, List.of(aliases));
+    }
+
+    public static ResumeProfile extract(String text) {
+        List<String> sections = new ArrayList<>();
+        List<PositionBuilder> positions = new ArrayList<>();
+        Set<String> listedItems = new LinkedHashSet<>();
+
+        String section = "";
+        String previousLine = null;
+        PositionBuilder current = null;
+
+        for (String rawLine : text.split("\\R")) {
+            String line = rawLine.strip();
+            if (line.isEmpty()) {
+                continue;
+            }
+            if (ResumeChunker.isHeading(line)) {
+                sections.add(line);
+                section = line.toLowerCase(Locale.ROOT);
+                current = null;
+                previousLine = null;
+                continue;
+            }
+
+            boolean education = section.contains("education") || section.contains("academic");
+            Matcher range = DATE_RANGE.matcher(line);
+            if (!education && range.find()) {
+                YearMonth start = date(range.group("m1"), range.group("n1"), range.group("y1"));
+                YearMonth end = range.group("current") != null
+                        ? null
+                        : date(range.group("m2"), range.group("n2"), range.group("y2"));
+                if (end == null || !end.isBefore(start)) {
+                    String header = strip(line.substring(0, range.start()) + " " + line.substring(range.end()));
+                    String context = previousLine != null && isShortHeader(previousLine) ? previousLine : null;
+                    current = position(header, context, start, end);
+                    positions.add(current);
+                    previousLine = null;
+                    continue;
+                }
+            }
+
+            if (section.contains("skill") || section.contains("technolog") || section.contains("tools")) {
+                collectListed(line, listedItems);
+            }
+            if (current != null) {
+                current.details.append(line).append('\n');
+            }
+            previousLine = line;
+        }
+
+        String lower = text.toLowerCase(Locale.ROOT);
+        Map<String, Pattern> patterns = new LinkedHashMap<>(KNOWN_PATTERNS);
+        Set<String> listed = new LinkedHashSet<>();
+        for (String item : listedItems) {
+            String name = knownName(item);
+            if (name == null) {
+                name = item;
+                patterns.putIfAbsent(name, mentionPattern(List.of(item.toLowerCase(Locale.ROOT))));
+            }
+            listed.add(name);
+        }
+
+        List<ResumeProfile.Skill> skills = new ArrayList<>();
+        patterns.forEach((name, pattern) -> {
+            int mentions = count(pattern, lower);
+            if (mentions > 0 || listed.contains(name)) {
+                skills.add(new ResumeProfile.Skill(name, Math.max(mentions, 1), listed.contains(name)));
+            }
+        });
+        skills.sort(Comparator.comparingInt(ResumeProfile.Skill::mentions).reversed());
+
+        List<ResumeProfile.Position> built = new ArrayList<>(positions.size());
+        for (PositionBuilder position : positions) {
+            String described = ((position.title != null ? position.title : "") + "\n" + position.details)
+                    .toLowerCase(Locale.ROOT);
+            Set<String> used = new LinkedHashSet<>();
+            for (ResumeProfile.Skill skill : skills) {
+                if (patterns.get(skill.name()).matcher(described).find()) {
+                    used.add(skill.name());
+                }
+            }
+            built.add(new ResumeProfile.Position(position.title, position.employer, position.start, position.end,
+                    Set.copyOf(used)));
+        }
+        return new ResumeProfile(sections, built, skills);
+    }
+
+    /**
+     * Known skill whose alias is the given text, or null.
+     */
+    static String knownName(String text) {
+        String lower = text.toLowerCase(Locale.ROOT).strip();
+        for (Map.Entry<String, List<String>> skill : KNOWN_SKILLS.entrySet()) {
+            if (skill.getKey().equalsIgnoreCase(lower) || skill.getValue().contains(lower)) {
+                return skill.getKey();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Known skills mentioned in the text, such as a question.
+     */
+    public static List<String> knownMentions(String text) {
+        String lower = text.toLowerCase(Locale.ROOT);
+        List<String> names = new ArrayList<>();
+        KNOWN_PATTERNS.forEach((name, pattern) -> {
+            if (pattern.matcher(lower).find()) {
+                names.add(name);
+            }
+        });
+        return names;
+    }
+
+    static Pattern mentionPattern(List<String> aliases) {
+        StringBuilder regex = new StringBuilder("(?<![\\w+#.])(?:");
+        for (int i = 0; i < aliases.size(); i++) {
+            regex.append(i > 0 ? "|" : "").append(Pattern.quote(aliases.get(i)));
+        }
+        return Pattern.compile(regex.append(")(?![\\w+#]|\\.\\w)").toString());
+    }
+
+    private static PositionBuilder position(String header, String previousLine, YearMonth start, YearMonth end) {
+        PositionBuilder position = new PositionBuilder(start, end);
+        List<String> parts = new ArrayList<>();
+        for (String part : HEADER_SEPARATOR.split(header)) {
+            if (!part.isBlank()) {
+                parts.add(strip(part));
+            }
+        }
+        if (parts.isEmpty() && previousLine != null) {
+            return position(previousLine, null, start, end);
+        }
+
+        for (String part : parts) {
+            if (position.title == null && TITLE_WORDS.matcher(part).find()) {
+                position.title = part;
+            } else if (position.employer == null) {
+                position.employer = part;
+            }
+        }
+        if (position.employer == null && previousLine != null && !TITLE_WORDS.matcher(previousLine).find()) {
+            position.employer = strip(previousLine);
+        } else if (position.title == null && previousLine != null && TITLE_WORDS.matcher(previousLine).find()) {
+            position.title = strip(previousLine);
+        }
+        return position;
+    }
+
+    /**
+     * A short line that is not a bullet or a sentence, such as an employer
+     * name on the line above the title and dates.
+     */
+    private static boolean isShortHeader(String line) {
+        return line.length() <= 60 && "-•*·▪●".indexOf(line.charAt(0)) < 0 && !line.endsWith(".");
+    }
+
+    private static void collectListed(String line, Set<String> items) {
+        int colon = line.indexOf(':');
+        String list = colon >= 0 && colon < 40 ? line.substring(colon + 1) : line;
+        for (String item : LIST_SEPARATOR.split(list)) {
+            String cleaned = strip(item.replaceAll("\\(.*?\\)", ""));
+            if (cleaned.length() >= 1 && cleaned.length() <= 30 && cleaned.split("\\s+").length <= 3) {
+                items.add(cleaned);
+            }
+        }
+    }
+
+    /**
+     * Year and month of a matched date. Without a month the middle of the year
+     * is assumed.
+     */
+    private static YearMonth date(String month, String number, String year) {
+        int monthValue = 6;
+        if (month != null) {
+            monthValue = "janfebmaraprmayjunjulaugsepoctnovdec".indexOf(month.substring(0, 3).toLowerCase(Locale.ROOT)) / 3 + 1;
+        } else if (number != null) {
+            monthValue = Math.min(Math.max(Integer.parseInt(number), 1), 12);
+        }
+        return YearMonth.of(Integer.parseInt(year), monthValue);
+    }
+
+    private static int count(Pattern pattern, String text) {
+        int count = 0;
+        Matcher matcher = pattern.matcher(text);
+        while (matcher.find()) {
+            count++;
+        }
+        return count;
+    }
+
+    private static String strip(String text) {
+        return text.replaceAll("^[\\s|,:;·•()\\-–—]+|[\\s|,:;·•()\\-–—]+$", "");
+    }
+
+    private static final class PositionBuilder {
+
+        final YearMonth start;
+        final YearMonth end;
+        final StringBuilder details = new StringBuilder();
+        String title;
+        String employer;
+
+        PositionBuilder(YearMonth start, YearMonth end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
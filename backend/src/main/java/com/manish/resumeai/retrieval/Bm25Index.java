@@ -0,0 +1,82 @@
+package com.manish.resumeai.retrieval;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Okapi BM25 index over the chunks of one resume. Small enough (tens of
+ * chunks) that a linear scan per query is cheaper than any posting structure.
+ */
+public final class Bm25Index {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final List<String> chunks;
+    private final List<Map<String, Integer>> termFrequencies;
+    private final Map<String, Integer> documentFrequencies = new HashMap<>();
+    private final int[] lengths;
+    private final double averageLength;
+
+    public Bm25Index(List<String> chunks) {
+        this.chunks = List.copyOf(chunks);
+        this.termFrequencies = new ArrayList<>(chunks.size());
+        this.lengths = new int[chunks.size()];
+
+        long totalLength = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            List<String> terms = Tokenizer.tokenize(chunks.get(i));
+            Map<String, Integer> frequencies = new HashMap<>();
+            for (String term : terms) {
+                frequencies.merge(term, 1, Integer::sum);
+            }
+            for (String term : frequencies.keySet()) {
+                documentFrequencies.merge(term, 1, Integer::sum);
+            }
+            termFrequencies.add(frequencies);
+            lengths[i] = terms.size();
+            totalLength += terms.size();
+        }
+        this.averageLength = chunks.isEmpty() ? 0 : (double) totalLength / chunks.size();
+    }
+
+    public List<String> getChunks() {
+        return chunks;
+    }
+
+    /**
+     * BM25 score of every chunk against the query, indexed like {@link #getChunks()}.
+     */
+    public double[] score(String query) {
+        double[] scores = new double[chunks.size()];
+        int n = chunks.size();
+        for (String term : Tokenizer.tokenize(query)) {
+            Integer df = documentFrequencies.get(term);
+            if (df == null) {
+                continue;
+            }
+            double idf = Math.log(1 + (n - df + 0.5) / (df + 0.5));
+            for (int i = 0; i < n; i++) {
+                Integer tf = termFrequencies.get(i).get(term);
+                if (tf != null) {
+                    double norm = K1 * (1 - B + B * lengths[i] / averageLength);
+                    scores[i] += idf * tf * (K1 + 1) / (tf + norm);
+                }
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Approximate heap held by the index, for memory accounting.
+     */
+    public int retainedBytes() {
+        int bytes = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            bytes += chunks.get(i).length() + termFrequencies.get(i).size() * 48;
+        }
+        return bytes + documentFrequencies.size() * 48;
+    }
+}
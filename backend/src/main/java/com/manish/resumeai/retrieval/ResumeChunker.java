@@ -0,0 +1,102 @@
+package com.manish.resumeai.retrieval;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Splits resume text into section-aligned chunks. A new section starts at a
+ * line that looks like a heading (a known section name or a short all-caps
+ * line). Sections longer than the chunk size are split at line boundaries,
+ * with the heading repeated so every piece keeps its context; consecutive
+ * short sections are packed together up to the chunk size.
+ */
+public final class ResumeChunker {
+
+    private static final Set<String> SECTION_NAMES = Set.of(
+        "summary", "profile", "objective", "about", "about me", "professional summary",
+        "experience", "work experience", "professional experience", "employment", "employment history",
+        "education", "skills", "technical skills", "core skills", "key skills", "projects",
+        "certifications", "certificates", "awards", "achievements", "publications", "languages",
+        "interests", "volunteering", "leadership", "training", "courses"
+    );
+
+    private ResumeChunker() {
+    }
+
+    public static List<String> chunk(String text, int chunkSize) {
+        List<String> chunks = new ArrayList<>();
+        StringBuilder packed = new StringBuilder();
+        for (String piece : sectionPieces(text, chunkSize)) {
+            if (packed.length() > 0 && packed.length() + piece.length() > chunkSize) {
+                flush(chunks, packed);
+            }
+            packed.append(piece);
+        }
+        flush(chunks, packed);
+        return chunks;
+    }
+
+    /**
+     * Sections in order, each split into pieces of at most the chunk size. A
+     * continued piece may go over by its repeated heading, and a single
+     * over-long line is kept whole.
+     */
+    private static List<String> sectionPieces(String text, int chunkSize) {
+        List<String> pieces = new ArrayList<>();
+        String heading = null;
+        StringBuilder current = new StringBuilder();
+
+        for (String rawLine : text.split("\\R")) {
+            String line = rawLine.strip();
+            if (line.isEmpty()) {
+                continue;
+            }
+            if (isHeading(line)) {
+                flush(pieces, current);
+                heading = line;
+                current.append(line).append('\n');
+                continue;
+            }
+            if (current.length() > 0 && current.length() + line.length() + 1 > chunkSize) {
+                flush(pieces, current);
+                if (heading != null) {
+                    current.append(heading).append(" (continued)\n");
+                }
+            }
+            current.append(line).append('\n');
+        }
+        flush(pieces, current);
+        return pieces;
+    }
+
+    /**
+     * Whether the line looks like a section heading: a known section name or
+     * a short all-caps line.
+     */
+    public static boolean isHeading(String line) {
+        if (line.length() > 40) {
+            return false;
+        }
+        String normalized = line.toLowerCase().replaceAll("[^a-z ]", "").strip();
+        if (SECTION_NAMES.contains(normalized)) {
+            return true;
+        }
+        boolean hasLetter = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (Character.isLowerCase(c)) {
+                return false;
+            }
+            hasLetter |= Character.isLetter(c);
+        }
+        return hasLetter && line.length() >= 4;
+    }
+
+    private static void flush(List<String> out, StringBuilder current) {
+        if (current.length() > 0) {
+            out.add(current.toString());
+            current.setLength(0);
+        }
+    }
+}
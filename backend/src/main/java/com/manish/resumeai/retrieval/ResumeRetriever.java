@@ -0,0 +1,139 @@
+package com.manish.resumeai.retrieval;
+
+import com.manish.resumeai.session.ResumeDocument;
+import com.manish.resumeai.util.TokenEstimator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chooses the part of a resume that goes into a question's prompt. With
+ * retrieval enabled, long resumes are split into section chunks and indexed
+ * once per document; each question then carries only the opening chunk
+ * (name and summary) plus the top-k chunks by BM25 score against the question
+ * and its context. Questions that match no chunk, such as "summarize my
+ * resume", still get the full text.
+ */
+@Slf4j
+@Component
+public class ResumeRetriever {
+
+    private static final String SEPARATOR = "\n...\n";
+
+    private final boolean enabled;
+    private final int topK;
+    private final int chunkSize;
+    private final int minLength;
+
+    private final DistributionSummary fullTokens;
+    private final DistributionSummary sentTokens;
+    private final Counter savedTokens;
+
+    public ResumeRetriever(@Value("${resume.retrieval.enabled:false}") boolean enabled,
+                           @Value("${resume.retrieval.top-k:4}") int topK,
+                           @Value("${resume.retrieval.chunk-size:800}") int chunkSize,
+                           @Value("${resume.retrieval.min-length:3000}") int minLength,
+                           MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.topK = topK;
+        this.chunkSize = chunkSize;
+        this.minLength = minLength;
+
+        this.fullTokens = DistributionSummary.builder("resume.retrieval.prompt.tokens")
+                .description("Estimated resume tokens per question prompt")
+                .tag("mode", "full")
+                .register(meterRegistry);
+        this.sentTokens = DistributionSummary.builder("resume.retrieval.prompt.tokens")
+                .description("Estimated resume tokens per question prompt")
+                .tag("mode", "retrieval")
+                .register(meterRegistry);
+        this.savedTokens = Counter.builder("resume.retrieval.tokens.saved")
+                .description("Estimated prompt tokens not sent thanks to retrieval")
+                .register(meterRegistry);
+
+        log.info("Resume retrieval {}: top {} chunks of {} chars for resumes over {} chars",
+                enabled ? "enabled" : "disabled", topK, chunkSize, minLength);
+    }
+
+    /**
+     * Build the document's chunk index if retrieval applies to it. Cheap to call
+     * again for a document that is already indexed.
+     */
+    public void index(ResumeDocument document) {
+        if (!enabled || document.getLength() < minLength || document.getIndex() != null) {
+            return;
+        }
+        List<String> chunks = ResumeChunker.chunk(document.getText(), chunkSize);
+        document.setIndex(new Bm25Index(chunks));
+        log.info("Indexed document {} into {} chunks", document.getContentHash(), chunks.size());
+    }
+
+    /**
+     * The resume excerpt relevant to the question, or null if the full text
+     * should be sent instead.
+     */
+    public String relevantText(ResumeDocument document, String question, String additionalContext) {
+        if (!enabled) {
+            return null;
+        }
+        // Documents reloaded from a persistent session store arrive without their index
+        index(document);
+        Bm25Index index = document.getIndex();
+        if (index == null) {
+            return null;
+        }
+
+        String query = additionalContext == null ? question : question + "\n" + additionalContext;
+        List<String> chunks = index.getChunks();
+        double[] scores = index.score(query);
+        boolean[] selected = new boolean[chunks.size()];
+        selected[0] = true;
+
+        int picked = 0;
+        for (int n = 0; n < topK; n++) {
+            int best = -1;
+            for (int i = 1; i < scores.length; i++) {
+                if (!selected[i] && scores[i] > 0 && (best < 0 || scores[i] > scores[best])) {
+                    best = i;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            selected[best] = true;
+            picked++;
+        }
+        if (picked == 0) {
+            log.debug("No chunk matched the question, sending the full resume");
+            report(document.getLength(), document.getLength());
+            return null;
+        }
+
+        List<String> parts = new ArrayList<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            if (selected[i]) {
+                parts.add(chunks.get(i).strip());
+            }
+        }
+        String excerpt = String.join(SEPARATOR, parts);
+        report(document.getLength(), excerpt.length());
+        log.info("Retrieval sent {} of {} chunks: ~{} of ~{} resume tokens",
+                parts.size(), chunks.size(),
+                TokenEstimator.tokens(excerpt.length()), TokenEstimator.tokens(document.getLength()));
+        return excerpt;
+    }
+
+    private void report(int fullChars, int sentChars) {
+        int full = TokenEstimator.tokens(fullChars);
+        int sent = TokenEstimator.tokens(sentChars);
+        fullTokens.record(full);
+        sentTokens.record(sent);
+        savedTokens.increment(Math.max(full - sent, 0));
+    }
+}
@@ -0,0 +1,58 @@
+package com.manish.resumeai.retrieval;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Splits text into lower-cased search terms. Keeps the symbols that matter in
+ * technology names ("c++", "c#", ".net", "node.js") and drops common English
+ * stop words.
+ */
+public final class Tokenizer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "are", "as", "at", "be", "by", "do", "for", "from", "has", "have", "how",
+        "i", "in", "is", "it", "me", "my", "of", "on", "or", "our", "that", "the", "this", "to",
+        "was", "we", "what", "which", "who", "why", "will", "with", "you", "your"
+    );
+
+    private Tokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? text.charAt(i) : ' ';
+            if (isTermChar(c, text, i)) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                addTerm(terms, text.substring(start, i));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private static boolean isTermChar(char c, String text, int i) {
+        if (Character.isLetterOrDigit(c) || c == '+' || c == '#') {
+            return true;
+        }
+        // Dots inside or leading a word: "node.js", ".net"
+        return c == '.' && i + 1 < text.length() && Character.isLetter(text.charAt(i + 1));
+    }
+
+    private static void addTerm(List<String> terms, String raw) {
+        String term = raw.toLowerCase();
+        while (term.endsWith(".")) {
+            term = term.substring(0, term.length() - 1);
+        }
+        if (!term.isEmpty() && !STOP_WORDS.contains(term)) {
+            terms.add(term);
+        }
+    }
+}
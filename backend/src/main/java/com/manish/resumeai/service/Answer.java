@@ -0,0 +1,13 @@
+package com.manish.resumeai.service;
+
+import com.manish.resumeai.util.TokenEstimator;
+
+/**
+ * An answer together with the size of the prompt that produced it.
+ */
+public record Answer(String text, int promptChars) {
+
+    public int promptTokens() {
+        return TokenEstimator.tokens(promptChars);
+    }
+}
@@ -0,0 +1,291 @@
+package com.manish.resumeai.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.manish.resumeai.corpus.CorpusIndex;
+import com.manish.resumeai.dto.BatchJobResponse;
+import com.manish.resumeai.session.ResumeDocument;
+import com.manish.resumeai.util.ContentHash;
+import com.manish.resumeai.util.ResumeParser;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Ingests many resumes at once as a pipeline: files (or ZIP entries) are
+ * staged and hashed, identical files are collapsed, text extraction runs in
+ * parallel on the parse workers, and summaries go through a separately
+ * limited LLM stage. Each resume gets its own session and, when the corpus
+ * is enabled, joins the candidate corpus for ranking. Clients poll the
+ * returned job for progress.
+ */
+@Slf4j
+@Service
+public class BatchIngestService {
+
+    private final ResumeParser resumeParser;
+    private final ResumeIngestService ingestService;
+    private final ResumeAIService aiService;
+    private final CorpusIndex corpusIndex;
+    private final Cache<String, BatchJob> jobs;
+
+    private final int maxFiles;
+    private final long maxEntryBytes;
+    private final int parseConcurrency;
+    private final int llmConcurrency;
+    private final Duration parseWait;
+
+    public BatchIngestService(
+            ResumeParser resumeParser, ResumeIngestService ingestService, ResumeAIService aiService,
+            CorpusIndex corpusIndex,
+            @Value("${resume.batch.max-files:500}") int maxFiles,
+            @Value("${resume.batch.max-entry-size:10MB}") DataSize maxEntrySize,
+            @Value("${resume.batch.parse-concurrency:0}") int parseConcurrency,
+            @Value("${resume.batch.llm-concurrency:4}") int llmConcurrency,
+            @Value("${resume.batch.retention:1h}") Duration retention,
+            @Value("${resume.batch.parse-wait:${resume.parse.timeout:30s}}") Duration parseWait) {
+        this.resumeParser = resumeParser;
+        this.ingestService = ingestService;
+        this.aiService = aiService;
+        this.corpusIndex = corpusIndex;
+        this.maxFiles = maxFiles;
+        this.maxEntryBytes = maxEntrySize.toBytes();
+        this.parseConcurrency = parseConcurrency > 0 ? parseConcurrency : Runtime.getRuntime().availableProcessors();
+        this.llmConcurrency = llmConcurrency;
+        this.parseWait = parseWait;
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterWrite(retention)
+                .build();
+    }
+
+    /**
+     * Stage the files and start processing them in the background.
+     */
+    public BatchJob submit(List<MultipartFile> files) throws IOException {
+        Path dir = Files.createTempDirectory("resume-batch-");
+        List<BatchJob.Item> items;
+        try {
+            items = stage(files, dir);
+        } catch (IOException | RuntimeException e) {
+            FileUtils.deleteQuietly(dir.toFile());
+            throw e;
+        }
+
+        BatchJob job = new BatchJob(UUID.randomUUID().toString(), items);
+        jobs.put(job.getId(), job);
+        log.info("Batch {} accepted with {} files", job.getId(), items.size());
+
+        run(job, dir);
+        return job;
+    }
+
+    /**
+     * The job, or null if it is unknown or its results have expired.
+     */
+    public BatchJob getJob(String jobId) {
+        return jobs.getIfPresent(jobId);
+    }
+
+    private List<BatchJob.Item> stage(List<MultipartFile> files, Path dir) throws IOException {
+        List<BatchJob.Item> items = new ArrayList<>();
+        for (MultipartFile file : files) {
+            String filename = file.getOriginalFilename();
+            if (filename != null && filename.toLowerCase().endsWith(".zip")) {
+                stageArchive(file, filename, dir, items);
+            } else if (resumeParser.isValidResumeFile(file)) {
+                Path path = Files.createTempFile(dir, "file-", ".upload");
+                file.transferTo(path.toFile());
+                items.add(new BatchJob.Item(filename, path, hash(path)));
+                checkFileCount(items);
+            } else {
+                items.add(BatchJob.Item.rejected(filename == null ? "(unnamed)" : filename, "Unsupported file format"));
+                checkFileCount(items);
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Stage the entries of a ZIP upload. An upload that is not a readable
+     * archive, or holds no entries at all, is rejected as invalid input.
+     */
+    private void stageArchive(MultipartFile file, String filename, Path dir, List<BatchJob.Item> items)
+            throws IOException {
+        try (ZipInputStream zip = new ZipInputStream(file.getInputStream())) {
+            int entries = 0;
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                entries++;
+                if (!entry.isDirectory() && !entry.getName().startsWith("__MACOSX/")) {
+                    items.add(stageEntry(zip, entry.getName(), dir));
+                    checkFileCount(items);
+                }
+            }
+            // ZipInputStream reports a file that does not start like an archive as having no entries
+            if (entries == 0) {
+                throw new IllegalArgumentException(filename + " is empty or not a ZIP archive");
+            }
+        } catch (ZipException | EOFException e) {
+            throw new IllegalArgumentException(filename + " is not a valid ZIP archive");
+        }
+    }
+
+    private BatchJob.Item stageEntry(InputStream zip, String name, Path dir) throws IOException {
+        if (!resumeParser.isSupportedFormat(name)) {
+            return BatchJob.Item.rejected(name, "Unsupported file format");
+        }
+
+        Path path = Files.createTempFile(dir, "entry-", ".upload");
+        byte[] buffer = new byte[8192];
+        long total = 0;
+        try (OutputStream out = Files.newOutputStream(path)) {
+            int read;
+            while ((read = zip.read(buffer)) != -1) {
+                total += read;
+                if (total > maxEntryBytes) {
+                    Files.delete(path);
+                    return BatchJob.Item.rejected(name, "File exceeds the maximum size");
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+        return new BatchJob.Item(name, path, hash(path));
+    }
+
+    private void checkFileCount(List<BatchJob.Item> items) {
+        if (items.size() > maxFiles) {
+            throw new IllegalArgumentException("A batch may contain at most " + maxFiles + " files");
+        }
+    }
+
+    private static String hash(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return ContentHash.of(in);
+        }
+    }
+
+    private void run(BatchJob job, Path dir) {
+        // Files with identical bytes are parsed once and share one document
+        Map<String, List<BatchJob.Item>> byHash = new LinkedHashMap<>();
+        for (BatchJob.Item item : job.getItems()) {
+            if (item.getContentHash() != null) {
+                byHash.computeIfAbsent(item.getContentHash(), hash -> new ArrayList<>()).add(item);
+            } else {
+                job.failed(item, item.getError());
+            }
+        }
+
+        Flux.fromIterable(byHash.values())
+                .flatMap(group -> parse(job, group, dir), parseConcurrency)
+                .flatMap(parsed -> summarize(job, parsed), llmConcurrency)
+                .doFinally(signal -> {
+                    job.finish();
+                    // Left in place while a parse that timed out still reads from it; its worker removes it
+                    deleteIfEmpty(dir);
+                    BatchJobResponse result = job.toResponse();
+                    log.info("Batch {} finished: {} completed, {} failed in {} ms ({} resumes/s)",
+                            job.getId(), result.getCompleted(), result.getFailed(),
+                            result.getElapsedMillis(), String.format("%.1f", result.getResumesPerSecond()));
+                })
+                .subscribe(
+                    summary -> { },
+                    e -> log.error("Batch {} stopped unexpectedly", job.getId(), e)
+                );
+    }
+
+    private Mono<Parsed> parse(BatchJob job, List<BatchJob.Item> group, Path dir) {
+        BatchJob.Item first = group.get(0);
+
+        return Mono.defer(() -> {
+                    // Batch work waits for room on the shared parse queue, for up to parseWait, instead of failing
+                    long deadline = System.nanoTime() + parseWait.toNanos();
+                    return ingestService.ingest(first.getPath(), first.getFilename(), first.getContentHash(),
+                                    () -> deleteStaged(first.getPath(), dir))
+                            .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofMillis(100))
+                                    .maxBackoff(Duration.ofSeconds(2))
+                                    .filter(e -> e instanceof ParseCapacityExceededException
+                                            && System.nanoTime() < deadline));
+                })
+                .map(document -> {
+                    for (int i = 0; i < group.size(); i++) {
+                        job.parsed(group.get(i), i > 0);
+                    }
+                    return new Parsed(group, document);
+                })
+                .switchIfEmpty(Mono.fromRunnable(() ->
+                    group.forEach(item -> job.failed(item, "Could not extract text from the file"))
+                ))
+                .onErrorResume(e -> {
+                    if (e instanceof ParseCapacityExceededException) {
+                        // Never parsed, so the file is still ours
+                        deleteStaged(first.getPath(), dir);
+                    }
+                    log.warn("Batch {}: failed to parse {}", job.getId(), first.getFilename(), e);
+                    group.forEach(item -> job.failed(item, "Error processing resume: " + e.getMessage()));
+                    return Mono.empty();
+                })
+                // Copies of the first file are never read
+                .doFinally(signal -> group.stream().skip(1).forEach(item -> deleteStaged(item.getPath(), dir)));
+    }
+
+    private static void deleteStaged(Path path, Path dir) {
+        FileUtils.deleteQuietly(path.toFile());
+        deleteIfEmpty(dir);
+    }
+
+    private static void deleteIfEmpty(Path dir) {
+        try {
+            Files.deleteIfExists(dir);
+        } catch (DirectoryNotEmptyException e) {
+            // Other files are still being processed
+        } catch (IOException e) {
+            log.warn("Could not delete batch directory {}: {}", dir, e.toString());
+        }
+    }
+
+    private Flux<String> summarize(BatchJob job, Parsed parsed) {
+        ResumeDocument document = parsed.document();
+
+        // Sequential within a group, so only the first copy asks the model for a summary
+        return Flux.fromIterable(parsed.items())
+                .concatMap(item -> Mono.defer(() -> {
+                            String sessionId = UUID.randomUUID().toString();
+                            Mono<String> stored = aiService.storeResumeAsync(sessionId, document);
+                            corpusIndex.add(document, item.getFilename(), sessionId);
+                            return stored
+                                    .doOnNext(summary -> job.completed(item, sessionId, document.getLength(), summary));
+                        })
+                        // One resume failing to store fails only that item, not the rest of the batch
+                        .onErrorResume(e -> {
+                            log.warn("Batch {}: failed to store {}", job.getId(), item.getFilename(), e);
+                            job.failed(item, "Error processing resume: " + e.getMessage());
+                            return Mono.empty();
+                        }));
+    }
+
+    private record Parsed(List<BatchJob.Item> items, ResumeDocument document) {
+    }
+}
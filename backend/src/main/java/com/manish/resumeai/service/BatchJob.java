@@ -0,0 +1,149 @@
+package com.manish.resumeai.service;
+
+import com.manish.resumeai.dto.BatchItemResult;
+import com.manish.resumeai.dto.BatchJobResponse;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progress of one batch ingestion. Items are updated by the pipeline stages
+ * while clients poll, so all mutable state is volatile or atomic.
+ */
+public class BatchJob {
+
+    public enum ItemStatus {
+        QUEUED, PARSED, DONE, FAILED
+    }
+
+    /**
+     * One resume in the batch. {@code path} and {@code contentHash} are null
+     * for files that were rejected while staging.
+     */
+    public static class Item {
+
+        private final String filename;
+        private final Path path;
+        private final String contentHash;
+
+        private volatile ItemStatus status = ItemStatus.QUEUED;
+        private volatile boolean duplicate;
+        private volatile String sessionId;
+        private volatile int resumeLength;
+        private volatile String summary;
+        private volatile String error;
+
+        Item(String filename, Path path, String contentHash) {
+            this.filename = filename;
+            this.path = path;
+            this.contentHash = contentHash;
+        }
+
+        /**
+         * Item for a file that was turned away before parsing.
+         */
+        static Item rejected(String filename, String error) {
+            Item item = new Item(filename, null, null);
+            item.error = error;
+            return item;
+        }
+
+        public String getFilename() {
+            return filename;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public String getContentHash() {
+            return contentHash;
+        }
+
+        String getError() {
+            return error;
+        }
+
+        BatchItemResult toResult() {
+            return BatchItemResult.builder()
+                    .filename(filename)
+                    .status(status.name())
+                    .sessionId(sessionId)
+                    .resumeLength(resumeLength)
+                    .summary(summary)
+                    .duplicate(duplicate)
+                    .error(error)
+                    .build();
+        }
+    }
+
+    private final String id;
+    private final List<Item> items;
+    private final long startedAt = System.nanoTime();
+
+    private final AtomicInteger parsed = new AtomicInteger();
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private volatile long finishedAt;
+
+    BatchJob(String id, List<Item> items) {
+        this.id = id;
+        this.items = items;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    List<Item> getItems() {
+        return items;
+    }
+
+    void parsed(Item item, boolean duplicate) {
+        item.duplicate = duplicate;
+        item.status = ItemStatus.PARSED;
+        parsed.incrementAndGet();
+    }
+
+    void completed(Item item, String sessionId, int resumeLength, String summary) {
+        item.sessionId = sessionId;
+        item.resumeLength = resumeLength;
+        item.summary = summary;
+        item.status = ItemStatus.DONE;
+        completed.incrementAndGet();
+    }
+
+    void failed(Item item, String error) {
+        item.error = error;
+        item.status = ItemStatus.FAILED;
+        failed.incrementAndGet();
+    }
+
+    void finish() {
+        finishedAt = System.nanoTime();
+    }
+
+    public boolean isFinished() {
+        return finishedAt != 0;
+    }
+
+    public BatchJobResponse toResponse() {
+        long end = isFinished() ? finishedAt : System.nanoTime();
+        long elapsedMillis = (end - startedAt) / 1_000_000;
+        int done = completed.get();
+
+        return BatchJobResponse.builder()
+                .jobId(id)
+                .status(isFinished() ? "COMPLETED" : "RUNNING")
+                .success(true)
+                .total(items.size())
+                .parsed(parsed.get())
+                .completed(done)
+                .failed(failed.get())
+                .elapsedMillis(elapsedMillis)
+                .resumesPerSecond(elapsedMillis == 0 ? 0 : done * 1000.0 / elapsedMillis)
+                .results(items.stream().map(Item::toResult).toList())
+                .build();
+    }
+}
@@ -0,0 +1,211 @@
+package com.manish.resumeai.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manish.resumeai.cache.ResumeDocumentCache;
+import com.manish.resumeai.corpus.CorpusIndex;
+import com.manish.resumeai.dto.RankRequest;
+import com.manish.resumeai.dto.RankResponse;
+import com.manish.resumeai.dto.RankedCandidate;
+import com.manish.resumeai.llm.GeminiClient;
+import com.manish.resumeai.llm.GeminiRequest;
+import com.manish.resumeai.llm.GeminiResponseParser;
+import com.manish.resumeai.llm.ResilientLlmExecutor;
+import com.manish.resumeai.session.ResumeDocument;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ranks the uploaded resumes against a job description. The whole corpus is
+ * scored locally by the {@link CorpusIndex}; on request the best few are then
+ * re-ranked by the model in one structured-output call. If that call fails
+ * the local ranking is returned as is.
+ */
+@Slf4j
+@Service
+public class CandidateRanker {
+
+    private static final double TEMPERATURE = 0.2;
+    private static final int MAX_OUTPUT_TOKENS = 2048;
+
+    private static final Map<String, Object> RESPONSE_SCHEMA = Map.of(
+        "type", "ARRAY",
+        "items", Map.of(
+            "type", "OBJECT",
+            "properties", Map.of(
+                "id", Map.of("type", "INTEGER"),
+                "score", Map.of("type", "INTEGER"),
+                "reason", Map.of("type", "STRING")
+            ),
+            "required", List.of("id", "score", "reason")
+        )
+    );
+
+    private final CorpusIndex corpusIndex;
+    private final ResumeDocumentCache documentCache;
+    private final GeminiClient geminiClient;
+    private final ResilientLlmExecutor llmExecutor;
+    private final GeminiResponseParser responseParser;
+    private final ObjectMapper objectMapper;
+
+    private final int defaultLimit;
+    private final int maxLimit;
+    private final int defaultRerankTopK;
+    private final int maxRerankTopK;
+    private final int rerankChars;
+
+    public CandidateRanker(CorpusIndex corpusIndex, ResumeDocumentCache documentCache, GeminiClient geminiClient,
+                           ResilientLlmExecutor llmExecutor, GeminiResponseParser responseParser,
+                           ObjectMapper objectMapper,
+                           @Value("${resume.corpus.default-limit:20}") int defaultLimit,
+                           @Value("${resume.corpus.max-limit:200}") int maxLimit,
+                           @Value("${resume.corpus.rerank.top-k:10}") int defaultRerankTopK,
+                           @Value("${resume.corpus.rerank.max-top-k:25}") int maxRerankTopK,
+                           @Value("${resume.corpus.rerank.resume-chars:2500}") int rerankChars) {
+        this.corpusIndex = corpusIndex;
+        this.documentCache = documentCache;
+        this.geminiClient = geminiClient;
+        this.llmExecutor = llmExecutor;
+        this.responseParser = responseParser;
+        this.objectMapper = objectMapper;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+        this.defaultRerankTopK = defaultRerankTopK;
+        this.maxRerankTopK = maxRerankTopK;
+        this.rerankChars = rerankChars;
+    }
+
+    public boolean isEnabled() {
+        return corpusIndex.isEnabled();
+    }
+
+    public Mono<RankResponse> rank(RankRequest request) {
+        int limit = clamp(request.getLimit(), defaultLimit, maxLimit);
+        String jobDescription = request.getJobDescription();
+
+        long startedAt = System.nanoTime();
+        List<CorpusIndex.Hit> hits = corpusIndex.search(jobDescription, limit);
+        long searchMillis = (System.nanoTime() - startedAt) / 1_000_000;
+        log.info("Ranked {} resumes against a job description in {} ms", corpusIndex.size(), searchMillis);
+
+        List<RankedCandidate> candidates = new ArrayList<>(hits.size());
+        for (CorpusIndex.Hit hit : hits) {
+            candidates.add(RankedCandidate.builder()
+                    .documentId(hit.documentId())
+                    .filename(hit.filename())
+                    .headline(hit.headline())
+                    .score(hit.score())
+                    .matchedSkills(hit.matchedSkills())
+                    .missingSkills(hit.missingSkills())
+                    .build());
+        }
+        RankResponse response = RankResponse.builder()
+                .success(true)
+                .corpusSize(corpusIndex.size())
+                .searchMillis(searchMillis)
+                .candidates(candidates)
+                .build();
+
+        if (!request.isRerank() || candidates.size() < 2) {
+            return Mono.just(numbered(response));
+        }
+        int topK = Math.min(clamp(request.getRerankTopK(), defaultRerankTopK, maxRerankTopK), candidates.size());
+        return rerank(jobDescription, candidates.subList(0, topK))
+                .map(reranked -> {
+                    List<RankedCandidate> all = new ArrayList<>(reranked);
+                    all.addAll(candidates.subList(topK, candidates.size()));
+                    response.setCandidates(all);
+                    response.setReranked(true);
+                    return numbered(response);
+                })
+                .onErrorResume(e -> {
+                    log.warn("Re-ranking failed, returning the local ranking: {}", e.toString());
+                    response.setRerankError("Re-ranking is unavailable right now; showing the local ranking.");
+                    return Mono.just(numbered(response));
+                });
+    }
+
+    /**
+     * The candidates ordered by the model's score. Candidates the model left
+     * out keep their local order after the scored ones.
+     */
+    private Mono<List<RankedCandidate>> rerank(String jobDescription, List<RankedCandidate> candidates) {
+        GeminiRequest request = GeminiRequest.of(buildPrompt(jobDescription, candidates), TEMPERATURE, MAX_OUTPUT_TOKENS)
+                .withJsonOutput(RESPONSE_SCHEMA);
+
+        return llmExecutor.execute(() -> geminiClient.generate(request))
+                .map(response -> applyScores(candidates, response))
+                .switchIfEmpty(Mono.error(new IllegalStateException("Empty re-ranking response")));
+    }
+
+    private String buildPrompt(String jobDescription, List<RankedCandidate> candidates) {
+        StringBuilder prompt = new StringBuilder();
+        prompt.append("You are an experienced technical recruiter. Rate how well each resume below fits the job ");
+        prompt.append("description from 0 (no fit) to 100 (excellent fit), judging skills, seniority and domain. ");
+        prompt.append("Respond with a JSON array holding one object per resume, with the resume's number as \"id\", ");
+        prompt.append("the rating as \"score\" and a one-sentence justification as \"reason\".\n\n");
+        prompt.append("=== Job description ===\n").append(jobDescription).append("\n\n");
+
+        for (int i = 0; i < candidates.size(); i++) {
+            RankedCandidate candidate = candidates.get(i);
+            ResumeDocument document = documentCache.get(candidate.getDocumentId());
+            String text = document != null ? document.getText() : candidate.getHeadline();
+            prompt.append("=== Resume ").append(i + 1).append(" ===\n");
+            prompt.append(text, 0, Math.min(rerankChars, text.length()));
+            prompt.append("\n\n");
+        }
+        return prompt.toString();
+    }
+
+    private List<RankedCandidate> applyScores(List<RankedCandidate> candidates, String response) {
+        try {
+            String json = responseParser.extractText(response);
+            JsonNode items = json != null ? objectMapper.readTree(json) : null;
+            if (items == null || !items.isArray()) {
+                throw new IllegalStateException("Re-ranking response is not a JSON array");
+            }
+            int scored = 0;
+            for (JsonNode item : items) {
+                int id = item.path("id").asInt(0);
+                if (id >= 1 && id <= candidates.size() && item.path("score").canConvertToInt()) {
+                    RankedCandidate candidate = candidates.get(id - 1);
+                    candidate.setLlmScore(Math.max(0, Math.min(100, item.path("score").asInt())));
+                    candidate.setLlmReason(item.path("reason").asText(null));
+                    scored++;
+                }
+            }
+            if (scored == 0) {
+                throw new IllegalStateException("Re-ranking response scored no resumes");
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not parse re-ranking response", e);
+        }
+
+        List<RankedCandidate> sorted = new ArrayList<>(candidates);
+        // Stable sort: unscored candidates and ties keep their local order
+        sorted.sort(Comparator.comparing((RankedCandidate candidate) ->
+                candidate.getLlmScore() == null ? -1 : candidate.getLlmScore()).reversed());
+        return sorted;
+    }
+
+    private static RankResponse numbered(RankResponse response) {
+        List<RankedCandidate> candidates = response.getCandidates();
+        for (int i = 0; i < candidates.size(); i++) {
+            candidates.get(i).setRank(i + 1);
+        }
+        return response;
+    }
+
+    private static int clamp(Integer requested, int defaultValue, int max) {
+        int value = requested != null && requested > 0 ? requested : defaultValue;
+        return Math.min(value, max);
+    }
+}
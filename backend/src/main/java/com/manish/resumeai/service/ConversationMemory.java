@@ -0,0 +1,154 @@
+package com.manish.resumeai.service;
+
+import com.manish.resumeai.llm.GeminiClient;
+import com.manish.resumeai.llm.GeminiRequest;
+import com.manish.resumeai.llm.GeminiResponseParser;
+import com.manish.resumeai.llm.ResilientLlmExecutor;
+import com.manish.resumeai.session.Conversation;
+import com.manish.resumeai.session.ResumeSession;
+import com.manish.resumeai.session.SessionStore;
+import com.manish.resumeai.util.TokenEstimator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Keeps each session's conversation within a token budget. Turns past the
+ * budget are folded into the session's rolling summary in the background:
+ * each compaction sends only the previous summary and the turns being
+ * folded, so its cost does not grow with the length of the conversation.
+ */
+@Slf4j
+@Component
+public class ConversationMemory {
+
+    private static final double TEMPERATURE = 0.2;
+
+    private final GeminiClient geminiClient;
+    private final ResilientLlmExecutor llmExecutor;
+    private final GeminiResponseParser responseParser;
+    private final SessionStore sessionStore;
+
+    private final boolean enabled;
+    private final int historyChars;
+    private final int summaryTokens;
+
+    public ConversationMemory(GeminiClient geminiClient, ResilientLlmExecutor llmExecutor,
+                              GeminiResponseParser responseParser, SessionStore sessionStore,
+                              @Value("${conversation.enabled:true}") boolean enabled,
+                              @Value("${conversation.history-tokens:1500}") int historyTokens,
+                              @Value("${conversation.summary-tokens:300}") int summaryTokens) {
+        this.geminiClient = geminiClient;
+        this.llmExecutor = llmExecutor;
+        this.responseParser = responseParser;
+        this.sessionStore = sessionStore;
+        this.enabled = enabled;
+        this.historyChars = TokenEstimator.chars(historyTokens);
+        this.summaryTokens = summaryTokens;
+        log.info("Conversation memory {}: {} tokens of recent turns, {} token summary",
+                enabled ? "enabled" : "disabled", historyTokens, summaryTokens);
+    }
+
+    /**
+     * History to include with the session's next question.
+     */
+    public Conversation.Snapshot history(ResumeSession session) {
+        return enabled ? session.getConversation().snapshot() : new Conversation.Snapshot(null, List.of());
+    }
+
+    /**
+     * Record an answered question and, if the recent turns are over budget,
+     * start folding the oldest into the summary. The turn is part of the
+     * history straight away; the returned Mono saves the session, off the
+     * subscribing thread if the store writes to disk.
+     */
+    public Mono<Void> remember(String sessionId, ResumeSession session, String question, String answer) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        Conversation conversation = session.getConversation();
+        List<Conversation.Turn> oldest = conversation.append(new Conversation.Turn(question, answer), historyChars);
+
+        if (!oldest.isEmpty()) {
+            compact(sessionId, session, oldest);
+        }
+        return save(sessionId, session);
+    }
+
+    private void compact(String sessionId, ResumeSession session, List<Conversation.Turn> oldest) {
+        Conversation conversation = session.getConversation();
+        String prompt = buildCompactionPrompt(conversation.snapshot().summary(), oldest);
+        int maxChars = TokenEstimator.chars(summaryTokens);
+
+        llmExecutor.execute(() -> geminiClient.generate(
+                        GeminiRequest.of(prompt, TEMPERATURE, summaryTokens * 2)))
+                .mapNotNull(this::extractText)
+                .switchIfEmpty(Mono.error(new IllegalStateException("No summary in compaction response")))
+                .flatMap(summary -> {
+                    conversation.compacted(summary.length() > maxChars ? summary.substring(0, maxChars) : summary);
+                    return save(sessionId, session).thenReturn(summary);
+                })
+                .subscribe(
+                    summary -> log.debug("Folded {} turns into the conversation summary of session {}",
+                            oldest.size(), sessionId),
+                    e -> {
+                        log.warn("Conversation compaction failed for session {}: {}", sessionId, e.toString());
+                        conversation.compactionFailed(historyChars * 2);
+                    }
+                );
+    }
+
+    /**
+     * The summary text, or null if the response has none.
+     */
+    private String extractText(String response) {
+        try {
+            String text = responseParser.extractText(response);
+            return text == null || text.isBlank() ? null : text.strip();
+        } catch (IOException e) {
+            log.warn("Could not parse compaction response: {}", e.toString());
+            return null;
+        }
+    }
+
+    private String buildCompactionPrompt(String summary, List<Conversation.Turn> turns) {
+        StringBuilder prompt = new StringBuilder();
+        prompt.append("You maintain a running summary of a conversation between a job seeker and a career coach ");
+        prompt.append("about the job seeker's resume. Update the summary with the new exchanges below. ");
+        prompt.append("Keep facts, decisions and open questions the coach will need later; ");
+        prompt.append("drop pleasantries. Use at most ").append(summaryTokens * 3 / 4).append(" words.\n\n");
+
+        if (summary != null) {
+            prompt.append("Current summary:\n").append(summary).append("\n\n");
+        }
+        prompt.append("New exchanges:\n");
+        for (Conversation.Turn turn : turns) {
+            prompt.append("User: ").append(turn.question()).append('\n');
+            prompt.append("Coach: ").append(turn.answer()).append("\n\n");
+        }
+        prompt.append("Updated summary:");
+        return prompt.toString();
+    }
+
+    /**
+     * Put the session back so the store re-weighs (or persists) it, unless it
+     * was removed in the meantime. A failed write is logged; the conversation
+     * stays in memory either way.
+     */
+    private Mono<Void> save(String sessionId, ResumeSession session) {
+        Mono<Void> save = Mono.<Void>fromRunnable(() -> {
+            if (sessionStore.contains(sessionId)) {
+                sessionStore.put(sessionId, session);
+            }
+        }).onErrorResume(e -> {
+            log.warn("Could not save the conversation of session {}: {}", sessionId, e.toString());
+            return Mono.empty();
+        });
+        return sessionStore.isBlocking() ? save.subscribeOn(Schedulers.boundedElastic()) : save;
+    }
+}
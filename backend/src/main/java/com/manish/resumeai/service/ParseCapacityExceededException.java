@@ -0,0 +1,14 @@
+package com.manish.resumeai.service;
+
+/**
+ * Thrown when a resume cannot be parsed for lack of capacity: every parse
+ * worker is busy and the queue is full, or it waited too long for a worker.
+ */
+public class ParseCapacityExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ParseCapacityExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,181 @@
+package com.manish.resumeai.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dedicated worker pool for CPU-heavy document parsing, kept apart from the
+ * servlet threads so upload bursts cannot starve query traffic. The queue is
+ * bounded: when it is full, submissions fail immediately rather than waiting,
+ * and a submission that waits too long for a worker is abandoned. Both count
+ * as lack of capacity, not as a problem with the file. The parse timeout
+ * starts when a worker picks the task up.
+ * The submitting request's observation is carried over to the worker, so
+ * parse spans join the request's trace.
+ */
+@Slf4j
+@Component
+public class ParseExecutor implements DisposableBean {
+
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final Duration queueTimeout;
+    private final ObservationRegistry observationRegistry;
+
+    private final Timer waitTimer;
+    private final Timer parseTimer;
+    private final Counter rejected;
+    private final Counter queueTimedOut;
+    private final Counter timedOut;
+
+    public ParseExecutor(
+            @Value("${resume.parse.threads:0}") int threads,
+            @Value("${resume.parse.queue-capacity:64}") int queueCapacity,
+            @Value("${resume.parse.timeout:30s}") Duration timeout,
+            @Value("${resume.parse.queue-timeout:30s}") Duration queueTimeout,
+            MeterRegistry meterRegistry,
+            ObservationRegistry observationRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+
+        this.executor = new ThreadPoolExecutor(
+            poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "resume-parse-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.timeout = timeout;
+        this.queueTimeout = queueTimeout;
+        this.observationRegistry = observationRegistry;
+
+        this.waitTimer = Timer.builder("resume.parse.queue.wait")
+                .description("Time uploads wait for a parse worker")
+                .register(meterRegistry);
+        this.parseTimer = Timer.builder("resume.parse.execution")
+                .description("Time spent parsing on a worker")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("resume.parse.rejected")
+                .description("Uploads rejected because the parse queue was full")
+                .register(meterRegistry);
+        this.queueTimedOut = Counter.builder("resume.parse.queue.timeouts")
+                .description("Uploads abandoned after waiting too long for a parse worker")
+                .register(meterRegistry);
+        this.timedOut = Counter.builder("resume.parse.timeouts")
+                .description("Parses abandoned after exceeding the timeout")
+                .register(meterRegistry);
+        Gauge.builder("resume.parse.queue.depth", executor, e -> e.getQueue().size())
+                .description("Uploads waiting for a parse worker")
+                .register(meterRegistry);
+        Gauge.builder("resume.parse.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Parse workers currently busy")
+                .register(meterRegistry);
+
+        log.info("Parse executor: {} threads, queue {} (max wait {}), timeout {}",
+                poolSize, queueCapacity, queueTimeout, timeout);
+    }
+
+    /**
+     * Run the parse on a worker. Fails with {@link ParseCapacityExceededException}
+     * right away when the queue is full or once the task has waited longer
+     * than the queue timeout, and with a {@link TimeoutException} when the
+     * parse runs past the timeout. The worker is not interrupted: PDFBox and
+     * POI would not stop for it, and an interrupt during NIO reads closes the
+     * channel (the staged file's, or the class loader's jar). A timed-out
+     * worker stays busy until the parse returns, and its result is discarded.
+     *
+     * @param release run on the worker once the parse has returned, so the
+     *                task's input can be deleted, or when the caller cancels
+     *                the future before the task starts. If the future fails
+     *                with {@link ParseCapacityExceededException}, the task
+     *                never ran and the caller keeps its input (e.g. to retry).
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task, Runnable release) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        long queuedAt = System.nanoTime();
+        Observation parent = observationRegistry.getCurrentObservation();
+        // Claimed by whichever comes first: a worker starting it or the queue timeout abandoning it
+        AtomicBoolean claimed = new AtomicBoolean();
+
+        FutureTask<T> work = new FutureTask<>(() -> {
+            if (!claimed.compareAndSet(false, true)) {
+                return null;
+            }
+            long startedAt = System.nanoTime();
+            waitTimer.record(startedAt - queuedAt, TimeUnit.NANOSECONDS);
+            result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            try (Observation.Scope ignored = parent != null ? parent.openScope() : Observation.Scope.NOOP) {
+                result.complete(task.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            } finally {
+                parseTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                release.run();
+            }
+            return null;
+        });
+
+        try {
+            executor.execute(work);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            result.completeExceptionally(new ParseCapacityExceededException(
+                "Server is busy processing other resumes. Please try again shortly."
+            ));
+            return result;
+        }
+
+        CompletableFuture.delayedExecutor(queueTimeout.toMillis(), TimeUnit.MILLISECONDS).execute(() -> {
+            if (claimed.compareAndSet(false, true)) {
+                executor.remove(work);
+                queueTimedOut.increment();
+                result.completeExceptionally(new ParseCapacityExceededException(
+                    "Server is busy processing other resumes. Please try again shortly."
+                ));
+            }
+        });
+
+        CompletableFuture<T> completion = result.whenComplete((value, error) -> {
+            if (error instanceof TimeoutException) {
+                timedOut.increment();
+            }
+        });
+        completion.whenComplete((value, error) -> {
+            // Nobody is left to take the input back from a task dropped before it started
+            if (error instanceof CancellationException && claimed.compareAndSet(false, true)) {
+                executor.remove(work);
+                release.run();
+            }
+        });
+        return completion;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
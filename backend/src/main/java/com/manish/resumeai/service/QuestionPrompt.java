@@ -0,0 +1,95 @@
+package com.manish.resumeai.service;
+
+import com.manish.resumeai.llm.Prompt;
+import com.manish.resumeai.llm.PromptSegment;
+import com.manish.resumeai.session.Conversation;
+import com.manish.resumeai.session.ResumeDocument;
+
+/**
+ * Assembles the career-coach prompt sent for every question: the resume (or
+ * its relevant sections), optional context such as a job description, the
+ * conversation so far and the answering instructions.
+ * <p>
+ * The fixed text is precompiled, and so is the head of each document's
+ * prompts (the introduction and the full resume), which is prepared by the
+ * first question that sends the full resume and kept with the document.
+ * Documents answered from retrieved sections never build one. Building a
+ * prompt then only adds what is particular to the question.
+ */
+public final class QuestionPrompt {
+
+    private static final String INTRO_TEXT =
+            "You are an expert career coach and resume analyzer. "
+            + "You help job seekers understand their resume, prepare for interviews, "
+            + "and match their qualifications to job requirements.\n\n";
+
+    private static final PromptSegment INTRO = PromptSegment.of(INTRO_TEXT);
+    private static final PromptSegment EXCERPT_HEADER = PromptSegment.of(
+            "Here are the sections of the candidate's resume most relevant to the question:\n\n");
+    private static final PromptSegment CONTEXT_HEADER = PromptSegment.of(
+            "Additional context (e.g., job description):\n\n");
+    private static final PromptSegment INSTRUCTIONS = PromptSegment.of(
+            "INSTRUCTIONS:\n"
+            + "- Provide specific, actionable answers based on the resume\n"
+            + "- Use concrete examples from the person's experience\n"
+            + "- Be encouraging but honest\n"
+            + "- Keep answers concise (2-3 paragraphs)\n\n"
+            + "Question: ");
+
+    private QuestionPrompt() {
+    }
+
+    /**
+     * The document's prompt head, prepared on first use.
+     */
+    public static PromptSegment head(ResumeDocument document) {
+        PromptSegment head = document.getPromptHead();
+        if (head == null) {
+            String text = document.getText();
+            head = text.isEmpty()
+                    ? INTRO
+                    : PromptSegment.of(INTRO_TEXT + "Here is the candidate's resume:\n\n" + text + "\n\n");
+            document.setPromptHead(head);
+        }
+        return head;
+    }
+
+    /**
+     * Prompt asking the model to answer {@code question} about the resume.
+     *
+     * @param head the document's {@link #head}, or null for a prompt without the resume
+     * @param excerpt the resume sections retrieved for the question, sent instead of the head; or null
+     * @param history earlier turns of the conversation, or null
+     */
+    public static Prompt build(String question, PromptSegment head, String excerpt, String additionalContext,
+                               Conversation.Snapshot history) {
+        Prompt prompt = new Prompt();
+
+        if (excerpt != null && !excerpt.isEmpty()) {
+            prompt.append(INTRO).append(EXCERPT_HEADER).append(excerpt).append("\n\n");
+        } else {
+            prompt.append(head != null ? head : INTRO);
+        }
+
+        if (additionalContext != null && !additionalContext.isEmpty()) {
+            prompt.append(CONTEXT_HEADER).append(additionalContext).append("\n\n");
+        }
+
+        if (history != null && !history.isEmpty()) {
+            if (history.summary() != null) {
+                prompt.append("Summary of the earlier conversation:\n");
+                prompt.append(history.summary());
+                prompt.append("\n\n");
+            }
+            if (!history.turns().isEmpty()) {
+                prompt.append("Recent conversation:\n");
+                for (Conversation.Turn turn : history.turns()) {
+                    prompt.append("User: ").append(turn.question()).append("\n");
+                    prompt.append("Coach: ").append(turn.answer()).append("\n\n");
+                }
+            }
+        }
+
+        return prompt.append(INSTRUCTIONS).append(question);
+    }
+}
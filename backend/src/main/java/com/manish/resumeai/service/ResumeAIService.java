@@ -1,200 +1,455 @@
 package com.manish.resumeai.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manish.resumeai.cache.AnswerCache;
+import com.manish.resumeai.corpus.CorpusIndex;
+import com.manish.resumeai.llm.GeminiClient;
+import com.manish.resumeai.llm.GeminiRequest;
+import com.manish.resumeai.llm.GeminiResponse;
+import com.manish.resumeai.llm.GeminiResponseParser;
+import com.manish.resumeai.llm.LlmCapacityExceededException;
+import com.manish.resumeai.llm.Prompt;
+import com.manish.resumeai.llm.PromptSegment;
+import com.manish.resumeai.llm.ResilientLlmExecutor;
+import com.manish.resumeai.llm.SingleFlight;
+import com.manish.resumeai.profile.LocalAnswerer;
+import com.manish.resumeai.retrieval.ResumeRetriever;
+import com.manish.resumeai.session.Conversation;
+import com.manish.resumeai.session.ResumeDocument;
+import com.manish.resumeai.session.ResumeSession;
+import com.manish.resumeai.session.SessionStore;
+import com.manish.resumeai.util.TokenEstimator;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SynchronousSink;
+import reactor.core.scheduler.Schedulers;
 
-import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
 public class ResumeAIService {
 
-    private final WebClient webClient;
-    private final ObjectMapper objectMapper;
-    
-    private final Map<String, String> sessionResumes = new ConcurrentHashMap<>();
-    
-    @Value("${gemini.api.key}")
-    private String apiKey;
+    private static final double TEMPERATURE = 0.7;
+    private static final int MAX_OUTPUT_TOKENS = 2048;
+
+    private final GeminiClient geminiClient;
+    private final GeminiResponseParser responseParser;
+    private final ResilientLlmExecutor llmExecutor;
+    private final SingleFlight singleFlight;
+    private final AnswerCache answerCache;
+    private final SessionStore sessionStore;
+    private final ResumeRetriever retriever;
+    private final SummaryBatcher summaryBatcher;
+    private final ConversationMemory conversationMemory;
+    private final LocalAnswerer localAnswerer;
+    private final DistributionSummary promptTokens;
+    private final Timer localAnswers;
+    private final Timer cachedAnswers;
+    private final Timer llmAnswers;
     
-    @Value("${gemini.model:gemini-2.0-flash-exp}")
-    private String model;
+    @Value("${resume.summary.deferred:false}")
+    private boolean deferredSummaries;
 
-    public ResumeAIService(WebClient.Builder webClientBuilder, ObjectMapper objectMapper) {
-        this.webClient = webClientBuilder.build();
-        this.objectMapper = objectMapper;
+    public ResumeAIService(GeminiClient geminiClient, GeminiResponseParser responseParser,
+                           ResilientLlmExecutor llmExecutor, SingleFlight singleFlight, AnswerCache answerCache,
+                           SessionStore sessionStore, ResumeRetriever retriever, SummaryBatcher summaryBatcher,
+                           ConversationMemory conversationMemory, LocalAnswerer localAnswerer,
+                           CorpusIndex corpusIndex, MeterRegistry meterRegistry) {
+        this.geminiClient = geminiClient;
+        this.responseParser = responseParser;
+        this.llmExecutor = llmExecutor;
+        this.singleFlight = singleFlight;
+        this.answerCache = answerCache;
+        this.sessionStore = sessionStore;
+        this.retriever = retriever;
+        this.summaryBatcher = summaryBatcher;
+        this.conversationMemory = conversationMemory;
+        this.localAnswerer = localAnswerer;
+        // Sessions the store expires or evicts leave the corpus as well as cleared ones
+        sessionStore.addRemovalListener(corpusIndex::removeSession);
+        this.promptTokens = DistributionSummary.builder("llm.prompt.tokens")
+                .description("Estimated tokens in each question prompt")
+                .baseUnit("tokens")
+                .register(meterRegistry);
+        this.localAnswers = answerTimer("local", meterRegistry);
+        this.cachedAnswers = answerTimer("cache", meterRegistry);
+        this.llmAnswers = answerTimer("llm", meterRegistry);
+        Gauge.builder("resume.answer.local.ratio", this::localRatio)
+                .description("Fraction of questions answered from the resume profile without an LLM call")
+                .register(meterRegistry);
     }
 
-    public String storeResume(String sessionId, String resumeText) {
-        sessionResumes.put(sessionId, resumeText);
-        log.info("Stored resume for session: {} (length: {})", sessionId, resumeText.length());
+    /**
+     * Attach the document to a new session and return its summary without
+     * blocking the caller. A document that was uploaded before already carries
+     * its summary, so no LLM call is made for it.
+     */
+    public Mono<String> storeResumeAsync(String sessionId, ResumeDocument document) {
+        storeResume(sessionId, document);
         
-        try {
-            return generateSummary(resumeText);
-        } catch (Exception e) {
-            log.error("Error generating summary: ", e);
-            return "Resume uploaded successfully. Ready to answer your questions!";
+        String summary = document.getSummary();
+        if (summary != null) {
+            return Mono.just(summary);
+        }
+        
+        return summarize(document)
+                .onErrorResume(e -> {
+                    log.error("Error generating summary: ", e);
+                    return Mono.empty();
+                })
+                .defaultIfEmpty("Resume uploaded successfully. Ready to answer your questions!");
+    }
+
+    /**
+     * Attach the document to a new session without waiting for its summary,
+     * which is generated in the background if not known yet.
+     *
+     * @return the summary, or null while it is being generated
+     */
+    public String storeResumeDeferred(String sessionId, ResumeDocument document) {
+        storeResume(sessionId, document);
+        
+        String summary = document.getSummary();
+        if (summary == null) {
+            startSummary(document);
         }
+        return summary;
+    }
+
+    /**
+     * Whether uploads should return before the summary is ready.
+     */
+    public boolean isSummaryDeferred() {
+        return deferredSummaries;
+    }
+
+    /**
+     * Start generating the document's summary unless it is already being
+     * generated. Failures are logged; calling again retries.
+     */
+    public void startSummary(ResumeDocument document) {
+        summarize(document).subscribe(
+            summary -> log.info("Summary ready for document {}", document.getContentHash()),
+            e -> log.error("Error generating summary for document {}: {}", document.getContentHash(), e.toString())
+        );
+    }
+
+    private void storeResume(String sessionId, ResumeDocument document) {
+        retriever.index(document);
+        localAnswerer.profile(document);
+        sessionStore.put(sessionId, new ResumeSession(document));
+        log.info("Stored resume for session: {} (length: {}, document: {})",
+                sessionId, document.getLength(), document.getContentHash());
+    }
+
+    /**
+     * Generate the summary and record it on the document. Concurrent requests
+     * for one document share a single generation; with batching enabled it is
+     * produced together with other uploads' summaries.
+     */
+    private Mono<String> summarize(ResumeDocument document) {
+        Mono<String> summary = summaryBatcher.isEnabled()
+                ? singleFlight.execute("summary:" + document.getContentHash(), () -> summaryBatcher.submit(document))
+                : generateSummary(document.getText());
+        return summary.flatMap(text -> {
+            document.setSummary(text);
+            return saveDocument(document).thenReturn(text);
+        });
     }
 
-    private String generateSummary(String resumeText) {
+    /**
+     * Persist the document, off the subscribing thread if the store writes to
+     * disk. A failed write is logged; the document stays in memory either way.
+     */
+    private Mono<Void> saveDocument(ResumeDocument document) {
+        Mono<Void> save = Mono.fromRunnable(() -> sessionStore.saveDocument(document));
+        return sessionStore.isBlocking() ? save.subscribeOn(Schedulers.boundedElastic()) : save;
+    }
+
+    private Mono<String> generateSummary(String resumeText) {
         String prompt = "Provide a 2-sentence summary of this resume highlighting the person's role and key strengths:\n\n" + 
                        resumeText.substring(0, Math.min(2000, resumeText.length()));
         
-        return callGeminiAPI(prompt, null);
+        Prompt summaryPrompt = QuestionPrompt.build(prompt, null, null, null, null);
+        String cacheKey = cacheKey(summaryPrompt);
+        String cached = cachedAnswer(cacheKey);
+        return cached != null ? Mono.just(cached) : callGeminiAPI(summaryPrompt, cacheKey);
     }
 
-    public String answerQuestion(String sessionId, String question, String additionalContext) {
-        String resumeText = sessionResumes.get(sessionId);
+    /**
+     * Answer a question about the session's resume. No thread is held while the
+     * LLM call is in flight; capacity rejections are propagated to the caller.
+     * Identical prompts are answered from the cache unless {@code useCache} is false
+     * or the question follows earlier turns of the conversation.
+     * The answered turn becomes part of the session's conversation.
+     */
+    public Mono<Answer> answerQuestionAsync(String sessionId, String question, String additionalContext,
+                                            boolean useCache) {
+        ResumeSession session = sessionStore.get(sessionId);
         
-        if (resumeText == null) {
-            return "Please upload your resume first before asking questions.";
+        if (session == null) {
+            return Mono.just(new Answer("Please upload your resume first before asking questions.", 0));
         }
 
-        try {
-            return callGeminiAPI(question, resumeText, additionalContext);
-        } catch (Exception e) {
-            log.error("Error answering question: ", e);
-            return "I encountered an error processing your question. Please try again.";
+        String local = answerLocally(session, question, additionalContext);
+        if (local != null) {
+            return conversationMemory.remember(sessionId, session, question, local)
+                    .thenReturn(new Answer(local, 0));
         }
+
+        long startedAt = System.nanoTime();
+        Conversation.Snapshot history = conversationMemory.history(session);
+        Prompt prompt = buildQuestionPrompt(session, question, additionalContext, history);
+        String cacheKey = cacheable(useCache, history) ? cacheKey(prompt) : null;
+        String cached = cachedAnswer(cacheKey);
+        Mono<String> answered;
+        if (cached != null) {
+            cachedAnswers.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            answered = Mono.just(cached);
+        } else {
+            // Only answers the model produced; error messages below are not answers
+            answered = callGeminiAPI(prompt, cacheKey)
+                    .doOnNext(answer -> llmAnswers.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS));
+        }
+        return answered
+                .flatMap(answer -> conversationMemory.remember(sessionId, session, question, answer)
+                        .thenReturn(answer))
+                .defaultIfEmpty("I couldn't process that response. Please try again.")
+                .onErrorResume(WebClientResponseException.class, e -> Mono.just(describeApiError(e)))
+                .onErrorResume(e -> !(e instanceof LlmCapacityExceededException), e -> {
+                    log.error("Error answering question: ", e);
+                    return Mono.just("I encountered an error processing your question. Please try again.");
+                })
+                .map(answer -> new Answer(answer, prompt.length()));
     }
 
-    private String callGeminiAPI(String question, String resumeText, String additionalContext) {
-        StringBuilder fullPrompt = new StringBuilder();
-        
-        fullPrompt.append("You are an expert career coach and resume analyzer. ");
-        fullPrompt.append("You help job seekers understand their resume, prepare for interviews, ");
-        fullPrompt.append("and match their qualifications to job requirements.\n\n");
+    /**
+     * Stream the answer as it is generated, one text chunk per element.
+     */
+    public Flux<String> streamAnswer(String sessionId, String question, String additionalContext,
+                                     boolean useCache) {
+        ResumeSession session = sessionStore.get(sessionId);
         
-        if (resumeText != null && !resumeText.isEmpty()) {
-            fullPrompt.append("Here is the candidate's resume:\n\n");
-            fullPrompt.append(resumeText);
-            fullPrompt.append("\n\n");
+        if (session == null) {
+            return Flux.just("Please upload your resume first before asking questions.");
         }
-        
-        if (additionalContext != null && !additionalContext.isEmpty()) {
-            fullPrompt.append("Additional context (e.g., job description):\n\n");
-            fullPrompt.append(additionalContext);
-            fullPrompt.append("\n\n");
+
+        String local = answerLocally(session, question, additionalContext);
+        if (local != null) {
+            return conversationMemory.remember(sessionId, session, question, local)
+                    .thenReturn(local)
+                    .flux();
+        }
+
+        long startedAt = System.nanoTime();
+        Conversation.Snapshot history = conversationMemory.history(session);
+        Prompt prompt = buildQuestionPrompt(session, question, additionalContext, history);
+        String cacheKey = cacheable(useCache, history) ? cacheKey(prompt) : null;
+        String cached = cachedAnswer(cacheKey);
+        if (cached != null) {
+            cachedAnswers.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            return Flux.just(cached);
         }
         
-        fullPrompt.append("INSTRUCTIONS:\n");
-        fullPrompt.append("- Provide specific, actionable answers based on the resume\n");
-        fullPrompt.append("- Use concrete examples from the person's experience\n");
-        fullPrompt.append("- Be encouraging but honest\n");
-        fullPrompt.append("- Keep answers concise (2-3 paragraphs)\n\n");
-        
-        fullPrompt.append("Question: ").append(question);
+        GeminiRequest request = GeminiRequest.of(prompt, TEMPERATURE, MAX_OUTPUT_TOKENS);
+        // Assembled alongside the stream so a complete answer can be cached
+        StringBuilder streamed = new StringBuilder();
 
-        try {
-            // Build request body in Gemini format
-            Map<String, Object> requestBody = new HashMap<>();
-            
-            Map<String, Object> part = new HashMap<>();
-            part.put("text", fullPrompt.toString());
-            
-            Map<String, Object> content = new HashMap<>();
-            content.put("parts", List.of(part));
-            
-            requestBody.put("contents", List.of(content));
-            
-            // Generation config
-            Map<String, Object> generationConfig = new HashMap<>();
-            generationConfig.put("temperature", 0.7);
-            generationConfig.put("maxOutputTokens", 2048);
-            requestBody.put("generationConfig", generationConfig);
-            
-            log.info("Calling Gemini API with model: {}", model);
-            log.debug("API Key present: {}", apiKey != null && !apiKey.isEmpty());
-            log.debug("API Key starts correctly: {}", apiKey != null && apiKey.startsWith("AIza"));
-            
-            // IMPORTANT: Build URL with API key as query parameter
-            String apiUrl = String.format(
-                "https://generativelanguage.googleapis.com/v1beta/models/%s:generateContent?key=%s",
-                model, apiKey
-            );
-            
-            log.debug("Calling URL: https://generativelanguage.googleapis.com/v1beta/models/{}:generateContent?key=<hidden>", model);
-            
-            String response = webClient.post()
-                    .uri(apiUrl)
-                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                    .bodyValue(requestBody)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-
-            log.debug("Gemini API response received successfully");
-            return extractGeminiResponseText(response);
-            
-        } catch (WebClientResponseException e) {
-            log.error("Gemini API error - Status: {}, Body: {}", e.getStatusCode(), e.getResponseBodyAsString());
-            
-            if (e.getStatusCode().value() == 403) {
-                log.error("403 FORBIDDEN");
-                log.error("This usually means:");
-                log.error("1. API not enabled at: https://console.cloud.google.com/apis/library/generativelanguage.googleapis.com");
-                log.error("2. API key is invalid or has no access");
-                return "API access denied. Please enable the Generative Language API in Google Cloud Console.";
-            } else if (e.getStatusCode().value() == 400) {
-                log.error("400 BAD REQUEST - Check request format");
-                log.error("Error details: {}", e.getResponseBodyAsString());
-                return "Invalid request format. Check logs for details.";
-            } else if (e.getStatusCode().value() == 404) {
-                log.error("404 NOT FOUND - Model '{}' not found", model);
-                log.error("Try using: gemini-2.0-flash-exp or gemini-1.5-flash or gemini-1.5-pro");
-                return "Model not found. Try: gemini-2.0-flash-exp, gemini-1.5-flash, or gemini-1.5-pro";
-            } else if (e.getStatusCode().value() == 429) {
-                return "Too many requests. Please wait a moment.";
-            }
-            
-            return "Error " + e.getStatusCode() + ": " + e.getResponseBodyAsString();
-        } catch (Exception e) {
-            log.error("Unexpected error calling Gemini API: ", e);
-            return "Unexpected error: " + e.getMessage();
+        return llmExecutor.executeMany(() -> geminiClient.stream(request))
+                .mapNotNull(ServerSentEvent::data)
+                .handle((String chunk, SynchronousSink<String> sink) -> {
+                    try {
+                        String text = responseParser.extractText(chunk);
+                        if (text != null && !text.isEmpty()) {
+                            streamed.append(text);
+                            sink.next(text);
+                        }
+                    } catch (IOException e) {
+                        sink.error(e);
+                    }
+                })
+                .concatWith(Mono.defer(() -> {
+                    if (streamed.isEmpty()) {
+                        return Mono.empty();
+                    }
+                    String answer = streamed.toString();
+                    if (cacheKey != null) {
+                        answerCache.put(cacheKey, answer);
+                    }
+                    llmAnswers.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                    return conversationMemory.remember(sessionId, session, question, answer).then(Mono.empty());
+                }))
+                .onErrorResume(WebClientResponseException.class, e -> Flux.just(describeApiError(e)));
+    }
+
+    /**
+     * Answer a simple factual question from the resume's profile, or null if
+     * it needs the LLM. Questions with additional context (a job description)
+     * always go to the LLM.
+     */
+    private String answerLocally(ResumeSession session, String question, String additionalContext) {
+        if (additionalContext != null && !additionalContext.isBlank()) {
+            return null;
+        }
+        long startedAt = System.nanoTime();
+        String answer = localAnswerer.answer(session.getDocument(), question);
+        if (answer != null) {
+            long elapsed = System.nanoTime() - startedAt;
+            localAnswers.record(elapsed, TimeUnit.NANOSECONDS);
+            log.debug("Answered locally in {} µs", TimeUnit.NANOSECONDS.toMicros(elapsed));
+        }
+        return answer;
+    }
+
+    private double localRatio() {
+        long local = localAnswers.count();
+        long total = local + cachedAnswers.count() + llmAnswers.count();
+        return total == 0 ? 0 : (double) local / total;
+    }
+
+    private static Timer answerTimer(String path, MeterRegistry meterRegistry) {
+        return Timer.builder("resume.answer.latency")
+                .description("Time to answer a question, by whether it was answered locally, from the cache or by the LLM")
+                .tag("path", path)
+                .register(meterRegistry);
+    }
+
+    /**
+     * The cached answer for the key, or null on a miss or a null key.
+     */
+    private String cachedAnswer(String cacheKey) {
+        String cached = cacheKey != null ? answerCache.get(cacheKey) : null;
+        if (cached != null) {
+            log.debug("Answer served from cache");
         }
+        return cached;
     }
 
-    private String callGeminiAPI(String prompt, String resumeText) {
-        return callGeminiAPI(prompt, resumeText, null);
+    /**
+     * Answer from the model, cached under {@code cacheKey} unless it is null.
+     * Empty if the model's response had no usable text; API failures are
+     * signalled as {@link WebClientResponseException}. Cacheable calls for a
+     * prompt already in flight join that call.
+     */
+    private Mono<String> callGeminiAPI(Prompt prompt, String cacheKey) {
+        GeminiRequest request = GeminiRequest.of(prompt, TEMPERATURE, MAX_OUTPUT_TOKENS);
+        if (cacheKey == null) {
+            return llmExecutor.execute(() -> geminiClient.generate(request))
+                    .mapNotNull(this::extractGeminiResponseText);
+        }
+
+        Mono<String> call = llmExecutor.executeCharged(() -> geminiClient.generate(request))
+                .mapNotNull(this::extractGeminiResponseText)
+                .doOnNext(answer -> answerCache.put(cacheKey, answer));
+        // Each caller is charged before joining, so one caller's quota never fails the others' answers
+        return llmExecutor.charge().then(singleFlight.execute(cacheKey, () -> call));
+    }
+
+    /**
+     * Whether a question's answer may be cached. The history is part of the
+     * prompt, so a question asked after earlier turns would only hit an entry
+     * for the same question after the very same conversation: such prompts
+     * skip the cache (and the sharing of identical calls in flight) rather
+     * than fill it with entries that are never read.
+     */
+    private static boolean cacheable(boolean useCache, Conversation.Snapshot history) {
+        return useCache && history.isEmpty();
+    }
+
+    /**
+     * Cache key covering everything that determines the answer.
+     */
+    private String cacheKey(Prompt prompt) {
+        return prompt.cacheKey(geminiClient.getModel(), String.valueOf(TEMPERATURE), String.valueOf(MAX_OUTPUT_TOKENS));
+    }
+
+    /**
+     * Prompt for a question about the session's resume, with the resume (or the
+     * sections relevant to the question) and the conversation so far.
+     */
+    private Prompt buildQuestionPrompt(ResumeSession session, String question, String additionalContext,
+                                       Conversation.Snapshot history) {
+        // Follow-ups ("tell me more about that") are matched against the previous question too
+        String retrievalQuery = history.turns().isEmpty()
+                ? question
+                : history.turns().get(history.turns().size() - 1).question() + "\n" + question;
+        String excerpt = retriever.relevantText(session.getDocument(), retrievalQuery, additionalContext);
+        PromptSegment head = excerpt == null ? QuestionPrompt.head(session.getDocument()) : null;
+        
+        Prompt prompt = QuestionPrompt.build(question, head, excerpt, additionalContext, history);
+        int tokens = TokenEstimator.tokens(prompt.length());
+        promptTokens.record(tokens);
+        log.debug("Question prompt: ~{} tokens ({} history turns{})", tokens, history.turns().size(),
+                history.summary() != null ? " + summary" : "");
+        return prompt;
     }
 
+    private String describeApiError(WebClientResponseException e) {
+        log.error("Gemini API error - Status: {}, Body: {}", e.getStatusCode(), e.getResponseBodyAsString());
+        
+        if (e.getStatusCode().value() == 403) {
+            log.error("403 FORBIDDEN");
+            log.error("This usually means:");
+            log.error("1. API not enabled at: https://console.cloud.google.com/apis/library/generativelanguage.googleapis.com");
+            log.error("2. API key is invalid or has no access");
+            return "API access denied. Please enable the Generative Language API in Google Cloud Console.";
+        } else if (e.getStatusCode().value() == 400) {
+            log.error("400 BAD REQUEST - Check request format");
+            log.error("Error details: {}", e.getResponseBodyAsString());
+            return "Invalid request format. Check logs for details.";
+        } else if (e.getStatusCode().value() == 404) {
+            log.error("404 NOT FOUND - Model '{}' not found", geminiClient.getModel());
+            log.error("Try using: gemini-2.0-flash-exp or gemini-1.5-flash or gemini-1.5-pro");
+            return "Model not found. Try: gemini-2.0-flash-exp, gemini-1.5-flash, or gemini-1.5-pro";
+        } else if (e.getStatusCode().value() == 429) {
+            return "Too many requests. Please wait a moment.";
+        }
+        
+        return "Error " + e.getStatusCode() + ": " + e.getResponseBodyAsString();
+    }
+
+    /**
+     * Answer text of the response, or null if it has none (logged as an error).
+     */
     private String extractGeminiResponseText(String jsonResponse) {
+        log.debug("Gemini API response received successfully");
         try {
-            JsonNode root = objectMapper.readTree(jsonResponse);
-            
-            JsonNode candidates = root.path("candidates");
-            if (candidates.isArray() && candidates.size() > 0) {
-                JsonNode content = candidates.get(0).path("content");
-                JsonNode parts = content.path("parts");
-                if (parts.isArray() && parts.size() > 0) {
-                    return parts.get(0).path("text").asText();
-                }
+            GeminiResponse response = responseParser.parse(jsonResponse);
+            if (response.text() == null) {
+                log.error("No answer text in response (finish reason {}): {}", response.finishReason(), jsonResponse);
             }
-            
-            log.error("Unexpected response structure: {}", jsonResponse);
-            return "I couldn't process that response. Please try again.";
+            return response.text();
             
         } catch (Exception e) {
             log.error("Error parsing Gemini response: ", e);
-            return "Error parsing response.";
+            return null;
         }
     }
 
+    /**
+     * The session's resume document, or null if the session does not exist.
+     */
+    public ResumeDocument getDocument(String sessionId) {
+        ResumeSession session = sessionStore.get(sessionId);
+        return session != null ? session.getDocument() : null;
+    }
+
     public boolean hasResume(String sessionId) {
-        return sessionResumes.containsKey(sessionId);
+        return sessionStore.contains(sessionId);
     }
 
     public void clearSession(String sessionId) {
-        sessionResumes.remove(sessionId);
+        sessionStore.remove(sessionId);
         log.info("Cleared session: {}", sessionId);
     }
 }
\ No newline at end of file
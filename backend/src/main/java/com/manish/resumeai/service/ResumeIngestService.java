@@ -0,0 +1,110 @@
+package com.manish.resumeai.service;
+
+import com.manish.resumeai.cache.ResumeDocumentCache;
+import com.manish.resumeai.profile.ResumeProfileExtractor;
+import com.manish.resumeai.session.CompactText;
+import com.manish.resumeai.session.ResumeDocument;
+import com.manish.resumeai.util.ContentHash;
+import com.manish.resumeai.util.ResumeParser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Turns uploaded files into shared {@link ResumeDocument}s. Uploads are
+ * identified by the SHA-256 of their bytes, so a file that was seen before is
+ * served from the document cache without being parsed again.
+ */
+@Slf4j
+@Service
+public class ResumeIngestService {
+
+    private final ResumeParser resumeParser;
+    private final ResumeDocumentCache documentCache;
+    private final ParseExecutor parseExecutor;
+
+    @Value("${session.store.text-encoding:UTF8}")
+    private CompactText.Encoding textEncoding;
+
+    public ResumeIngestService(ResumeParser resumeParser, ResumeDocumentCache documentCache,
+                               ParseExecutor parseExecutor) {
+        this.resumeParser = resumeParser;
+        this.documentCache = documentCache;
+        this.parseExecutor = parseExecutor;
+    }
+
+    /**
+     * Document for the uploaded file, or empty if no text could be extracted.
+     * Hashing and staging happen on the calling thread; parsing runs on the
+     * {@link ParseExecutor} and fails fast with
+     * {@link ParseCapacityExceededException} when it is saturated.
+     */
+    public Mono<ResumeDocument> ingest(MultipartFile file) throws IOException {
+        String contentHash;
+        try (InputStream in = file.getInputStream()) {
+            contentHash = ContentHash.of(in);
+        }
+
+        ResumeDocument cached = documentCache.get(contentHash);
+        if (cached != null) {
+            log.info("Duplicate upload {} ({}), reusing extracted text", file.getOriginalFilename(), contentHash);
+            return Mono.just(cached);
+        }
+
+        Path staged = resumeParser.stageUpload(file);
+        
+        // Deleted by the worker once it is done reading, which may be after a timeout was reported
+        return parse(staged, file.getOriginalFilename(), contentHash, () -> deleteStaged(staged))
+                .doOnError(ParseCapacityExceededException.class, e -> deleteStaged(staged));
+    }
+
+    /**
+     * Document for a file that is already on disk and whose hash is known.
+     *
+     * @param release run once the file is no longer read: right away when the
+     *                document is cached, otherwise when the parse has finished
+     *                (see {@link ParseExecutor#submit}). It is not run when the
+     *                result is a {@link ParseCapacityExceededException}; the
+     *                caller still has the file then.
+     */
+    public Mono<ResumeDocument> ingest(Path path, String filename, String contentHash, Runnable release) {
+        ResumeDocument cached = documentCache.get(contentHash);
+        if (cached != null) {
+            log.info("Duplicate upload {} ({}), reusing extracted text", filename, contentHash);
+            release.run();
+            return Mono.just(cached);
+        }
+        return parse(path, filename, contentHash, release);
+    }
+
+    /**
+     * Extract the text and its structured profile on the parse pool.
+     */
+    private Mono<ResumeDocument> parse(Path path, String filename, String contentHash, Runnable release) {
+        return Mono.fromFuture(() -> parseExecutor.submit(() -> {
+                    String resumeText = resumeParser.extractText(path, filename);
+                    if (resumeText.trim().isEmpty()) {
+                        return null;
+                    }
+                    ResumeDocument document = new ResumeDocument(contentHash, CompactText.encode(resumeText, textEncoding));
+                    document.setProfile(ResumeProfileExtractor.extract(resumeText));
+                    return document;
+                }, release))
+                .map(documentCache::putIfAbsent);
+    }
+
+    private void deleteStaged(Path staged) {
+        try {
+            Files.deleteIfExists(staged);
+        } catch (IOException e) {
+            log.warn("Could not delete staged upload {}", staged, e);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.manish.resumeai.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manish.resumeai.llm.GeminiClient;
+import com.manish.resumeai.llm.GeminiRequest;
+import com.manish.resumeai.llm.GeminiResponseParser;
+import com.manish.resumeai.llm.ResilientLlmExecutor;
+import com.manish.resumeai.session.ResumeDocument;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects summary requests from concurrent uploads for up to {@code linger}
+ * (or until {@code maxSize} are waiting) and asks the model for all of them
+ * in one prompt with structured JSON output, then hands each summary back to
+ * the upload that asked for it. Turns a burst of small summary calls into a
+ * few larger ones, which matters when the API quota is counted in requests.
+ */
+@Slf4j
+@Component
+public class SummaryBatcher implements DisposableBean {
+
+    private static final double TEMPERATURE = 0.7;
+    private static final int MAX_OUTPUT_TOKENS = 2048;
+    private static final int MAX_RESUME_CHARS = 2000;
+
+    private static final Map<String, Object> RESPONSE_SCHEMA = Map.of(
+        "type", "ARRAY",
+        "items", Map.of(
+            "type", "OBJECT",
+            "properties", Map.of(
+                "id", Map.of("type", "INTEGER"),
+                "summary", Map.of("type", "STRING")
+            ),
+            "required", List.of("id", "summary")
+        )
+    );
+
+    private final GeminiClient geminiClient;
+    private final ResilientLlmExecutor llmExecutor;
+    private final GeminiResponseParser responseParser;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    private final DistributionSummary batchSizes;
+    private volatile FluxSink<Pending> queue;
+    private final Disposable pipeline;
+
+    public SummaryBatcher(GeminiClient geminiClient, ResilientLlmExecutor llmExecutor,
+                          GeminiResponseParser responseParser, ObjectMapper objectMapper,
+                          @Value("${resume.summary.batch.enabled:false}") boolean enabled,
+                          @Value("${resume.summary.batch.max-size:8}") int maxSize,
+                          @Value("${resume.summary.batch.linger:200ms}") Duration linger,
+                          @Value("${resume.summary.batch.concurrency:4}") int concurrency,
+                          MeterRegistry meterRegistry) {
+        this.geminiClient = geminiClient;
+        this.llmExecutor = llmExecutor;
+        this.responseParser = responseParser;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.batchSizes = DistributionSummary.builder("resume.summary.batch.size")
+                .description("Resumes summarized per model call")
+                .register(meterRegistry);
+
+        if (!enabled) {
+            this.pipeline = null;
+            return;
+        }
+        this.pipeline = Flux.<Pending>create(sink -> queue = sink)
+                // Fair backpressure: while every batch slot is busy, requests keep queueing
+                .bufferTimeout(maxSize, linger, true)
+                .flatMap(this::summarize, concurrency)
+                .subscribe();
+        log.info("Summary batching: up to {} resumes per call, linger {}, {} calls in parallel",
+                maxSize, linger, concurrency);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queue the document for the next batch. Emits its summary, or an error if
+     * the batch failed or the model left this resume out.
+     */
+    public Mono<String> submit(ResumeDocument document) {
+        if (!enabled) {
+            return Mono.error(new IllegalStateException("Summary batching is disabled"));
+        }
+        Sinks.One<String> result = Sinks.one();
+        queue.next(new Pending(document, result));
+        return result.asMono();
+    }
+
+    private Mono<Void> summarize(List<Pending> batch) {
+        batchSizes.record(batch.size());
+        log.info("Summarizing {} resumes in one call", batch.size());
+
+        GeminiRequest request = GeminiRequest.of(buildPrompt(batch), TEMPERATURE, MAX_OUTPUT_TOKENS)
+                .withJsonOutput(RESPONSE_SCHEMA);
+
+        return llmExecutor.execute(() -> geminiClient.generate(request))
+                .doOnNext(response -> demultiplex(batch, response))
+                .switchIfEmpty(Mono.fromRunnable(() -> failAll(batch, new IllegalStateException("Empty batch response"))))
+                .onErrorResume(e -> {
+                    log.error("Batch summary failed for {} resumes: {}", batch.size(), e.toString());
+                    failAll(batch, e);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private String buildPrompt(List<Pending> batch) {
+        StringBuilder prompt = new StringBuilder();
+        prompt.append("Provide a 2-sentence summary of each resume below highlighting the person's role and key strengths. ");
+        prompt.append("Respond with a JSON array holding one object per resume, ");
+        prompt.append("with the resume's number as \"id\" and its summary as \"summary\".\n\n");
+
+        for (int i = 0; i < batch.size(); i++) {
+            String text = batch.get(i).document().getText();
+            prompt.append("=== Resume ").append(i + 1).append(" ===\n");
+            prompt.append(text, 0, Math.min(MAX_RESUME_CHARS, text.length()));
+            prompt.append("\n\n");
+        }
+        return prompt.toString();
+    }
+
+    private void demultiplex(List<Pending> batch, String response) {
+        Map<Integer, String> summaries = new HashMap<>();
+        try {
+            String json = responseParser.extractText(response);
+            JsonNode items = json != null ? objectMapper.readTree(json) : null;
+            if (items != null && items.isArray()) {
+                for (JsonNode item : items) {
+                    String summary = item.path("summary").asText(null);
+                    if (item.path("id").canConvertToInt() && summary != null && !summary.isBlank()) {
+                        summaries.put(item.path("id").asInt(), summary.strip());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.error("Could not parse batch summary response: {}", e.toString());
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            String summary = summaries.get(i + 1);
+            if (summary != null) {
+                batch.get(i).result().tryEmitValue(summary);
+            } else {
+                batch.get(i).result().tryEmitError(new IllegalStateException("Summary missing from batch response"));
+            }
+        }
+        if (summaries.size() < batch.size()) {
+            log.warn("Batch response covered {} of {} resumes", summaries.size(), batch.size());
+        }
+    }
+
+    private static void failAll(List<Pending> batch, Throwable e) {
+        batch.forEach(pending -> pending.result().tryEmitError(e));
+    }
+
+    @Override
+    public void destroy() {
+        if (pipeline != null) {
+            pipeline.dispose();
+        }
+    }
+
+    private record Pending(ResumeDocument document, Sinks.One<String> result) {
+    }
+}
@@ -0,0 +1,104 @@
+package com.manish.resumeai.session;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Immutable text held in one of several memory layouts. The JDK already stores
+ * pure Latin-1 strings at one byte per char, but a single bullet or curly quote
+ * (common in extracted resume text) switches the whole string to UTF-16; UTF-8
+ * keeps such text close to one byte per char, and DEFLATE shrinks it further
+ * at the cost of inflating on every read.
+ */
+public final class CompactText {
+
+    public enum Encoding {
+        STRING, UTF8, DEFLATE
+    }
+
+    private final Encoding encoding;
+    private final String text;
+    private final byte[] bytes;
+    private final int length;
+    private final int retainedBytes;
+
+    private CompactText(Encoding encoding, String text, byte[] bytes, int length, int retainedBytes) {
+        this.encoding = encoding;
+        this.text = text;
+        this.bytes = bytes;
+        this.length = length;
+        this.retainedBytes = retainedBytes;
+    }
+
+    public static CompactText encode(String text, Encoding encoding) {
+        switch (encoding) {
+            case UTF8: {
+                byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+                return new CompactText(encoding, null, utf8, text.length(), utf8.length);
+            }
+            case DEFLATE: {
+                byte[] deflated = deflate(text.getBytes(StandardCharsets.UTF_8));
+                return new CompactText(encoding, null, deflated, text.length(), deflated.length);
+            }
+            default:
+                return new CompactText(encoding, text, null, text.length(), stringBytes(text));
+        }
+    }
+
+    public String decode() {
+        switch (encoding) {
+            case UTF8:
+                return new String(bytes, StandardCharsets.UTF_8);
+            case DEFLATE:
+                return new String(inflate(bytes), StandardCharsets.UTF_8);
+            default:
+                return text;
+        }
+    }
+
+    /**
+     * Length of the decoded text in chars.
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Approximate heap held by the text payload (object headers excluded).
+     */
+    public int retainedBytes() {
+        return retainedBytes;
+    }
+
+    private static int stringBytes(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0xFF) {
+                return text.length() * 2;
+            }
+        }
+        return text.length();
+    }
+
+    private static byte[] deflate(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 3 + 16);
+        try (DeflaterOutputStream deflater = new DeflaterOutputStream(out)) {
+            deflater.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] inflate(byte[] data) {
+        try (InflaterInputStream inflater = new InflaterInputStream(new ByteArrayInputStream(data))) {
+            return inflater.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
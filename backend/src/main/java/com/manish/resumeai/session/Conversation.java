@@ -0,0 +1,109 @@
+package com.manish.resumeai.session;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Question and answer history of one session. Recent turns are kept verbatim
+ * up to a character budget; older turns are folded into a rolling summary by
+ * the caller, a few at a time, so the history sent with each question stays
+ * roughly the same size however long the conversation runs.
+ *
+ * <p>Turns being folded stay visible in {@link #snapshot()} until the new
+ * summary arrives, so no context is lost while compaction is in flight.
+ */
+public class Conversation {
+
+    public record Turn(String question, String answer) {
+
+        int chars() {
+            return question.length() + answer.length();
+        }
+    }
+
+    /**
+     * What goes into the next prompt: the summary of older turns (or null)
+     * and the recent turns, oldest first.
+     */
+    public record Snapshot(String summary, List<Turn> turns) {
+
+        public boolean isEmpty() {
+            return summary == null && turns.isEmpty();
+        }
+    }
+
+    private String summary;
+    private final Deque<Turn> turns = new ArrayDeque<>();
+    private int turnChars;
+    private int compacting;
+
+    public Conversation() {
+    }
+
+    public Conversation(String summary, List<Turn> turns) {
+        this.summary = summary;
+        for (Turn turn : turns) {
+            this.turns.addLast(turn);
+            this.turnChars += turn.chars();
+        }
+    }
+
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(summary, List.copyOf(turns));
+    }
+
+    /**
+     * Record a turn. If the recent turns now exceed the budget and no
+     * compaction is running, returns the oldest turns to fold into the summary
+     * (always keeping the newest turn verbatim); the caller must then report
+     * back through {@link #compacted} or {@link #compactionFailed}.
+     */
+    public synchronized List<Turn> append(Turn turn, int budgetChars) {
+        turns.addLast(turn);
+        turnChars += turn.chars();
+        if (compacting > 0 || turnChars <= budgetChars) {
+            return List.of();
+        }
+
+        List<Turn> oldest = new ArrayList<>();
+        int remaining = turnChars;
+        for (Turn candidate : turns) {
+            if (remaining <= budgetChars || oldest.size() == turns.size() - 1) {
+                break;
+            }
+            oldest.add(candidate);
+            remaining -= candidate.chars();
+        }
+        compacting = oldest.size();
+        return oldest;
+    }
+
+    /**
+     * Replace the summary and drop the turns it now covers.
+     */
+    public synchronized void compacted(String newSummary) {
+        for (int i = 0; i < compacting; i++) {
+            turnChars -= turns.removeFirst().chars();
+        }
+        summary = newSummary;
+        compacting = 0;
+    }
+
+    /**
+     * Keep the turns for the next attempt, but never let them grow past the
+     * hard limit: beyond it the oldest are dropped unsummarized.
+     */
+    public synchronized void compactionFailed(int hardLimitChars) {
+        compacting = 0;
+        while (turnChars > hardLimitChars && turns.size() > 1) {
+            turnChars -= turns.removeFirst().chars();
+        }
+    }
+
+    public synchronized int retainedBytes() {
+        // Two bytes per char plus object overhead per turn
+        return 2 * (turnChars + (summary != null ? summary.length() : 0)) + 64 * turns.size();
+    }
+}
@@ -0,0 +1,506 @@
+package com.manish.resumeai.session;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.manish.resumeai.cache.ResumeDocumentCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Session store on the local file system, shared by every instance on the
+ * host that points at the same directory and kept across restarts.
+ *
+ * <p>Each session is one small file referring to its document by content
+ * hash; documents are stored once per hash. Files are written to a temp file
+ * and atomically renamed, so readers never see a partial record; concurrent
+ * writes to one session from two instances are last-writer-wins.
+ *
+ * <p>A heap near-cache in front keeps lookups in memory: a cached session is
+ * trusted for {@code revalidateAfter}, after which one {@code stat} checks
+ * whether another instance changed or removed it. File modification times
+ * double as last-access times (refreshed at most once a minute per session);
+ * a background sweep deletes idle sessions, enforces the disk budget and then
+ * deletes the documents no session refers to any more.
+ */
+@Slf4j
+public class FileSessionStore implements SessionStore, AutoCloseable {
+
+    private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9-]{1,64}");
+    private static final Pattern VALID_HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final long TOUCH_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final long ORPHAN_GRACE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final String SESSION_SUFFIX = ".ses";
+    private static final String DOCUMENT_SUFFIX = ".doc";
+
+    private final Path sessionDir;
+    private final Path documentDir;
+    private final Duration idleTtl;
+    private final long maxDiskBytes;
+    private final long revalidateNanos;
+    private final CompactText.Encoding textEncoding;
+    private final ResumeDocumentCache documentCache;
+
+    private final Cache<String, Entry> nearCache;
+    private final List<Consumer<String>> removalListeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService sweeper;
+    private final Counter diskReads;
+    private final Counter diskWrites;
+
+    public FileSessionStore(Path directory, long maxNearCacheBytes, Duration idleTtl, long maxDiskBytes,
+                            Duration revalidateAfter, Duration sweepInterval, CompactText.Encoding textEncoding,
+                            ResumeDocumentCache documentCache, MeterRegistry meterRegistry) {
+        this.sessionDir = directory.resolve("sessions");
+        this.documentDir = directory.resolve("documents");
+        this.idleTtl = idleTtl;
+        this.maxDiskBytes = maxDiskBytes;
+        this.revalidateNanos = revalidateAfter.toNanos();
+        this.textEncoding = textEncoding;
+        this.documentCache = documentCache;
+        try {
+            Files.createDirectories(sessionDir);
+            Files.createDirectories(documentDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create session store directory " + directory, e);
+        }
+
+        this.nearCache = Caffeine.newBuilder()
+                .maximumWeight(maxNearCacheBytes)
+                .weigher((String id, Entry entry) -> entry.session.retainedBytes())
+                .expireAfterAccess(idleTtl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, nearCache, "sessions");
+        Gauge.builder("session.store.entries", this, FileSessionStore::size)
+                .description("Number of sessions held in the near-cache")
+                .register(meterRegistry);
+        Gauge.builder("session.store.retained", this, FileSessionStore::retainedBytes)
+                .description("Approximate heap retained by the near-cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.diskReads = Counter.builder("session.store.disk.reads")
+                .description("Session records read from disk")
+                .register(meterRegistry);
+        this.diskWrites = Counter.builder("session.store.disk.writes")
+                .description("Session and document records written to disk")
+                .register(meterRegistry);
+
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-store-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = sweepInterval.toMillis();
+        sweeper.scheduleWithFixedDelay(this::sweep, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void put(String sessionId, ResumeSession session) {
+        Path file = sessionFile(sessionId);
+        try {
+            ResumeDocument document = session.getDocument();
+            Path documentFile = documentFile(document.getContentHash());
+            if (!refresh(documentFile)) {
+                writeDocument(document, documentFile);
+            }
+            writeAtomically(file, out -> out.write(SessionCodec.encodeSession(session)));
+            nearCache.put(sessionId, new Entry(session, Files.getLastModifiedTime(file)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store session " + sessionId, e);
+        }
+    }
+
+    @Override
+    public void saveDocument(ResumeDocument document) {
+        try {
+            writeDocument(document, documentFile(document.getContentHash()));
+        } catch (IOException e) {
+            log.warn("Could not store document {}: {}", document.getContentHash(), e.toString());
+        }
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return true;
+    }
+
+    @Override
+    public ResumeSession get(String sessionId) {
+        if (!VALID_ID.matcher(sessionId).matches()) {
+            return null;
+        }
+        Entry entry = nearCache.getIfPresent(sessionId);
+        long now = System.nanoTime();
+        if (entry != null && now - entry.validatedAt < revalidateNanos) {
+            return entry.session;
+        }
+
+        Path file = sessionFile(sessionId);
+        try {
+            FileTime modified = Files.getLastModifiedTime(file);
+            if (entry == null || !entry.modified.equals(modified)) {
+                entry = load(sessionId, file, modified);
+                if (entry == null) {
+                    return null;
+                }
+                nearCache.put(sessionId, entry);
+            }
+            entry.validatedAt = now;
+            touch(entry, file, now);
+            return entry.session;
+        } catch (NoSuchFileException e) {
+            nearCache.invalidate(sessionId);
+            return null;
+        } catch (IOException e) {
+            log.warn("Could not read session {}: {}", sessionId, e.toString());
+            return null;
+        }
+    }
+
+    @Override
+    public boolean contains(String sessionId) {
+        return get(sessionId) != null;
+    }
+
+    @Override
+    public void remove(String sessionId) {
+        if (!VALID_ID.matcher(sessionId).matches()) {
+            return;
+        }
+        nearCache.invalidate(sessionId);
+        try {
+            Files.deleteIfExists(sessionFile(sessionId));
+        } catch (IOException e) {
+            log.warn("Could not delete session {}: {}", sessionId, e.toString());
+        }
+        removed(sessionId);
+    }
+
+    /**
+     * Listeners hear about sessions this instance removes or sweeps; a session
+     * another instance's sweep deletes first is not reported here.
+     */
+    @Override
+    public void addRemovalListener(Consumer<String> listener) {
+        removalListeners.add(listener);
+    }
+
+    /**
+     * Sessions held in the near-cache; the directory may hold more.
+     */
+    @Override
+    public long size() {
+        return nearCache.estimatedSize();
+    }
+
+    @Override
+    public long retainedBytes() {
+        return nearCache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+    }
+
+    @Override
+    public void close() {
+        sweeper.shutdownNow();
+    }
+
+    private Entry load(String sessionId, Path file, FileTime modified) throws IOException {
+        SessionCodec.SessionRecord record = SessionCodec.decodeSession(Files.readAllBytes(file));
+        diskReads.increment();
+
+        ResumeDocument document = loadDocument(record.documentHash());
+        if (document == null) {
+            log.warn("Session {} refers to missing document {}", sessionId, record.documentHash());
+            return null;
+        }
+        return new Entry(new ResumeSession(document, record.conversation()), modified);
+    }
+
+    /**
+     * The document from the shared document cache, or from disk (and then
+     * cached, so sessions of one document share one copy in memory).
+     */
+    private ResumeDocument loadDocument(String contentHash) throws IOException {
+        ResumeDocument cached = documentCache.get(contentHash);
+        if (cached != null) {
+            return cached;
+        }
+        if (!VALID_HASH.matcher(contentHash).matches()) {
+            return null;
+        }
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(documentFile(contentHash)))) {
+            diskReads.increment();
+            return documentCache.putIfAbsent(SessionCodec.readDocument(in, textEncoding));
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Refresh the access time of the session on disk, at most once a minute,
+     * so the sweep sees it as active. Its document is kept for as long as the
+     * session is.
+     */
+    private void touch(Entry entry, Path file, long now) {
+        if (now - entry.touchedAt < TOUCH_INTERVAL_NANOS) {
+            return;
+        }
+        try {
+            FileTime time = FileTime.fromMillis(System.currentTimeMillis());
+            Files.setLastModifiedTime(file, time);
+            entry.modified = time;
+            entry.touchedAt = now;
+        } catch (IOException e) {
+            log.debug("Could not touch session file {}: {}", file, e.toString());
+        }
+    }
+
+    /**
+     * Mark an existing file as just used, so a concurrent sweep does not take
+     * it for unused. False if the file does not exist.
+     */
+    private static boolean refresh(Path file) throws IOException {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private void writeDocument(ResumeDocument document, Path file) throws IOException {
+        writeAtomically(file, out -> SessionCodec.writeDocument(document, out));
+    }
+
+    private void writeAtomically(Path target, Writer writer) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                writer.write(out);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            diskWrites.increment();
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Delete idle sessions and leftover temp files, then the least recently
+     * used sessions while the directory is over its disk budget, and last the
+     * documents no remaining session refers to. A document is only ever
+     * deleted once it is unreferenced, so sessions never lose theirs.
+     * Safe to run from several instances at once.
+     */
+    void sweep() {
+        try {
+            long cutoff = System.currentTimeMillis() - idleTtl.toMillis();
+            int expired = 0;
+
+            List<StoredSession> sessions = new ArrayList<>();
+            for (StoredFile file : list(sessionDir)) {
+                if (file.modified() < cutoff) {
+                    if (Files.deleteIfExists(file.path())) {
+                        swept(file.path());
+                    }
+                    expired++;
+                } else if (file.path().getFileName().toString().endsWith(SESSION_SUFFIX)) {
+                    String documentHash = documentHash(file.path());
+                    if (documentHash != null) {
+                        sessions.add(new StoredSession(file, documentHash));
+                    }
+                }
+            }
+            Map<String, StoredFile> documents = new HashMap<>();
+            for (StoredFile file : list(documentDir)) {
+                String name = file.path().getFileName().toString();
+                if (name.endsWith(DOCUMENT_SUFFIX)) {
+                    documents.put(name.substring(0, name.length() - DOCUMENT_SUFFIX.length()), file);
+                } else if (file.modified() < cutoff) {
+                    Files.deleteIfExists(file.path());
+                    expired++;
+                }
+            }
+
+            // A document counts against the budget while any session refers to it
+            Map<String, Integer> references = new HashMap<>();
+            long totalBytes = 0;
+            for (StoredSession session : sessions) {
+                totalBytes += session.file().size();
+                if (references.merge(session.documentHash(), 1, Integer::sum) == 1) {
+                    totalBytes += documentSize(documents, session.documentHash());
+                }
+            }
+
+            int evicted = 0;
+            if (totalBytes > maxDiskBytes) {
+                sessions.sort(Comparator.comparingLong(session -> session.file().modified()));
+                for (StoredSession session : sessions) {
+                    if (totalBytes <= maxDiskBytes) {
+                        break;
+                    }
+                    if (Files.deleteIfExists(session.file().path())) {
+                        swept(session.file().path());
+                    }
+                    totalBytes -= session.file().size();
+                    evicted++;
+                    if (references.merge(session.documentHash(), -1, Integer::sum) == 0) {
+                        references.remove(session.documentHash());
+                        totalBytes -= documentSize(documents, session.documentHash());
+                    }
+                }
+            }
+
+            // A recently written or reused document may belong to a session being stored right now
+            long graceCutoff = System.currentTimeMillis() - ORPHAN_GRACE_MILLIS;
+            int orphaned = 0;
+            for (Map.Entry<String, StoredFile> document : documents.entrySet()) {
+                Path file = document.getValue().path();
+                if (!references.containsKey(document.getKey())
+                        && lastModified(file) < graceCutoff
+                        && Files.deleteIfExists(file)) {
+                    orphaned++;
+                }
+            }
+            if (expired > 0 || evicted > 0 || orphaned > 0) {
+                log.info("Session store sweep: {} idle files expired, {} sessions evicted over budget, {} unused documents deleted",
+                        expired, evicted, orphaned);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Session store sweep failed: {}", e.toString());
+        }
+    }
+
+    /**
+     * Drop a session the sweep deleted from the near-cache and tell the listeners.
+     */
+    private void swept(Path file) {
+        String name = file.getFileName().toString();
+        if (name.endsWith(SESSION_SUFFIX)) {
+            String sessionId = name.substring(0, name.length() - SESSION_SUFFIX.length());
+            nearCache.invalidate(sessionId);
+            removed(sessionId);
+        }
+    }
+
+    private void removed(String sessionId) {
+        for (Consumer<String> listener : removalListeners) {
+            try {
+                listener.accept(sessionId);
+            } catch (RuntimeException e) {
+                log.warn("Session removal listener failed for {}: {}", sessionId, e.toString());
+            }
+        }
+    }
+
+    private static List<StoredFile> list(Path dir) throws IOException {
+        List<StoredFile> stored = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                try {
+                    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    stored.add(new StoredFile(file, attributes.lastModifiedTime().toMillis(), attributes.size()));
+                } catch (NoSuchFileException e) {
+                    // Deleted since listed
+                }
+            }
+        }
+        return stored;
+    }
+
+    /**
+     * The document a session file refers to, or null if it is gone or unreadable.
+     */
+    private static String documentHash(Path sessionFile) {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(sessionFile), 256)) {
+            return SessionCodec.readDocumentHash(in);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.debug("Skipping unreadable session file {}: {}", sessionFile, e.toString());
+            return null;
+        }
+    }
+
+    private static long documentSize(Map<String, StoredFile> documents, String contentHash) {
+        StoredFile document = documents.get(contentHash);
+        return document != null ? document.size() : 0;
+    }
+
+    private static long lastModified(Path file) throws IOException {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (NoSuchFileException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private Path sessionFile(String sessionId) {
+        return sessionDir.resolve(sessionId + SESSION_SUFFIX);
+    }
+
+    private Path documentFile(String contentHash) {
+        return documentDir.resolve(contentHash + DOCUMENT_SUFFIX);
+    }
+
+    @FunctionalInterface
+    private interface Writer {
+        void write(OutputStream out) throws IOException;
+    }
+
+    private record StoredFile(Path path, long modified, long size) {
+    }
+
+    private record StoredSession(StoredFile file, String documentHash) {
+    }
+
+    private static final class Entry {
+
+        final ResumeSession session;
+        volatile FileTime modified;
+        volatile long validatedAt;
+        volatile long touchedAt;
+
+        Entry(ResumeSession session, FileTime modified) {
+            this.session = session;
+            this.modified = modified;
+            this.validatedAt = System.nanoTime();
+            this.touchedAt = validatedAt;
+        }
+    }
+}
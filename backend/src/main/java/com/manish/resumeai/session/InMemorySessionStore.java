@@ -0,0 +1,92 @@
+package com.manish.resumeai.session;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Heap-resident session store bounded by idle time and a total byte budget.
+ * Backed by Caffeine, whose reads are lock-free and whose W-TinyLFU eviction
+ * and expiry are amortized across writes rather than done on the read path.
+ */
+@Slf4j
+public class InMemorySessionStore implements SessionStore {
+
+    private final Cache<String, ResumeSession> sessions;
+    private final List<Consumer<String>> removalListeners = new CopyOnWriteArrayList<>();
+
+    public InMemorySessionStore(long maxBytes, Duration idleTtl, MeterRegistry meterRegistry) {
+        this.sessions = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String id, ResumeSession session) -> session.retainedBytes())
+                .expireAfterAccess(idleTtl)
+                // Expire idle sessions on time even when the store is quiet, so removal listeners hear of them
+                .scheduler(Scheduler.systemScheduler())
+                .removalListener((String id, ResumeSession session, RemovalCause cause) -> {
+                    if (cause.wasEvicted()) {
+                        log.info("Session {} evicted ({})", id, cause);
+                    }
+                    if (cause != RemovalCause.REPLACED) {
+                        removalListeners.forEach(listener -> listener.accept(id));
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, sessions, "sessions");
+        Gauge.builder("session.store.entries", this, InMemorySessionStore::size)
+                .description("Number of stored sessions")
+                .register(meterRegistry);
+        Gauge.builder("session.store.retained", this, InMemorySessionStore::retainedBytes)
+                .description("Approximate heap retained by stored sessions")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void put(String sessionId, ResumeSession session) {
+        sessions.put(sessionId, session);
+    }
+
+    @Override
+    public ResumeSession get(String sessionId) {
+        return sessions.getIfPresent(sessionId);
+    }
+
+    @Override
+    public boolean contains(String sessionId) {
+        return sessions.getIfPresent(sessionId) != null;
+    }
+
+    @Override
+    public void remove(String sessionId) {
+        sessions.invalidate(sessionId);
+    }
+
+    @Override
+    public void addRemovalListener(Consumer<String> listener) {
+        removalListeners.add(listener);
+    }
+
+    @Override
+    public long size() {
+        return sessions.estimatedSize();
+    }
+
+    @Override
+    public long retainedBytes() {
+        return sessions.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+    }
+}
@@ -0,0 +1,94 @@
+package com.manish.resumeai.session;
+
+import com.manish.resumeai.llm.PromptSegment;
+import com.manish.resumeai.profile.ResumeProfile;
+import com.manish.resumeai.retrieval.Bm25Index;
+
+/**
+ * Extracted resume content, shared by every session that uploaded the same
+ * file bytes. Identified by the SHA-256 of the uploaded file.
+ */
+public class ResumeDocument {
+
+    private final String contentHash;
+    private final CompactText text;
+    private volatile String summary;
+    private volatile Bm25Index index;
+    private volatile ResumeProfile profile;
+    private volatile PromptSegment promptHead;
+
+    public ResumeDocument(String contentHash, CompactText text) {
+        this.contentHash = contentHash;
+        this.text = text;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public String getText() {
+        return text.decode();
+    }
+
+    public int getLength() {
+        return text.length();
+    }
+
+    /**
+     * Generated summary, or null until one has been produced.
+     */
+    public String getSummary() {
+        return summary;
+    }
+
+    public void setSummary(String summary) {
+        this.summary = summary;
+    }
+
+    /**
+     * Chunk index used for retrieval, or null if the document is not indexed.
+     */
+    public Bm25Index getIndex() {
+        return index;
+    }
+
+    public void setIndex(Bm25Index index) {
+        this.index = index;
+    }
+
+    /**
+     * Structured view of the text, or null if it has not been extracted yet.
+     */
+    public ResumeProfile getProfile() {
+        return profile;
+    }
+
+    public void setProfile(ResumeProfile profile) {
+        this.profile = profile;
+    }
+
+    /**
+     * Precompiled start of question prompts about this resume, or null if it
+     * has not been prepared yet.
+     */
+    public PromptSegment getPromptHead() {
+        return promptHead;
+    }
+
+    public void setPromptHead(PromptSegment promptHead) {
+        this.promptHead = promptHead;
+    }
+
+    /**
+     * Approximate heap retained by the extracted text, its index, profile and prompt head.
+     */
+    public int retainedBytes() {
+        Bm25Index currentIndex = index;
+        ResumeProfile currentProfile = profile;
+        PromptSegment currentHead = promptHead;
+        return text.retainedBytes()
+                + (currentIndex == null ? 0 : currentIndex.retainedBytes())
+                + (currentProfile == null ? 0 : currentProfile.retainedBytes())
+                + (currentHead == null ? 0 : currentHead.retainedBytes());
+    }
+}
@@ -0,0 +1,48 @@
+package com.manish.resumeai.session;
+
+/**
+ * State kept for one upload session. The resume content itself is a shared
+ * {@link ResumeDocument}, so repeated uploads of one file hold one copy; the
+ * conversation is the session's own.
+ */
+public class ResumeSession {
+
+    private final ResumeDocument document;
+    private final Conversation conversation;
+
+    public ResumeSession(ResumeDocument document) {
+        this(document, new Conversation());
+    }
+
+    public ResumeSession(ResumeDocument document, Conversation conversation) {
+        this.document = document;
+        this.conversation = conversation;
+    }
+
+    public ResumeDocument getDocument() {
+        return document;
+    }
+
+    public String getResumeText() {
+        return document.getText();
+    }
+
+    public int getResumeLength() {
+        return document.getLength();
+    }
+
+    public Conversation getConversation() {
+        return conversation;
+    }
+
+    /**
+     * Approximate heap retained by this session, used for the store's byte
+     * budget. The shared document is counted in full for every session: an
+     * upper bound that keeps the budget a hard cap even after the document
+     * has left the document cache. Stores re-weigh a session when it is put
+     * again after its conversation grew.
+     */
+    public int retainedBytes() {
+        return document.retainedBytes() + conversation.retainedBytes();
+    }
+}
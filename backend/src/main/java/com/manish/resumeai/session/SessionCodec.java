@@ -0,0 +1,142 @@
+package com.manish.resumeai.session;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compact binary format of the file-backed session store. A session record
+ * refers to its document by content hash; a document record holds the
+ * summary and the DEFLATE-compressed UTF-8 text. Both start with a magic
+ * number and a version so incompatible files are rejected, not misread.
+ */
+final class SessionCodec {
+
+    private static final int SESSION_MAGIC = 0x52534553; // "RSES"
+    private static final int DOCUMENT_MAGIC = 0x52444f43; // "RDOC"
+    private static final byte VERSION = 1;
+
+    /**
+     * A decoded session record: the document it refers to and its conversation.
+     */
+    record SessionRecord(String documentHash, Conversation conversation) {
+    }
+
+    private SessionCodec() {
+    }
+
+    static byte[] encodeSession(ResumeSession session) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(SESSION_MAGIC);
+        out.writeByte(VERSION);
+        writeString(out, session.getDocument().getContentHash());
+
+        Conversation.Snapshot history = session.getConversation().snapshot();
+        writeNullableString(out, history.summary());
+        out.writeInt(history.turns().size());
+        for (Conversation.Turn turn : history.turns()) {
+            writeString(out, turn.question());
+            writeString(out, turn.answer());
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    static SessionRecord decodeSession(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        checkHeader(in, SESSION_MAGIC);
+        String documentHash = readString(in);
+
+        String summary = readNullableString(in);
+        int count = in.readInt();
+        List<Conversation.Turn> turns = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            turns.add(new Conversation.Turn(readString(in), readString(in)));
+        }
+        return new SessionRecord(documentHash, new Conversation(summary, turns));
+    }
+
+    /**
+     * The content hash of the document a session record refers to, reading
+     * only the start of the record.
+     */
+    static String readDocumentHash(InputStream source) throws IOException {
+        DataInputStream in = new DataInputStream(source);
+        checkHeader(in, SESSION_MAGIC);
+        return readString(in);
+    }
+
+    static void writeDocument(ResumeDocument document, OutputStream target) throws IOException {
+        DataOutputStream out = new DataOutputStream(target);
+        out.writeInt(DOCUMENT_MAGIC);
+        out.writeByte(VERSION);
+        writeString(out, document.getContentHash());
+        writeNullableString(out, document.getSummary());
+        out.flush();
+
+        DeflaterOutputStream deflater = new DeflaterOutputStream(target);
+        deflater.write(document.getText().getBytes(StandardCharsets.UTF_8));
+        deflater.finish();
+        deflater.flush();
+    }
+
+    static ResumeDocument readDocument(InputStream source, CompactText.Encoding encoding) throws IOException {
+        DataInputStream in = new DataInputStream(source);
+        checkHeader(in, DOCUMENT_MAGIC);
+        String contentHash = readString(in);
+        String summary = readNullableString(in);
+
+        String text;
+        try (InflaterInputStream inflater = new InflaterInputStream(source)) {
+            text = new String(inflater.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        ResumeDocument document = new ResumeDocument(contentHash, CompactText.encode(text, encoding));
+        document.setSummary(summary);
+        return document;
+    }
+
+    private static void checkHeader(DataInputStream in, int magic) throws IOException {
+        if (in.readInt() != magic) {
+            throw new IOException("Not a session store record");
+        }
+        byte version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported session store record version " + version);
+        }
+    }
+
+    // Length-prefixed UTF-8; DataOutput.writeUTF is limited to 64 KB
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            writeString(out, value);
+        }
+    }
+
+    private static String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? readString(in) : null;
+    }
+}
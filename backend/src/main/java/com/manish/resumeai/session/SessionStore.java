@@ -0,0 +1,55 @@
+package com.manish.resumeai.session;
+
+import java.util.function.Consumer;
+
+/**
+ * Storage for upload sessions. Implementations may expire or evict sessions
+ * on their own, so a session that was stored can later be absent.
+ */
+public interface SessionStore {
+
+    void put(String sessionId, ResumeSession session);
+
+    /**
+     * Persist a change to a stored session's document, such as a summary that
+     * arrived after the upload. Stores that hold documents by reference need
+     * not do anything.
+     */
+    default void saveDocument(ResumeDocument document) {
+    }
+
+    /**
+     * Whether writes do blocking I/O, so callers on event-loop threads should
+     * hand them to a thread that may block.
+     */
+    default boolean isBlocking() {
+        return false;
+    }
+
+    /**
+     * The session, or null if it never existed, was removed or has expired.
+     * Counts as activity for idle expiry.
+     */
+    ResumeSession get(String sessionId);
+
+    boolean contains(String sessionId);
+
+    void remove(String sessionId);
+
+    /**
+     * Call {@code listener} with the id of every session that leaves the
+     * store, whether removed, expired or evicted. Replacing a stored session
+     * does not count. Listeners may be called on a background thread.
+     */
+    void addRemovalListener(Consumer<String> listener);
+
+    long size();
+
+    /**
+     * Approximate heap retained by all stored sessions, each weighed by
+     * {@link ResumeSession#retainedBytes()}. A document shared by several
+     * sessions is counted once per session, so this over-reports the heap of
+     * repeated uploads; the byte budget is enforced against this figure.
+     */
+    long retainedBytes();
+}
@@ -0,0 +1,79 @@
+package com.manish.resumeai.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 content hashes used as cache and deduplication keys.
+ */
+public final class ContentHash {
+
+    private ContentHash() {
+    }
+
+    /**
+     * Hash of the given parts. Each part is length-prefixed so that
+     * ("ab", "c") and ("a", "bc") produce different keys; null parts are
+     * distinct from empty ones.
+     */
+    public static String of(String... parts) {
+        MessageDigest digest = newDigest();
+        for (String part : parts) {
+            update(digest, part);
+        }
+        return hex(digest);
+    }
+
+    /**
+     * Add one length-prefixed part to a hash, as {@link #of(String...)} does.
+     */
+    public static void update(MessageDigest digest, CharSequence part) {
+        if (part == null) {
+            digest.update((byte) 0);
+            return;
+        }
+        byte[] bytes = part.toString().getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) 1);
+        digest.update(intBytes(bytes.length));
+        digest.update(bytes);
+    }
+
+    /**
+     * Complete the hash and return it in hex.
+     */
+    public static String hex(MessageDigest digest) {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Hash of the stream's remaining bytes, read in small chunks so the content
+     * is never held in memory as a whole. The stream is not closed.
+     */
+    public static String of(InputStream in) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+        }
+        return hex(digest);
+    }
+
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static byte[] intBytes(int value) {
+        return new byte[] {
+            (byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value
+        };
+    }
+}
@@ -0,0 +1,117 @@
+package com.manish.resumeai.util;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * SAX handler that collects the visible text of a WordprocessingML part
+ * (document body, header or footer) without building an object model.
+ * Paragraphs end with a newline; table cells are tab separated and each table
+ * row ends with a newline. Deleted revisions and field codes are skipped, as
+ * are the tab stops a paragraph's properties define. Parsing stops once text
+ * would go past the character limit; separators past it are dropped.
+ */
+class DocxTextHandler extends DefaultHandler {
+
+    private static final String W_NS = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+
+    /**
+     * Thrown to abandon parsing once the character limit has been reached.
+     */
+    static final class LimitReachedException extends SAXException {
+
+        private static final long serialVersionUID = 1L;
+
+        LimitReachedException() {
+            super("Character limit reached");
+        }
+    }
+
+    private final StringBuilder out;
+    private final int maxChars;
+
+    private boolean inText;
+    private int runDepth;
+    private int cellDepth;
+
+    DocxTextHandler(StringBuilder out, int maxChars) {
+        this.out = out;
+        this.maxChars = maxChars;
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+        if (!W_NS.equals(uri)) {
+            return;
+        }
+        switch (localName) {
+            case "t":
+                inText = true;
+                break;
+            case "r":
+                runDepth++;
+                break;
+            case "tab":
+                // Also the element for tab stop definitions in <w:pPr><w:tabs>, which are not text
+                if (runDepth > 0) {
+                    append('\t');
+                }
+                break;
+            case "br":
+            case "cr":
+                append('\n');
+                break;
+            case "tc":
+                cellDepth++;
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) {
+        if (!W_NS.equals(uri)) {
+            return;
+        }
+        switch (localName) {
+            case "t":
+                inText = false;
+                break;
+            case "r":
+                runDepth--;
+                break;
+            case "p":
+                append(cellDepth > 0 ? ' ' : '\n');
+                break;
+            case "tc":
+                cellDepth--;
+                append('\t');
+                break;
+            case "tr":
+                append('\n');
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) throws SAXException {
+        if (!inText) {
+            return;
+        }
+        int room = maxChars - out.length();
+        out.append(ch, start, Math.min(length, Math.max(room, 0)));
+        if (length > room) {
+            throw new LimitReachedException();
+        }
+    }
+
+    private void append(char c) {
+        if (out.length() < maxChars) {
+            out.append(c);
+        }
+    }
+}
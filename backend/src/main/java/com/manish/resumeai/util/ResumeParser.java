@@ -1,53 +1,157 @@
 package com.manish.resumeai.util;
 
+import io.micrometer.common.KeyValue;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.output.StringBuilderWriter;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.RandomAccessReadMemoryMappedFile;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.openxml4j.opc.PackageRelationship;
+import org.apache.poi.openxml4j.opc.PackageRelationshipTypes;
+import org.apache.poi.util.XMLHelper;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRelation;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 import org.apache.pdfbox.Loader;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
 
+import javax.xml.parsers.ParserConfigurationException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Component
 public class ResumeParser {
 
     /**
-     * Extract text from uploaded resume file (PDF or DOCX)
+     * STREAMING parses the staged file with bounded memory;
+     * IN_MEMORY reads the whole file into the heap first.
      */
-    public String extractText(MultipartFile file) throws IOException {
-        String filename = file.getOriginalFilename();
-        
-        if (filename == null) {
-            throw new IllegalArgumentException("Filename cannot be null");
+    public enum Mode {
+        STREAMING, IN_MEMORY
+    }
+
+    private static final KeyValue STREAMING_TAG = KeyValue.of("mode", Mode.STREAMING.name());
+    private static final KeyValue IN_MEMORY_TAG = KeyValue.of("mode", Mode.IN_MEMORY.name());
+
+    private final ObservationRegistry observationRegistry;
+    private final Map<Format, DistributionSummary> fileSizes = new EnumMap<>(Format.class);
+    private final Map<Format, Map<Mode, DistributionSummary>> allocations = new EnumMap<>(Format.class);
+
+    @Value("${resume.parser.mode:STREAMING}")
+    private Mode mode;
+
+    @Value("${resume.parser.max-pages:0}")
+    private int maxPages;
+
+    @Value("${resume.parser.max-chars:200000}")
+    private int maxChars;
+
+    @Value("${resume.parser.pdf-memory:4MB}")
+    private DataSize pdfMemory;
+
+    public ResumeParser(MeterRegistry meterRegistry, ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+        for (Format format : Format.values()) {
+            fileSizes.put(format, DistributionSummary.builder("resume.parse.bytes")
+                    .description("Size of each uploaded file whose text was extracted")
+                    .baseUnit("bytes")
+                    .tag("format", format.name())
+                    .register(meterRegistry));
+            Map<Mode, DistributionSummary> byMode = new EnumMap<>(Mode.class);
+            for (Mode parseMode : Mode.values()) {
+                byMode.put(parseMode, DistributionSummary.builder("resume.parse.allocated")
+                        .description("Heap allocated while extracting text from one upload")
+                        .baseUnit("bytes")
+                        .tag("format", format.name())
+                        .tag("mode", parseMode.name())
+                        .register(meterRegistry));
+            }
+            allocations.put(format, byMode);
         }
+    }
+
+    /**
+     * Move the upload to a temp file the caller owns and must delete. Multipart
+     * uploads already sit on disk, so this is normally a rename, not a copy.
+     */
+    public Path stageUpload(MultipartFile file) throws IOException {
+        Path staged = Files.createTempFile("resume-", ".upload");
+        try {
+            file.transferTo(staged.toFile());
+            return staged;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(staged);
+            throw e;
+        }
+    }
+
+    /**
+     * Extract text from a resume file on disk, using the filename to pick the format
+     */
+    public String extractText(Path path, String filename) throws IOException {
+        Format format = format(filename);
+        fileSizes.get(format).record(Files.size(path));
         
-        String lowerFilename = filename.toLowerCase();
-        
-        if (lowerFilename.endsWith(".pdf")) {
-            return extractFromPDF(file.getInputStream());
-        } else if (lowerFilename.endsWith(".docx")) {
-            return extractFromDOCX(file.getInputStream());
-        } else {
-            throw new IllegalArgumentException(
-                "Unsupported file format. Please upload PDF or DOCX file."
-            );
+        if (mode == Mode.IN_MEMORY) {
+            try (InputStream in = Files.newInputStream(path)) {
+                return measured(format, () -> format == Format.PDF ? extractFromPDF(in) : extractFromDOCX(in));
+            }
         }
+        return measured(format, () -> format == Format.PDF ? extractFromPDF(path) : extractFromDOCX(path));
     }
 
     /**
      * Extract text from PDF file
      */
-    private String extractFromPDF(InputStream inputStream) throws IOException {
+    public String extractFromPDF(InputStream inputStream) throws IOException {
         try (PDDocument document = Loader.loadPDF(inputStream.readAllBytes())) {
             PDFTextStripper stripper = new PDFTextStripper();
             String text = stripper.getText(document);
-            log.info("Extracted {} characters from PDF", text.length());
+            log.debug("Extracted {} characters from PDF", text.length());
+            return text;
+        }
+    }
+
+    /**
+     * Extract text from a PDF file on disk. The file is memory-mapped, PDFBox
+     * spills its stream cache to a scratch file beyond the configured budget,
+     * and pages are stripped one at a time until the page or character cap.
+     */
+    public String extractFromPDF(Path path) throws IOException {
+        MemoryUsageSetting memory = MemoryUsageSetting.setupMixed(pdfMemory.toBytes());
+        try (PDDocument document = Loader.loadPDF(new RandomAccessReadMemoryMappedFile(path), memory.streamCache)) {
+            StringBuilderWriter out = new StringBuilderWriter(Math.min(maxChars, 16 * 1024));
+            CappedTextStripper stripper = new CappedTextStripper(out.getBuilder(), maxChars);
+            if (maxPages > 0) {
+                stripper.setEndPage(maxPages);
+            }
+            stripper.writeText(document, out);
+
+            String text = truncate(out.getBuilder());
+            log.debug("Extracted {} characters from PDF ({} pages)", text.length(), document.getNumberOfPages());
             return text;
         }
     }
@@ -55,7 +159,7 @@ public class ResumeParser {
     /**
      * Extract text from DOCX file
      */
-    private String extractFromDOCX(InputStream inputStream) throws IOException {
+    public String extractFromDOCX(InputStream inputStream) throws IOException {
         try (XWPFDocument document = new XWPFDocument(inputStream)) {
             StringBuilder text = new StringBuilder();
             List<XWPFParagraph> paragraphs = document.getParagraphs();
@@ -64,11 +168,90 @@ public class ResumeParser {
                 text.append(paragraph.getText()).append("\n");
             }
             
-            log.info("Extracted {} characters from DOCX", text.length());
+            log.debug("Extracted {} characters from DOCX", text.length());
             return text.toString();
         }
     }
 
+    /**
+     * Extract text from a DOCX file on disk with a SAX pass over the headers,
+     * the document body (including tables) and the footers, without building
+     * the POI object model.
+     */
+    public String extractFromDOCX(Path path) throws IOException {
+        StringBuilder text = new StringBuilder(Math.min(maxChars, 16 * 1024));
+        try (OPCPackage pkg = OPCPackage.open(path.toFile(), PackageAccess.READ)) {
+            for (PackageRelationship relationship : pkg.getRelationshipsByType(PackageRelationshipTypes.CORE_DOCUMENT)) {
+                PackagePart main = pkg.getPart(relationship);
+                XMLReader reader = XMLHelper.newXMLReader();
+                reader.setContentHandler(new DocxTextHandler(text, maxChars));
+
+                parseRelated(reader, main, XWPFRelation.HEADER.getRelation());
+                parsePart(reader, main);
+                parseRelated(reader, main, XWPFRelation.FOOTER.getRelation());
+            }
+        } catch (DocxTextHandler.LimitReachedException e) {
+            log.info("DOCX text truncated at {} characters", maxChars);
+        } catch (InvalidFormatException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Could not read DOCX file", e);
+        }
+
+        log.debug("Extracted {} characters from DOCX", text.length());
+        return text.toString();
+    }
+
+    private void parseRelated(XMLReader reader, PackagePart part, String relationType)
+            throws IOException, SAXException, InvalidFormatException {
+        for (PackageRelationship relationship : part.getRelationshipsByType(relationType)) {
+            parsePart(reader, part.getRelatedPart(relationship));
+        }
+    }
+
+    private void parsePart(XMLReader reader, PackagePart part) throws IOException, SAXException {
+        try (InputStream in = part.getInputStream()) {
+            reader.parse(new InputSource(in));
+        }
+    }
+
+    private String truncate(StringBuilder text) {
+        if (text.length() > maxChars) {
+            log.info("Text truncated at {} characters", maxChars);
+            text.setLength(maxChars);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Run the extraction as a {@code resume.parse.extract} observation (a timer
+     * tagged by format and mode, and a span when tracing) and report how many
+     * bytes the calling thread allocated for it, which approximates the
+     * upload's heap footprint.
+     */
+    private String measured(Format format, Extraction extraction) throws IOException {
+        long before = allocatedBytes();
+        String text = Observation.createNotStarted("resume.parse.extract", observationRegistry)
+                .contextualName(format.spanName)
+                .lowCardinalityKeyValue(format.tag)
+                .lowCardinalityKeyValue(mode == Mode.IN_MEMORY ? IN_MEMORY_TAG : STREAMING_TAG)
+                .observeChecked(extraction::extract);
+        long after = allocatedBytes();
+
+        if (before >= 0 && after >= 0) {
+            long allocated = after - before;
+            allocations.get(format).get(mode).record(allocated);
+            log.debug("{} extraction ({} mode) allocated {} KB", format, mode, allocated / 1024);
+        }
+        return text;
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
     /**
      * Validate if file is a supported resume format
      */
@@ -82,7 +265,63 @@ public class ResumeParser {
             return false;
         }
         
+        return isSupportedFormat(filename);
+    }
+
+    /**
+     * Whether the filename has a supported resume extension
+     */
+    public boolean isSupportedFormat(String filename) {
         String lower = filename.toLowerCase();
         return lower.endsWith(".pdf") || lower.endsWith(".docx");
     }
+
+    private static Format format(String filename) {
+        String lowerFilename = filename.toLowerCase();
+        
+        if (lowerFilename.endsWith(".pdf")) {
+            return Format.PDF;
+        } else if (lowerFilename.endsWith(".docx")) {
+            return Format.DOCX;
+        } else {
+            throw new IllegalArgumentException(
+                "Unsupported file format. Please upload PDF or DOCX file."
+            );
+        }
+    }
+
+    private enum Format {
+        PDF, DOCX;
+
+        // Built once so observing a parse formats no strings
+        final KeyValue tag = KeyValue.of("format", name());
+        final String spanName = "extract " + name().toLowerCase();
+    }
+
+    @FunctionalInterface
+    private interface Extraction {
+        String extract() throws IOException;
+    }
+
+    /**
+     * Skips the remaining pages once enough text has been collected.
+     */
+    private static final class CappedTextStripper extends PDFTextStripper {
+
+        private final StringBuilder out;
+        private final int maxChars;
+
+        CappedTextStripper(StringBuilder out, int maxChars) {
+            this.out = out;
+            this.maxChars = maxChars;
+        }
+
+        @Override
+        public void processPage(PDPage page) throws IOException {
+            if (out.length() < maxChars) {
+                super.processPage(page);
+            }
+        }
+    }
+
 }
@@ -0,0 +1,21 @@
+package com.manish.resumeai.util;
+
+/**
+ * Rough token counts for budgeting prompts without a tokenizer: English prose
+ * averages about four characters per token.
+ */
+public final class TokenEstimator {
+
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private TokenEstimator() {
+    }
+
+    public static int tokens(int chars) {
+        return (chars + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    public static int chars(int tokens) {
+        return tokens * CHARS_PER_TOKEN;
+    }
+}
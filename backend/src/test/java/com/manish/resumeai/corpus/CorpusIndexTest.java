@@ -0,0 +1,270 @@
+package com.manish.resumeai.corpus;
+
+import com.manish.resumeai.retrieval.Tokenizer;
+import com.manish.resumeai.session.CompactText;
+import com.manish.resumeai.session.ResumeDocument;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class CorpusIndexTest {
+
+    // Made-up words, so no skills are recognized and only plain BM25 applies
+    private static final int VOCABULARY = 40;
+    private static final String JOB = "w1 w2 w2 w3 w17 w33 unknownterm";
+
+    private final List<CorpusIndex> indexes = new ArrayList<>();
+    // The live corpus, kept alongside the index for the brute-force scan
+    private final Map<String, String> texts = new LinkedHashMap<>();
+
+    @AfterEach
+    void shutDown() {
+        indexes.forEach(CorpusIndex::destroy);
+    }
+
+    @Test
+    void ranksLikeABruteForceScan() {
+        CorpusIndex index = index(1_000_000);
+        addDocuments(index, 0, 150);
+
+        assertMatchesBruteForce(index.search(JOB, 10));
+    }
+
+    @Test
+    void partitionedSearchMergesToTheSameRanking() {
+        CorpusIndex single = index(1_000_000);
+        CorpusIndex partitioned = index(7);
+        addDocuments(single, 0, 150);
+        for (int i = 0; i < 150; i++) {
+            partitioned.add(document(i), "f" + i + ".pdf", "s" + i);
+        }
+
+        List<CorpusIndex.Hit> hits = partitioned.search(JOB, 25);
+
+        assertThat(hits).isEqualTo(single.search(JOB, 25));
+        assertMatchesBruteForce(hits);
+    }
+
+    @Test
+    void limitLargerThanThePartitionsKeepsEveryMatch() {
+        CorpusIndex index = index(4);
+        addDocuments(index, 0, 30);
+
+        List<CorpusIndex.Hit> hits = index.search(JOB, 1000);
+
+        assertThat(hits).hasSize(bruteForce(1000).size());
+        assertMatchesBruteForce(hits);
+    }
+
+    @Test
+    void removedResumesAreNotReturnedBeforeCompaction() {
+        CorpusIndex index = index(16);
+        addDocuments(index, 0, 100);
+        for (int i = 0; i < 100; i += 3) {
+            remove(index, i);
+        }
+
+        List<String> found = ids(index.search(JOB, 1000));
+
+        assertThat(index.size()).isEqualTo(texts.size());
+        assertThat(found).doesNotContainAnyElementsOf(removedIds(100, 3))
+                .containsExactlyInAnyOrderElementsOf(ids(bruteForce(1000)));
+    }
+
+    @Test
+    void compactionKeepsTheRankingOfTheLiveResumes() {
+        CorpusIndex index = index(16);
+        addDocuments(index, 0, 200);
+        // Removing every other resume passes the compaction threshold
+        for (int i = 0; i < 200; i += 2) {
+            remove(index, i);
+        }
+        long compacted = index.retainedBytes();
+
+        assertThat(index.size()).isEqualTo(100);
+        assertMatchesBruteForce(index.search(JOB, 20));
+
+        // New resumes get ids after the compacted ones
+        addDocuments(index, 200, 240);
+        assertThat(index.retainedBytes()).isGreaterThan(compacted);
+        assertMatchesBruteForce(index.search(JOB, 20));
+    }
+
+    @Test
+    void resumeStaysWhileAnySessionRefersToIt() {
+        CorpusIndex index = index(1_000_000);
+        index.add(document(1), "f1.pdf", "first");
+        index.add(document(1), "f1-again.pdf", "second");
+
+        assertThat(index.size()).isEqualTo(1);
+        index.removeSession("first");
+        assertThat(index.size()).isEqualTo(1);
+        index.removeSession("second");
+        assertThat(index.size()).isZero();
+        assertThat(index.search(JOB, 10)).isEmpty();
+    }
+
+    @Test
+    void removingAnUnknownSessionDoesNothing() {
+        CorpusIndex index = index(1_000_000);
+        index.add(document(1), "f1.pdf", "s1");
+
+        index.removeSession("never-added");
+        index.removeSession("s1");
+        index.removeSession("s1");
+
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void fullCorpusIndexesNothingMore() {
+        CorpusIndex index = new CorpusIndex(true, 2, 1, 1_000_000, new SimpleMeterRegistry());
+        indexes.add(index);
+        index.add(document(1), "f1.pdf", "s1");
+        index.add(document(2), "f2.pdf", "s2");
+        index.add(document(3), "f3.pdf", "s3");
+
+        assertThat(index.size()).isEqualTo(2);
+
+        index.removeSession("s1");
+        index.add(document(3), "f3.pdf", "s3");
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void disabledCorpusIgnoresResumes() {
+        CorpusIndex index = new CorpusIndex(false, 100, 1, 16, new SimpleMeterRegistry());
+        indexes.add(index);
+
+        index.add(document(1), "f1.pdf", "s1");
+
+        assertThat(index.size()).isZero();
+    }
+
+    private CorpusIndex index(int partitionSize) {
+        CorpusIndex index = new CorpusIndex(true, 100_000, 3, partitionSize, new SimpleMeterRegistry());
+        indexes.add(index);
+        return index;
+    }
+
+    private void addDocuments(CorpusIndex index, int from, int to) {
+        for (int i = from; i < to; i++) {
+            index.add(document(i), "f" + i + ".pdf", "s" + i);
+            texts.put(hash(i), text(i));
+        }
+    }
+
+    private void remove(CorpusIndex index, int i) {
+        index.removeSession("s" + i);
+        texts.remove(hash(i));
+    }
+
+    private void assertMatchesBruteForce(List<CorpusIndex.Hit> hits) {
+        List<Scored> expected = bruteForce(hits.size());
+        assertThat(ids(hits)).isEqualTo(ids(expected));
+        for (int i = 0; i < hits.size(); i++) {
+            assertThat(hits.get(i).score()).isCloseTo(expected.get(i).score(), within(0.006));
+        }
+    }
+
+    /**
+     * BM25 of every live resume against the job description, computed from
+     * the texts alone.
+     */
+    private List<Scored> bruteForce(int limit) {
+        Map<String, Integer> queryCounts = counts(JOB);
+        Map<String, Map<String, Integer>> frequencies = new HashMap<>();
+        Map<String, Integer> lengths = new HashMap<>();
+        Map<String, Integer> documentFrequencies = new HashMap<>();
+        long totalLength = 0;
+        for (Map.Entry<String, String> entry : texts.entrySet()) {
+            Map<String, Integer> counts = counts(entry.getValue());
+            frequencies.put(entry.getKey(), counts);
+            int length = counts.values().stream().mapToInt(Integer::intValue).sum();
+            lengths.put(entry.getKey(), length);
+            totalLength += length;
+            counts.keySet().forEach(term -> documentFrequencies.merge(term, 1, Integer::sum));
+        }
+        int n = texts.size();
+        double averageLength = (double) totalLength / n;
+
+        List<Scored> scored = new ArrayList<>();
+        for (String document : texts.keySet()) {
+            double score = 0;
+            for (Map.Entry<String, Integer> query : queryCounts.entrySet()) {
+                Integer tf = frequencies.get(document).get(query.getKey());
+                if (tf == null) {
+                    continue;
+                }
+                int df = documentFrequencies.get(query.getKey());
+                double idf = Math.log(1 + (n - df + 0.5) / (df + 0.5));
+                double norm = 1.2 * (1 - 0.75 + 0.75 * lengths.get(document) / averageLength);
+                score += (1 + Math.log(query.getValue())) * idf * tf * 2.2 / (tf + norm);
+            }
+            if (score > 0) {
+                scored.add(new Scored(document, score));
+            }
+        }
+        scored.sort(Comparator.comparingDouble(Scored::score).reversed());
+        return scored.subList(0, Math.min(limit, scored.size()));
+    }
+
+    private static Map<String, Integer> counts(String text) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String term : Tokenizer.tokenize(text)) {
+            counts.merge(term, 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    private static ResumeDocument document(int i) {
+        return new ResumeDocument(hash(i), CompactText.encode(text(i), CompactText.Encoding.UTF8));
+    }
+
+    private static String hash(int i) {
+        return String.format("%064x", i);
+    }
+
+    /**
+     * Twenty to sixty made-up words drawn with a skew, so term frequencies
+     * and lengths vary from resume to resume.
+     */
+    private static String text(int i) {
+        Random random = new Random(i);
+        int words = 20 + random.nextInt(40);
+        StringBuilder text = new StringBuilder();
+        for (int w = 0; w < words; w++) {
+            double u = random.nextDouble();
+            text.append('w').append((int) (u * u * VOCABULARY)).append(' ');
+        }
+        return text.toString();
+    }
+
+    private static List<String> removedIds(int to, int step) {
+        List<String> removed = new ArrayList<>();
+        for (int i = 0; i < to; i += step) {
+            removed.add(hash(i));
+        }
+        return removed;
+    }
+
+    private static List<String> ids(List<?> hits) {
+        return hits.stream()
+                .map(hit -> hit instanceof CorpusIndex.Hit h ? h.documentId() : ((Scored) hit).document())
+                .toList();
+    }
+
+    private record Scored(String document, double score) {
+    }
+}
@@ -0,0 +1,66 @@
+package com.manish.resumeai.corpus;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostingsTest {
+
+    @Test
+    void keepsPostingsInOrderPastTheInitialCapacity() {
+        Postings postings = postings(1, 3, 5, 7, 9, 11, 13);
+
+        assertThat(postings.size()).isEqualTo(7);
+        assertThat(postings.document(6)).isEqualTo(13);
+        assertThat(postings.frequency(6)).isEqualTo(130);
+    }
+
+    @Test
+    void lowerBoundFindsTheFirstPostingAtOrAboveAnId() {
+        Postings postings = postings(2, 4, 6, 8);
+
+        assertThat(postings.lowerBound(0)).isZero();
+        assertThat(postings.lowerBound(2)).isZero();
+        assertThat(postings.lowerBound(3)).isEqualTo(1);
+        assertThat(postings.lowerBound(8)).isEqualTo(3);
+        assertThat(postings.lowerBound(9)).as("past the end").isEqualTo(4);
+        assertThat(new Postings().lowerBound(5)).isZero();
+    }
+
+    @Test
+    void containsOnlyTheAddedIds() {
+        Postings postings = postings(2, 4, 6, 8);
+
+        assertThat(postings.contains(4)).isTrue();
+        assertThat(postings.contains(5)).isFalse();
+        assertThat(postings.contains(9)).isFalse();
+    }
+
+    @Test
+    void remapRenumbersAndDropsRemovedDocuments() {
+        Postings postings = postings(0, 2, 3, 5);
+        // Documents 1 and 3 were removed
+        int[] remap = {0, -1, 1, -1, 2, 3};
+
+        Postings mapped = postings.remap(remap);
+
+        assertThat(mapped.size()).isEqualTo(3);
+        assertThat(new int[] {mapped.document(0), mapped.document(1), mapped.document(2)}).containsExactly(0, 1, 3);
+        assertThat(new int[] {mapped.frequency(0), mapped.frequency(1), mapped.frequency(2)})
+                .as("frequencies follow their documents")
+                .containsExactly(0, 20, 50);
+    }
+
+    @Test
+    void remapCanEmptyAList() {
+        assertThat(postings(1).remap(new int[] {0, -1}).size()).isZero();
+    }
+
+    private static Postings postings(int... documents) {
+        Postings postings = new Postings();
+        for (int document : documents) {
+            postings.add(document, document * 10);
+        }
+        return postings;
+    }
+}
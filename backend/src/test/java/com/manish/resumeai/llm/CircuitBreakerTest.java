@@ -0,0 +1,124 @@
+package com.manish.resumeai.llm;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private static final Duration OPEN = Duration.ofMillis(50);
+
+    // Opens at 50% failures over the last 4 calls, once 4 calls were seen; 2 trial calls
+    private final CircuitBreaker breaker = new CircuitBreaker(50, 4, 4, OPEN, 2);
+
+    @Test
+    void staysClosedUntilTheMinimumNumberOfCalls() {
+        fail(3);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void opensAtTheFailureRateThreshold() {
+        succeed(2);
+        fail(1);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        fail(1);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.remainingOpen()).isPositive().isLessThanOrEqualTo(OPEN);
+    }
+
+    @Test
+    void onlyCountsTheLastWindowOfCalls() {
+        fail(1);
+        succeed(3);
+        // The early failure has left the window: 1 failure in the last 4
+        succeed(1);
+        fail(1);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void closesWhenAllTrialCallsSucceed() throws InterruptedException {
+        open();
+        Thread.sleep(OPEN.toMillis() + 20);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).as("only two trial calls").isFalse();
+
+        breaker.onSuccess();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        breaker.onSuccess();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.remainingOpen()).isZero();
+    }
+
+    @Test
+    void reopensWhenATrialCallFails() throws InterruptedException {
+        open();
+        Thread.sleep(OPEN.toMillis() + 20);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onFailure();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void ignoredTrialCallFreesItsSlot() throws InterruptedException {
+        open();
+        Thread.sleep(OPEN.toMillis() + 20);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onIgnored();
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+    }
+
+    @Test
+    void startsAFreshWindowAfterClosing() throws InterruptedException {
+        open();
+        Thread.sleep(OPEN.toMillis() + 20);
+        breaker.tryAcquire();
+        breaker.tryAcquire();
+        breaker.onSuccess();
+        breaker.onSuccess();
+
+        // The failures that opened it are forgotten
+        fail(3);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    private void open() {
+        fail(4);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    private void succeed(int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertThat(breaker.tryAcquire()).isTrue();
+            breaker.onSuccess();
+        }
+    }
+
+    private void fail(int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertThat(breaker.tryAcquire()).isTrue();
+            breaker.onFailure();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.manish.resumeai.llm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FairQueueTest {
+
+    @Test
+    void servesKeysInTurnWhateverTheirBacklog() {
+        FairQueue<String> queue = new FairQueue<>(key -> 1.0);
+        queue.offer("a", "a1");
+        queue.offer("a", "a2");
+        queue.offer("a", "a3");
+        queue.offer("b", "b1");
+
+        assertThat(drain(queue)).containsExactly("a1", "b1", "a2", "a3");
+    }
+
+    @Test
+    void servesKeysInProportionToTheirWeights() {
+        FairQueue<String> queue = new FairQueue<>(Map.of("a", 2.0, "b", 1.0)::get);
+        for (int i = 1; i <= 4; i++) {
+            queue.offer("a", "a" + i);
+            queue.offer("b", "b" + i);
+        }
+
+        assertThat(drain(queue)).containsExactly("a1", "a2", "b1", "a3", "a4", "b2", "b3", "b4");
+    }
+
+    @Test
+    void servesAFractionalWeightEveryFewRounds() {
+        FairQueue<String> queue = new FairQueue<>(Map.of("a", 1.0, "bg", 0.5)::get);
+        for (int i = 1; i <= 4; i++) {
+            queue.offer("a", "a" + i);
+        }
+        queue.offer("bg", "bg1");
+        queue.offer("bg", "bg2");
+
+        assertThat(drain(queue)).containsExactly("a1", "a2", "bg1", "a3", "a4", "bg2");
+    }
+
+    @Test
+    void tracksSizesPerKey() {
+        FairQueue<String> queue = new FairQueue<>(key -> 1.0);
+        assertThat(queue.isEmpty()).isTrue();
+        assertThat(queue.poll()).isNull();
+
+        queue.offer("a", "a1");
+        queue.offer("a", "a2");
+        queue.offer("b", "b1");
+
+        assertThat(queue.size()).isEqualTo(3);
+        assertThat(queue.size("a")).isEqualTo(2);
+        assertThat(queue.size("c")).isZero();
+        assertThat(queue.keys()).isEqualTo(2);
+
+        drain(queue);
+        assertThat(queue.isEmpty()).isTrue();
+        assertThat(queue.keys()).isZero();
+    }
+
+    @Test
+    void removesCancelledItems() {
+        FairQueue<String> queue = new FairQueue<>(key -> 1.0);
+        queue.offer("a", "a1");
+        queue.offer("a", "a2");
+        queue.offer("b", "b1");
+
+        assertThat(queue.remove("a", "a1")).isTrue();
+        assertThat(queue.remove("b", "b1")).isTrue();
+        assertThat(queue.remove("b", "b1")).as("already removed").isFalse();
+        assertThat(queue.remove("c", "c1")).isFalse();
+
+        assertThat(queue.size()).isEqualTo(1);
+        assertThat(queue.keys()).as("b has nothing left waiting").isEqualTo(1);
+        assertThat(drain(queue)).containsExactly("a2");
+    }
+
+    @Test
+    void keyThatEmptiesStartsAgainWithoutCredit() {
+        FairQueue<String> queue = new FairQueue<>(Map.of("a", 2.0, "b", 1.0)::get);
+        queue.offer("a", "a1");
+        assertThat(queue.poll()).isEqualTo("a1");
+
+        // a left with unused credit; rejoining puts it behind b with a fresh turn
+        queue.offer("b", "b1");
+        queue.offer("b", "b2");
+        queue.offer("a", "a2");
+        queue.offer("a", "a3");
+        queue.offer("a", "a4");
+
+        assertThat(drain(queue)).containsExactly("b1", "a2", "a3", "b2", "a4");
+    }
+
+    private static List<String> drain(FairQueue<String> queue) {
+        List<String> items = new ArrayList<>();
+        String item;
+        while ((item = queue.poll()) != null) {
+            items.add(item);
+        }
+        return items;
+    }
+}
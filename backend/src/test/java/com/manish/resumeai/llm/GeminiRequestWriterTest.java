@@ -0,0 +1,90 @@
+package com.manish.resumeai.llm;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GeminiRequestWriterTest {
+
+    private static final String INSTRUCTIONS = "Answer about the \"resume\" below.\nUse C:\\plain\\text only.";
+    private static final String RESUME = "Jürgen Müller — Zürich\r\n\tSkills: \"C++\", \\u0041, bell\u0007 nul\u0000 日本語 🚀";
+    private static final String QUESTION = "What's \"new\"?\n\\ end \u001b";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final GeminiRequestWriter writer = new GeminiRequestWriter(objectMapper);
+
+    @Test
+    void writesThePromptTextExactly() throws IOException {
+        Prompt prompt = new Prompt()
+                .append(PromptSegment.of(INSTRUCTIONS))
+                .append("\n\nQuestion: ")
+                .append(QUESTION)
+                .append(PromptSegment.of(RESUME))
+                .append(QUESTION);
+
+        JsonNode body = write(GeminiRequest.of(prompt, 0.7, 2048));
+
+        assertThat(body.at("/contents/0/parts/0/text").textValue())
+                .isEqualTo(INSTRUCTIONS + "\n\nQuestion: " + QUESTION + RESUME + QUESTION);
+    }
+
+    @Test
+    void writesPlainTextPrompts() throws IOException {
+        JsonNode body = write(GeminiRequest.of(QUESTION, 0.7, 2048));
+
+        assertThat(body.at("/contents/0/parts/0/text").textValue()).isEqualTo(QUESTION);
+    }
+
+    @Test
+    void writesAnEmptyPrompt() throws IOException {
+        JsonNode body = write(GeminiRequest.of(new Prompt(), 0.7, 2048));
+
+        assertThat(body.at("/contents/0/parts/0/text").textValue()).isEmpty();
+    }
+
+    @Test
+    void writesTheGenerationConfigAfterThePrompt() throws IOException {
+        JsonNode body = write(GeminiRequest.of(Prompt.of(QUESTION).append(PromptSegment.of(RESUME)), 0.2, 512));
+
+        assertThat(body.at("/generationConfig/temperature").doubleValue()).isEqualTo(0.2);
+        assertThat(body.at("/generationConfig/maxOutputTokens").intValue()).isEqualTo(512);
+        assertThat(body.at("/generationConfig/responseMimeType").isMissingNode()).isTrue();
+    }
+
+    @Test
+    void writesTheResponseSchemaForJsonOutput() throws IOException {
+        Map<String, Object> schema = Map.of("type", "OBJECT", "properties", Map.of("score", Map.of("type", "NUMBER")));
+        GeminiRequest request = GeminiRequest.of(Prompt.of(QUESTION).append(PromptSegment.of(RESUME)), 0.0, 256)
+                .withJsonOutput(schema);
+
+        JsonNode body = write(request);
+
+        assertThat(body.at("/contents/0/parts/0/text").textValue()).isEqualTo(QUESTION + RESUME);
+        assertThat(body.at("/generationConfig/responseMimeType").textValue()).isEqualTo("application/json");
+        assertThat(body.at("/generationConfig/responseSchema")).isEqualTo(objectMapper.valueToTree(schema));
+    }
+
+    @Test
+    void leavesTheStreamOpen() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.write(GeminiRequest.of("first", 0.7, 16), out);
+        out.write('\n');
+        writer.write(GeminiRequest.of("second", 0.7, 16), out);
+
+        String[] bodies = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(objectMapper.readTree(bodies[1]).at("/contents/0/parts/0/text").textValue()).isEqualTo("second");
+    }
+
+    private JsonNode write(GeminiRequest request) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.write(request, out);
+        return objectMapper.readTree(out.toByteArray());
+    }
+}
@@ -0,0 +1,173 @@
+package com.manish.resumeai.llm;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GeminiResponseParserTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GeminiResponseParser parser = new GeminiResponseParser(new ObjectMapper(), meterRegistry);
+
+    @Test
+    void readsAFinishedResponse() throws IOException {
+        GeminiResponse response = parser.parse("""
+                {
+                  "candidates": [{
+                    "content": {"role": "model", "parts": [{"text": "Strong backend \\"ownership\\".\\n"}]},
+                    "finishReason": "STOP",
+                    "safetyRatings": [{"category": "HARM_CATEGORY_HARASSMENT", "probability": "NEGLIGIBLE"}]
+                  }],
+                  "usageMetadata": {"promptTokenCount": 812, "candidatesTokenCount": 57, "totalTokenCount": 869},
+                  "modelVersion": "gemini-2.0-flash"
+                }
+                """);
+
+        assertThat(response.text()).isEqualTo("Strong backend \"ownership\".\n");
+        assertThat(response.finishReason()).isEqualTo("STOP");
+        assertThat(response.isFinished()).isTrue();
+        assertThat(response.promptTokens()).isEqualTo(812);
+        assertThat(response.outputTokens()).isEqualTo(57);
+    }
+
+    @Test
+    void joinsTheTextOfEveryPart() throws IOException {
+        String text = parser.extractText("""
+                {"candidates": [{"content": {"parts": [
+                  {"text": "First, "},
+                  {"inlineData": {"mimeType": "image/png", "data": "AAAA"}},
+                  {"text": "then "},
+                  {"functionCall": {"name": "lookup", "args": {"parts": [{"text": "not an answer"}]}}},
+                  {"text": "done."}
+                ]}}]}
+                """);
+
+        assertThat(text).isEqualTo("First, then done.");
+    }
+
+    @Test
+    void onlyTheFirstCandidateCounts() throws IOException {
+        GeminiResponse response = parser.parse("""
+                {"candidates": [
+                  {"content": {"parts": [{"text": "first"}]}, "finishReason": "STOP"},
+                  {"content": {"parts": [{"text": "second"}]}, "finishReason": "MAX_TOKENS"}
+                ]}
+                """);
+
+        assertThat(response.text()).isEqualTo("first");
+        assertThat(response.finishReason()).isEqualTo("STOP");
+    }
+
+    @Test
+    void fieldOrderDoesNotMatter() throws IOException {
+        GeminiResponse response = parser.parse("""
+                {"usageMetadata": {"candidatesTokenCount": 3, "promptTokenCount": 9},
+                 "candidates": [{"finishReason": "STOP", "index": 0, "content": {"parts": [{"text": "ok"}], "role": "model"}}]}
+                """);
+
+        assertThat(response).isEqualTo(new GeminiResponse("ok", "STOP", 9, 3));
+    }
+
+    @Test
+    void blockedPromptHasNoText() throws IOException {
+        GeminiResponse response = parser.parse("""
+                {"promptFeedback": {"blockReason": "SAFETY", "safetyRatings": [{"category": "HARM_CATEGORY_DANGEROUS_CONTENT", "probability": "HIGH"}]},
+                 "usageMetadata": {"promptTokenCount": 20, "totalTokenCount": 20}}
+                """);
+
+        assertThat(response.text()).isNull();
+        assertThat(response.isFinished()).isFalse();
+    }
+
+    @Test
+    void candidateStoppedForSafetyHasNoText() throws IOException {
+        GeminiResponse response = parser.parse("""
+                {"candidates": [{"finishReason": "SAFETY", "safetyRatings": [{"category": "HARM_CATEGORY_HARASSMENT", "probability": "HIGH"}]}]}
+                """);
+
+        assertThat(response.text()).isNull();
+        assertThat(response.finishReason()).isEqualTo("SAFETY");
+    }
+
+    @Test
+    void emptyCandidatesAndPartsHaveNoText() throws IOException {
+        assertThat(parser.extractText("{\"candidates\": []}")).isNull();
+        assertThat(parser.extractText("{\"candidates\": [{\"content\": {\"parts\": []}}]}")).isNull();
+        assertThat(parser.extractText("{\"candidates\": [{\"content\": {\"role\": \"model\"}}]}")).isNull();
+        assertThat(parser.extractText("{\"candidates\": [{\"content\": {\"parts\": [{\"text\": \"\"}]}}]}")).isEmpty();
+    }
+
+    @Test
+    void nonObjectBodyIsEmpty() throws IOException {
+        assertThat(parser.parse("[]")).isEqualTo(GeminiResponse.EMPTY);
+        assertThat(parser.parse("{}")).isEqualTo(GeminiResponse.EMPTY);
+    }
+
+    @Test
+    void truncatedJsonFails() {
+        assertThatThrownBy(() -> parser.parse("{\"candidates\": [{\"content\": {\"parts\": [{\"text\": \"cut of"))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void streamChunkBeforeTheLastIsNotFinished() throws IOException {
+        GeminiResponse chunk = parser.parse("""
+                {"candidates": [{"content": {"parts": [{"text": "Your migration"}], "role": "model"}}],
+                 "usageMetadata": {"promptTokenCount": 812, "totalTokenCount": 812}}
+                """);
+
+        assertThat(chunk.text()).isEqualTo("Your migration");
+        assertThat(chunk.isFinished()).isFalse();
+        assertThat(chunk.promptTokens()).isEqualTo(812);
+        assertThat(chunk.outputTokens()).isEqualTo(-1);
+    }
+
+    @Test
+    void tokenCountsAreRecordedOnlyForFinishedResponses() throws IOException {
+        parser.parse("""
+                {"candidates": [{"content": {"parts": [{"text": "Your "}]}}],
+                 "usageMetadata": {"promptTokenCount": 812, "candidatesTokenCount": 1}}
+                """);
+        parser.parse("""
+                {"candidates": [{"content": {"parts": [{"text": "migration"}]}}],
+                 "usageMetadata": {"promptTokenCount": 812, "candidatesTokenCount": 2}}
+                """);
+        assertThat(tokens("prompt").count()).as("nothing for unfinished chunks").isZero();
+
+        parser.parse("""
+                {"candidates": [{"content": {"parts": [{"text": " work."}]}, "finishReason": "STOP"}],
+                 "usageMetadata": {"promptTokenCount": 812, "candidatesTokenCount": 5, "totalTokenCount": 817}}
+                """);
+
+        assertThat(tokens("prompt").count()).isEqualTo(1);
+        assertThat(tokens("prompt").totalAmount()).isEqualTo(812);
+        assertThat(tokens("output").count()).isEqualTo(1);
+        assertThat(tokens("output").totalAmount()).isEqualTo(5);
+    }
+
+    @Test
+    void finishedResponseWithoutUsageRecordsNoTokens() throws IOException {
+        parser.parse("{\"candidates\": [{\"content\": {\"parts\": [{\"text\": \"ok\"}]}, \"finishReason\": \"STOP\"}]}");
+
+        assertThat(tokens("prompt").count()).isZero();
+        assertThat(tokens("output").count()).isZero();
+    }
+
+    @Test
+    void everyParseIsTimed() throws IOException {
+        parser.parse("{\"candidates\": []}");
+        parser.parse("[]");
+
+        assertThat(meterRegistry.get("llm.response.parse").timer().count()).isEqualTo(2);
+    }
+
+    private DistributionSummary tokens(String type) {
+        return meterRegistry.get("llm.tokens").tag("type", type).summary();
+    }
+}
@@ -0,0 +1,215 @@
+package com.manish.resumeai.llm;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LlmConcurrencyLimiterTest {
+
+    @Test
+    void shrinksTheLimitMultiplicativelyOnOverload() {
+        LlmConcurrencyLimiter limiter = adaptive(8, 2, 32);
+
+        fail(limiter, new TimeoutException());
+        assertThat(limiter.getLimit()).isEqualTo(6);
+
+        fail(limiter, new TimeoutException());
+        assertThat(limiter.getLimit()).isEqualTo(4);
+
+        for (int i = 0; i < 10; i++) {
+            fail(limiter, new TimeoutException());
+        }
+        assertThat(limiter.getLimit()).as("never below the minimum").isEqualTo(2);
+    }
+
+    @Test
+    void otherErrorsLeaveTheLimitAlone() {
+        LlmConcurrencyLimiter limiter = adaptive(8, 2, 32);
+
+        fail(limiter, new IllegalStateException("bad response"));
+
+        assertThat(limiter.getLimit()).isEqualTo(8);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void growsByAboutOnePerLimitsWorthOfSuccessesWhileInUse() {
+        LlmConcurrencyLimiter limiter = adaptive(2, 1, 32);
+        Sinks.One<String> first = start(limiter);
+
+        // Keep the limit in use: replace each completed call with a new one
+        Sinks.One<String> previous = first;
+        for (int i = 0; i < 3; i++) {
+            Sinks.One<String> next = start(limiter);
+            previous.tryEmitValue("answer");
+            previous = next;
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(3);
+    }
+
+    @Test
+    void doesNotGrowWhileMostOfTheLimitIsUnused() {
+        LlmConcurrencyLimiter limiter = adaptive(4, 1, 32);
+
+        for (int i = 0; i < 20; i++) {
+            start(limiter).tryEmitValue("answer");
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void neverGrowsPastTheMaximum() {
+        LlmConcurrencyLimiter limiter = adaptive(2, 1, 2);
+
+        for (int i = 0; i < 20; i++) {
+            Sinks.One<String> a = start(limiter);
+            Sinks.One<String> b = start(limiter);
+            a.tryEmitValue("answer");
+            b.tryEmitValue("answer");
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void callsOverTheLimitWaitForAPermit() {
+        LlmConcurrencyLimiter limiter = fixed(1, 8, 8);
+        Sinks.One<String> running = start(limiter);
+        Sinks.One<String> waiting = start(limiter);
+
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+        assertThat(limiter.getQueued()).isEqualTo(1);
+        assertThat(waiting.currentSubscriberCount()).as("not started yet").isZero();
+
+        running.tryEmitValue("answer");
+
+        assertThat(limiter.getQueued()).isZero();
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+        assertThat(waiting.currentSubscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsCallsOverTheQueueLimit() {
+        LlmConcurrencyLimiter limiter = fixed(1, 1, 8);
+        start(limiter);
+        start(limiter);
+
+        Throwable[] error = new Throwable[1];
+        limiter.execute(() -> Sinks.<String>one().asMono()).subscribe(value -> { }, e -> error[0] = e);
+
+        assertThat(error[0]).isInstanceOf(LlmCapacityExceededException.class)
+                .isNotInstanceOf(LlmQuotaExceededException.class);
+    }
+
+    @Test
+    void handsFreedPermitsToClientsInTurn() {
+        LlmConcurrencyLimiter limiter = fixed(1, 8, 8);
+        Sinks.One<String> running = start(limiter);
+        Sinks.One<String> a1 = start(limiter, "a").result();
+        Sinks.One<String> a2 = start(limiter, "a").result();
+        Sinks.One<String> a3 = start(limiter, "a").result();
+        Sinks.One<String> b1 = start(limiter, "b").result();
+        assertThat(limiter.getQueuedClients()).isEqualTo(2);
+
+        running.tryEmitValue("answer");
+        assertThat(a1.currentSubscriberCount()).isEqualTo(1);
+
+        a1.tryEmitValue("answer");
+        assertThat(b1.currentSubscriberCount()).as("b goes before a's backlog").isEqualTo(1);
+        assertThat(a2.currentSubscriberCount()).isZero();
+
+        b1.tryEmitValue("answer");
+        a2.tryEmitValue("answer");
+        assertThat(a3.currentSubscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    void refusesAClientWithTooManyCallsWaiting() {
+        LlmConcurrencyLimiter limiter = fixed(1, 8, 2);
+        start(limiter);
+        start(limiter, "a");
+        start(limiter, "a");
+
+        Call refused = start(limiter, "a");
+        Call other = start(limiter, "b");
+
+        assertThat(refused.error()[0]).isInstanceOf(LlmQuotaExceededException.class);
+        assertThat(other.error()[0]).isNull();
+        assertThat(limiter.getQueued()).isEqualTo(3);
+    }
+
+    @Test
+    void cancelledWaitingCallLeavesTheQueue() {
+        LlmConcurrencyLimiter limiter = fixed(1, 8, 8);
+        Sinks.One<String> running = start(limiter);
+        Call cancelled = start(limiter, "a");
+        Call next = start(limiter, "b");
+
+        cancelled.subscription().dispose();
+        assertThat(limiter.getQueued()).isEqualTo(1);
+
+        running.tryEmitValue("answer");
+        assertThat(cancelled.result().currentSubscriberCount()).as("never started").isZero();
+        assertThat(next.result().currentSubscriberCount()).isEqualTo(1);
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+    }
+
+    @Test
+    void cancelledRunningCallHandsItsPermitOn() {
+        LlmConcurrencyLimiter limiter = fixed(1, 8, 8);
+        Call running = start(limiter, "a");
+        Call waiting = start(limiter, "b");
+
+        running.subscription().dispose();
+
+        assertThat(running.result().currentSubscriberCount()).as("upstream call cancelled").isZero();
+        assertThat(waiting.result().currentSubscriberCount()).isEqualTo(1);
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+        assertThat(limiter.getQueued()).isZero();
+    }
+
+    private static LlmConcurrencyLimiter adaptive(int initialLimit, int minLimit, int maxConcurrent) {
+        return new LlmConcurrencyLimiter(maxConcurrent, 256, 32, 1.0, true, initialLimit, minLimit,
+                new SimpleMeterRegistry());
+    }
+
+    private static LlmConcurrencyLimiter fixed(int maxConcurrent, int maxQueued, int maxQueuedPerClient) {
+        return new LlmConcurrencyLimiter(maxConcurrent, maxQueued, maxQueuedPerClient, 1.0, false, 0, 0,
+                new SimpleMeterRegistry());
+    }
+
+    /**
+     * Start a call that stays in flight until the returned sink is completed.
+     */
+    private static Sinks.One<String> start(LlmConcurrencyLimiter limiter) {
+        Sinks.One<String> result = Sinks.one();
+        limiter.execute(result::asMono).subscribe(value -> { }, e -> { });
+        return result;
+    }
+
+    /**
+     * Start a call for a client, keeping its subscription and any error.
+     */
+    private static Call start(LlmConcurrencyLimiter limiter, String client) {
+        Sinks.One<String> result = Sinks.one();
+        Throwable[] error = new Throwable[1];
+        Disposable subscription = limiter.execute(result::asMono)
+                .contextWrite(new LlmCaller(client, null).context())
+                .subscribe(value -> { }, e -> error[0] = e);
+        return new Call(result, subscription, error);
+    }
+
+    private record Call(Sinks.One<String> result, Disposable subscription, Throwable[] error) {
+    }
+
+    private static void fail(LlmConcurrencyLimiter limiter, Throwable error) {
+        start(limiter).tryEmitError(error);
+    }
+}
@@ -0,0 +1,95 @@
+package com.manish.resumeai.llm;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PromptTest {
+
+    private static final String INSTRUCTIONS = "You are a \"resume\" assistant.\n\tAnswer in C:\\plain\\text.";
+    private static final String RESUME = "Jürgen Müller — Zürich\r\nSkills: C++, \"Go\", \\n literal\u0001\u001f 日本語 🚀";
+
+    @Test
+    void lengthCountsSegmentsAndText() {
+        Prompt prompt = new Prompt()
+                .append(PromptSegment.of(INSTRUCTIONS))
+                .append("Question: ")
+                .append("why?");
+
+        assertThat(prompt.length()).isEqualTo(INSTRUCTIONS.length() + "Question: why?".length());
+    }
+
+    @Test
+    void writesTheEscapedPromptWithoutQuotes() throws IOException {
+        Prompt prompt = new Prompt()
+                .append(PromptSegment.of(INSTRUCTIONS))
+                .append("Q: \"what's new?\"\n")
+                .append(PromptSegment.of(RESUME));
+
+        assertThat(json(prompt)).isEqualTo(
+                "You are a \\\"resume\\\" assistant.\\n\\tAnswer in C:\\\\plain\\\\text."
+                        + "Q: \\\"what's new?\\\"\\n"
+                        + "J\u00fcrgen M\u00fcller \u2014 Z\u00fcrich\\r\\nSkills: C++, \\\"Go\\\", \\\\n literal\\u0001\\u001F 日本語 🚀");
+    }
+
+    @Test
+    void identicalPromptsHaveTheSameKey() {
+        assertThat(prompt(INSTRUCTIONS, "What stands out?", RESUME).cacheKey("model", "0.7"))
+                .isEqualTo(prompt(INSTRUCTIONS, "What stands out?", RESUME).cacheKey("model", "0.7"));
+    }
+
+    @Test
+    void keyChangesWithAnySegment() {
+        String key = prompt(INSTRUCTIONS, "What stands out?", RESUME).cacheKey("model");
+
+        assertThat(prompt(INSTRUCTIONS + " ", "What stands out?", RESUME).cacheKey("model")).isNotEqualTo(key);
+        assertThat(prompt(INSTRUCTIONS, "What stands out?", RESUME + "!").cacheKey("model")).isNotEqualTo(key);
+    }
+
+    @Test
+    void keyChangesWithThePerCallText() {
+        String key = prompt(INSTRUCTIONS, "What stands out?", RESUME).cacheKey("model");
+
+        assertThat(prompt(INSTRUCTIONS, "What stands out? ", RESUME).cacheKey("model")).isNotEqualTo(key);
+        assertThat(prompt(INSTRUCTIONS, "what stands out?", RESUME).cacheKey("model")).isNotEqualTo(key);
+    }
+
+    @Test
+    void keyChangesWithTheSettings() {
+        Prompt prompt = prompt(INSTRUCTIONS, "What stands out?", RESUME);
+
+        assertThat(prompt.cacheKey("model", "0.7")).isNotEqualTo(prompt.cacheKey("model", "0.2"));
+        assertThat(prompt.cacheKey("model-a")).isNotEqualTo(prompt.cacheKey("model-b"));
+    }
+
+    @Test
+    void textMovedBetweenPartsChangesTheKey() {
+        String key = new Prompt().append("ab").append(PromptSegment.of("c")).cacheKey();
+
+        assertThat(new Prompt().append("a").append(PromptSegment.of("bc")).cacheKey()).isNotEqualTo(key);
+    }
+
+    @Test
+    void consecutiveTextIsOnePart() {
+        assertThat(new Prompt().append("What ").append("stands out?").cacheKey("model"))
+                .isEqualTo(Prompt.of("What stands out?").cacheKey("model"));
+    }
+
+    private static Prompt prompt(String instructions, String question, String resume) {
+        return new Prompt()
+                .append(PromptSegment.of(instructions))
+                .append("\n\nQuestion: ")
+                .append(question)
+                .append(PromptSegment.of(resume));
+    }
+
+    private static String json(Prompt prompt) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        prompt.writeJson(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
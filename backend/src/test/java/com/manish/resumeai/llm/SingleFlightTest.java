@@ -0,0 +1,171 @@
+package com.manish.resumeai.llm;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight singleFlight = new SingleFlight(meterRegistry);
+
+    @Test
+    void concurrentCallersShareOneCall() {
+        Sinks.One<String> upstream = Sinks.one();
+        AtomicInteger calls = new AtomicInteger();
+        List<String> first = new ArrayList<>();
+        List<String> second = new ArrayList<>();
+
+        singleFlight.execute("key", () -> counted(calls, upstream.asMono())).subscribe(first::add);
+        singleFlight.execute("key", () -> counted(calls, Mono.just("never asked"))).subscribe(second::add);
+        assertThat(calls).hasValue(1);
+        assertThat(inFlight()).isEqualTo(1);
+
+        upstream.tryEmitValue("answer");
+
+        assertThat(first).containsExactly("answer");
+        assertThat(second).containsExactly("answer");
+        assertThat(meterRegistry.get("llm.coalesced").counter().count()).isEqualTo(1);
+        assertThat(inFlight()).isZero();
+    }
+
+    @Test
+    void callersOnManyThreadsStillMakeOneCall() throws Exception {
+        int callers = 16;
+        Sinks.One<String> upstream = Sinks.one();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch ready = new CountDownLatch(callers);
+        CountDownLatch go = new CountDownLatch(1);
+        CountDownLatch subscribed = new CountDownLatch(callers);
+        ExecutorService threads = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> answers = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                answers.add(threads.submit(() -> {
+                    ready.countDown();
+                    go.await();
+                    return singleFlight.execute("key", () -> counted(calls, upstream.asMono()))
+                            .doOnSubscribe(subscription -> subscribed.countDown())
+                            .block(Duration.ofSeconds(5));
+                }));
+            }
+            ready.await();
+            go.countDown();
+            // Let every caller join before the answer arrives
+            assertThat(subscribed.await(5, TimeUnit.SECONDS)).isTrue();
+            upstream.tryEmitValue("answer");
+
+            for (Future<String> answer : answers) {
+                assertThat(answer.get(5, TimeUnit.SECONDS)).isEqualTo("answer");
+            }
+            assertThat(calls).hasValue(1);
+            assertThat(meterRegistry.get("llm.coalesced").counter().count()).isEqualTo(callers - 1);
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    void differentKeysDoNotShare() {
+        AtomicInteger calls = new AtomicInteger();
+
+        singleFlight.execute("one", () -> counted(calls, Mono.never())).subscribe();
+        singleFlight.execute("two", () -> counted(calls, Mono.never())).subscribe();
+
+        assertThat(calls).hasValue(2);
+        assertThat(inFlight()).isEqualTo(2);
+        assertThat(meterRegistry.get("llm.coalesced").counter().count()).isZero();
+    }
+
+    @Test
+    void callIsNotStartedUntilSubscribed() {
+        AtomicInteger calls = new AtomicInteger();
+
+        Mono<String> answer = singleFlight.execute("key", () -> counted(calls, Mono.just("answer")));
+
+        assertThat(calls).hasValue(0);
+        assertThat(answer.block()).isEqualTo("answer");
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void finishedCallIsNotJoined() {
+        AtomicInteger calls = new AtomicInteger();
+        singleFlight.execute("key", () -> counted(calls, Mono.just("first"))).block();
+
+        String second = singleFlight.execute("key", () -> counted(calls, Mono.just("second"))).block();
+
+        assertThat(second).isEqualTo("second");
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void emptyResultReachesEveryCaller() {
+        Sinks.One<String> upstream = Sinks.one();
+        List<String> completed = new ArrayList<>();
+        singleFlight.execute("key", upstream::asMono).subscribe(value -> { }, e -> { }, () -> completed.add("first"));
+        singleFlight.execute("key", upstream::asMono).subscribe(value -> { }, e -> { }, () -> completed.add("second"));
+
+        upstream.tryEmitEmpty();
+
+        assertThat(completed).containsExactly("first", "second");
+        assertThat(inFlight()).isZero();
+    }
+
+    @Test
+    void errorReachesEveryCallerAndTheNextCallStartsAfresh() {
+        Sinks.One<String> upstream = Sinks.one();
+        AtomicInteger calls = new AtomicInteger();
+        List<Throwable> errors = new ArrayList<>();
+        singleFlight.execute("key", () -> counted(calls, upstream.asMono())).subscribe(value -> { }, errors::add);
+        singleFlight.execute("key", () -> counted(calls, upstream.asMono())).subscribe(value -> { }, errors::add);
+
+        upstream.tryEmitError(new IllegalStateException("provider down"));
+
+        assertThat(errors).hasSize(2).allMatch(e -> e.getMessage().equals("provider down"));
+        assertThat(singleFlight.execute("key", () -> counted(calls, Mono.just("recovered"))).block())
+                .isEqualTo("recovered");
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void callIsCancelledOnlyWhenEveryCallerHasCancelled() {
+        Sinks.One<String> upstream = Sinks.one();
+        AtomicInteger calls = new AtomicInteger();
+        Disposable first = singleFlight.execute("key", () -> counted(calls, upstream.asMono())).subscribe();
+        Disposable second = singleFlight.execute("key", () -> counted(calls, upstream.asMono())).subscribe();
+
+        first.dispose();
+        assertThat(upstream.currentSubscriberCount()).isEqualTo(1);
+
+        second.dispose();
+        assertThat(upstream.currentSubscriberCount()).isZero();
+        assertThat(inFlight()).as("the abandoned call can no longer be joined").isZero();
+
+        singleFlight.execute("key", () -> counted(calls, upstream.asMono())).subscribe();
+        assertThat(calls).hasValue(2);
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("llm.coalesced.in-flight").gauge().value();
+    }
+
+    private static Mono<String> counted(AtomicInteger calls, Mono<String> result) {
+        calls.incrementAndGet();
+        return result;
+    }
+}
@@ -0,0 +1,65 @@
+package com.manish.resumeai.llm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    // Allows for the time the test itself takes between reservations
+    private static final long SLACK = TimeUnit.MILLISECONDS.toNanos(200);
+
+    @Test
+    void startsFullSoTheBurstIsAvailableAtOnce() {
+        TokenBucket bucket = new TokenBucket(1, 3, 0, TimeUnit.SECONDS);
+
+        assertThat(bucket.reserve()).isZero();
+        assertThat(bucket.reserve()).isZero();
+        assertThat(bucket.reserve()).isZero();
+    }
+
+    @Test
+    void refusesWithoutConsumingWhenTheWaitIsTooLong() {
+        TokenBucket bucket = new TokenBucket(1, 2, 0, TimeUnit.SECONDS);
+        bucket.reserve();
+        bucket.reserve();
+
+        assertThat(bucket.reserve()).isEqualTo(-1);
+        assertThat(bucket.reserve()).isEqualTo(-1);
+        // Refusals did not push the next free slot further out
+        assertThat(bucket.nanosUntilFree()).isBetween(SECOND - SLACK, SECOND);
+    }
+
+    @Test
+    void spacesReservationsPastTheBurstByTheInterval() {
+        TokenBucket bucket = new TokenBucket(1, 1, 10, TimeUnit.SECONDS);
+
+        assertThat(bucket.reserve()).isZero();
+        assertThat(bucket.reserve()).isBetween(SECOND - SLACK, SECOND);
+        assertThat(bucket.reserve()).isBetween(2 * SECOND - SLACK, 2 * SECOND);
+    }
+
+    @Test
+    void acceptsReservationsUpToTheMaximumWait() {
+        TokenBucket bucket = new TokenBucket(1, 1, 1500, TimeUnit.MILLISECONDS);
+
+        assertThat(bucket.reserve()).isZero();
+        assertThat(bucket.reserve()).isPositive();
+        assertThat(bucket.reserve()).as("a 2 s wait is over the limit").isEqualTo(-1);
+    }
+
+    @Test
+    void refillsAtTheConfiguredRate() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(2, 1, 0, TimeUnit.SECONDS);
+        assertThat(bucket.reserve()).isZero();
+        assertThat(bucket.reserve()).isEqualTo(-1);
+
+        Thread.sleep(550);
+
+        assertThat(bucket.nanosUntilFree()).isZero();
+        assertThat(bucket.reserve()).isZero();
+    }
+}
@@ -0,0 +1,106 @@
+package com.manish.resumeai.profile;
+
+import com.manish.resumeai.session.CompactText;
+import com.manish.resumeai.session.ResumeDocument;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalAnswererTest {
+
+    private final LocalAnswerer answerer = new LocalAnswerer(true);
+    private final ResumeDocument document = document(ResumeProfileExtractorTest.RESUME);
+
+    @Test
+    void yearsWithASkillCountTheRolesThatUseIt() {
+        String answer = answerer.answer(document, "How many years of Spring Boot experience do I have?");
+
+        assertThat(answer).isEqualTo("Based on the roles in your resume that mention Spring Boot, you have about "
+                + "2 years and 10 months of Spring Boot experience:\n"
+                + "- Software Engineer at Initech (Mar 2016 - Dec 2018)");
+    }
+
+    @Test
+    void yearsWithoutASkillCountEveryRole() {
+        assertThat(answerer.answer(document, "How many years of experience do I have?"))
+                .startsWith("Based on the dated roles in your resume, you have ")
+                .contains(" of professional experience across 2 roles:\n"
+                        + "- Senior Software Engineer at Acme Corp (Jan 2019 - present)\n"
+                        + "- Software Engineer at Initech (Mar 2016 - Dec 2018)");
+    }
+
+    @Test
+    void skillMissingFromTheResumeIsSaidSo() {
+        assertThat(answerer.answer(document, "Years of Rust experience?"))
+                .startsWith("Your resume doesn't mention Rust.");
+    }
+
+    @Test
+    void skillNotTiedToARoleGoesToTheModel() {
+        assertThat(answerer.answer(document, "How many years of Python experience do I have?")).isNull();
+    }
+
+    @Test
+    void questionAboutSeveralSkillsGoesToTheModel() {
+        assertThat(answerer.answer(document, "How many years of Java and Kafka experience do I have?")).isNull();
+    }
+
+    @Test
+    void strongestSkillsComeWithTheirEvidence() {
+        String answer = answerer.answer(document, "What are my strongest technical skills?");
+
+        assertThat(answer).startsWith("Going by how often they appear in your resume and the roles that use them, "
+                + "your strongest technical skills are:\n- Java (");
+        assertThat(answer).contains("- Python (listed in your skills)", "- Spring Boot (2 years and 10 months across 1 role)");
+        assertThat(answer.lines().filter(line -> line.startsWith("- "))).hasSize(6);
+    }
+
+    @Test
+    void tooFewSkillsGoToTheModel() {
+        assertThat(answerer.answer(document("Engineer at Acme, 2018 - 2020. Java and Kafka."),
+                "What are my top skills?")).isNull();
+    }
+
+    @Test
+    void listsEveryEmployer() {
+        assertThat(answerer.answer(document, "Where have I worked?")).isEqualTo("""
+                According to your resume, you have worked at:
+                - Senior Software Engineer at Acme Corp (Jan 2019 - present)
+                - Software Engineer at Initech (Mar 2016 - Dec 2018)""");
+    }
+
+    @Test
+    void namesTheCurrentRole() {
+        assertThat(answerer.answer(document, "What's my current role?"))
+                .isEqualTo("Your current role is Senior Software Engineer at Acme Corp (since Jan 2019).");
+    }
+
+    @Test
+    void resumeWithoutACurrentRoleGoesToTheModel() {
+        assertThat(answerer.answer(document("Engineer at Acme, 2018 - 2020"), "What is my current job?")).isNull();
+    }
+
+    @Test
+    void adviceAndComparisonsGoToTheModel() {
+        assertThat(answerer.answer(document, "How can I improve my strongest skills?")).isNull();
+        assertThat(answerer.answer(document, "Which companies would suit my skills?")).isNull();
+        assertThat(answerer.answer(document, "Summarize my resume")).isNull();
+    }
+
+    @Test
+    void disabledAnswererLeavesEverythingToTheModel() {
+        assertThat(new LocalAnswerer(false).answer(document, "Where have I worked?")).isNull();
+    }
+
+    @Test
+    void profileIsExtractedOncePerDocument() {
+        ResumeProfile profile = answerer.profile(document);
+
+        assertThat(answerer.profile(document)).isSameAs(profile);
+        assertThat(document.getProfile()).isSameAs(profile);
+    }
+
+    private static ResumeDocument document(String text) {
+        return new ResumeDocument("ab".repeat(32), CompactText.encode(text, CompactText.Encoding.UTF8));
+    }
+}
@@ -0,0 +1,123 @@
+package com.manish.resumeai.profile;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResumeProfileExtractorTest {
+
+    static final String RESUME = """
+            Jane Doe
+            jane@example.com
+
+            EXPERIENCE
+            Acme Corp
+            Senior Software Engineer | Jan 2019 - Present
+            - Built Java microservices on Kubernetes
+            - Moved billing events to Kafka
+
+            Software Engineer at Initech, 03/2016 – 12/2018
+            - Maintained Java and Spring Boot services on AWS
+
+            EDUCATION
+            B.Sc. Computer Science, 2010 - 2014
+
+            SKILLS
+            Languages: Java, Python, SQL
+            Tools: Docker, Kubernetes, Terraform, Figma
+            """;
+
+    @Test
+    void readsTheSectionHeadings() {
+        assertThat(ResumeProfileExtractor.extract(RESUME).sections()).containsExactly("EXPERIENCE", "EDUCATION", "SKILLS");
+    }
+
+    @Test
+    void datedLinesOutsideEducationArePositions() {
+        ResumeProfile profile = ResumeProfileExtractor.extract(RESUME);
+
+        assertThat(profile.positions()).hasSize(2);
+        ResumeProfile.Position current = profile.positions().get(0);
+        assertThat(current.title()).isEqualTo("Senior Software Engineer");
+        assertThat(current.employer()).as("from the line above").isEqualTo("Acme Corp");
+        assertThat(current.start()).isEqualTo(YearMonth.of(2019, 1));
+        assertThat(current.isCurrent()).isTrue();
+
+        ResumeProfile.Position previous = profile.positions().get(1);
+        assertThat(previous.title()).isEqualTo("Software Engineer");
+        assertThat(previous.employer()).isEqualTo("Initech");
+        assertThat(previous.start()).isEqualTo(YearMonth.of(2016, 3));
+        assertThat(previous.end()).isEqualTo(YearMonth.of(2018, 12));
+    }
+
+    @Test
+    void positionSkillsComeFromItsOwnDescription() {
+        ResumeProfile profile = ResumeProfileExtractor.extract(RESUME);
+
+        assertThat(profile.positions().get(0).skills()).containsExactlyInAnyOrder("Java", "Microservices", "Kubernetes", "Kafka");
+        assertThat(profile.positions().get(1).skills()).containsExactlyInAnyOrder("Java", "Spring Boot", "AWS");
+    }
+
+    @Test
+    void skillsAreOrderedByMentions() {
+        ResumeProfile profile = ResumeProfileExtractor.extract(RESUME);
+
+        assertThat(profile.skills().get(0)).isEqualTo(new ResumeProfile.Skill("Java", 3, true));
+        assertThat(profile.skills().get(1)).isEqualTo(new ResumeProfile.Skill("Kubernetes", 2, true));
+        assertThat(profile.skill("kafka")).isEqualTo(new ResumeProfile.Skill("Kafka", 1, false));
+    }
+
+    @Test
+    void unknownItemsOfASkillsSectionAreSkills() {
+        assertThat(ResumeProfileExtractor.extract(RESUME).skill("Figma")).isEqualTo(new ResumeProfile.Skill("Figma", 1, true));
+    }
+
+    @Test
+    void titleCanBeOnTheLineAbove() {
+        ResumeProfile profile = ResumeProfileExtractor.extract("""
+                Backend Engineer
+                Globex | 2012 - 2014
+                """);
+
+        ResumeProfile.Position position = profile.positions().get(0);
+        assertThat(position.describe()).isEqualTo("Backend Engineer at Globex");
+        // A year alone stands for the middle of that year
+        assertThat(position.start()).isEqualTo(YearMonth.of(2012, 6));
+        assertThat(position.end()).isEqualTo(YearMonth.of(2014, 6));
+    }
+
+    @Test
+    void readsSpelledOutMonthsAndWordSeparators() {
+        ResumeProfile profile = ResumeProfileExtractor.extract("""
+                Data Analyst, Umbrella — September 2010 to March 2012
+                Intern at Hooli, Feb. 2009 until now
+                """);
+
+        assertThat(profile.positions()).extracting(ResumeProfile.Position::start)
+                .containsExactly(YearMonth.of(2010, 9), YearMonth.of(2009, 2));
+        assertThat(profile.positions().get(0).end()).isEqualTo(YearMonth.of(2012, 3));
+        assertThat(profile.positions().get(1).isCurrent()).isTrue();
+    }
+
+    @Test
+    void rangeEndingBeforeItStartsIsNotAPosition() {
+        assertThat(ResumeProfileExtractor.extract("Engineer at Acme, 2020 - 2018").positions()).isEmpty();
+    }
+
+    @Test
+    void skillNamesMatchOnlyAsWholeWords() {
+        ResumeProfile profile = ResumeProfileExtractor.extract("Wrote JavaScript and C++ with Node.js.");
+
+        assertThat(profile.skills()).extracting(ResumeProfile.Skill::name)
+                .containsExactlyInAnyOrder("JavaScript", "C++", "Node.js");
+    }
+
+    @Test
+    void findsKnownSkillsInAQuestionByAnyAlias() {
+        assertThat(ResumeProfileExtractor.knownMentions("How long have I used k8s and Kubernetes with golang?"))
+                .containsExactly("Go", "Kubernetes");
+        assertThat(ResumeProfileExtractor.knownMentions("How many years have I worked?")).isEmpty();
+    }
+}
@@ -0,0 +1,82 @@
+package com.manish.resumeai.profile;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResumeProfileTest {
+
+    private static final YearMonth NOW = YearMonth.of(2024, 6);
+
+    @Test
+    void countsBothEndMonths() {
+        assertThat(ResumeProfile.months(List.of(position("2020-01", "2020-12")), NOW)).isEqualTo(12);
+        assertThat(ResumeProfile.months(List.of(position("2020-03", "2020-03")), NOW)).isEqualTo(1);
+    }
+
+    @Test
+    void currentPositionRunsUntilNow() {
+        assertThat(ResumeProfile.months(List.of(position("2023-07", null)), NOW)).isEqualTo(12);
+    }
+
+    @Test
+    void endDateInTheFutureIsCappedAtNow() {
+        assertThat(ResumeProfile.months(List.of(position("2024-01", "2025-12")), NOW)).isEqualTo(6);
+    }
+
+    @Test
+    void positionStartingAfterNowCountsNothing() {
+        assertThat(ResumeProfile.months(List.of(position("2024-09", null)), NOW)).isZero();
+    }
+
+    @Test
+    void addsSeparatePositions() {
+        List<ResumeProfile.Position> positions = List.of(
+                position("2018-01", "2018-06"),
+                position("2020-01", "2020-12"));
+
+        assertThat(ResumeProfile.months(positions, NOW)).isEqualTo(18);
+    }
+
+    @Test
+    void countsOverlappingMonthsOnce() {
+        List<ResumeProfile.Position> positions = List.of(
+                position("2020-06", "2021-05"),
+                position("2020-01", "2020-12"));
+
+        // January 2020 to May 2021
+        assertThat(ResumeProfile.months(positions, NOW)).isEqualTo(17);
+    }
+
+    @Test
+    void positionInsideAnotherAddsNothing() {
+        List<ResumeProfile.Position> positions = List.of(
+                position("2019-01", "2022-12"),
+                position("2020-03", "2020-09"));
+
+        assertThat(ResumeProfile.months(positions, NOW)).isEqualTo(48);
+    }
+
+    @Test
+    void backToBackPositionsAreNotDoubleCounted() {
+        List<ResumeProfile.Position> positions = List.of(
+                position("2020-01", "2020-06"),
+                position("2020-06", "2020-12"));
+
+        assertThat(ResumeProfile.months(positions, NOW)).isEqualTo(12);
+    }
+
+    @Test
+    void noPositionsMeansNoMonths() {
+        assertThat(ResumeProfile.months(List.of(), NOW)).isZero();
+    }
+
+    private static ResumeProfile.Position position(String start, String end) {
+        return new ResumeProfile.Position("Engineer", "Acme", YearMonth.parse(start),
+                end != null ? YearMonth.parse(end) : null, Set.of());
+    }
+}
@@ -0,0 +1,85 @@
+package com.manish.resumeai.retrieval;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class Bm25IndexTest {
+
+    @Test
+    void moreOccurrencesScoreHigher() {
+        Bm25Index index = new Bm25Index(List.of(
+                "kafka streams kafka connect kafka",
+                "kafka streams python django flask",
+                "python django flask celery redis"));
+
+        double[] scores = index.score("kafka");
+
+        assertThat(scores[0]).isGreaterThan(scores[1]);
+        assertThat(scores[1]).isPositive();
+        assertThat(scores[2]).isZero();
+    }
+
+    @Test
+    void shorterChunksScoreHigherForTheSameOccurrences() {
+        Bm25Index index = new Bm25Index(List.of(
+                "kubernetes helm",
+                "kubernetes helm terraform ansible jenkins gitlab grafana prometheus",
+                "java spring"));
+
+        double[] scores = index.score("kubernetes");
+
+        assertThat(scores[0]).isGreaterThan(scores[1]);
+    }
+
+    @Test
+    void rarerTermsWeighMore() {
+        Bm25Index index = new Bm25Index(List.of(
+                "java backend",
+                "java rust",
+                "java backend",
+                "java backend"));
+
+        double[] scores = index.score("backend rust");
+
+        assertThat(scores[1]).isGreaterThan(scores[0]);
+        assertThat(scores[0]).isEqualTo(scores[2]).isEqualTo(scores[3]);
+    }
+
+    @Test
+    void scoresAddUpAcrossQueryTerms() {
+        Bm25Index index = new Bm25Index(List.of("kafka python", "kafka go", "python go", "scala"));
+
+        double[] kafka = index.score("kafka");
+        double[] python = index.score("python");
+        double[] both = index.score("kafka python");
+
+        assertThat(both[0]).isCloseTo(kafka[0] + python[0], within(1e-9));
+        assertThat(both[0]).isGreaterThan(both[1]).isGreaterThan(both[3]);
+    }
+
+    @Test
+    void stopWordsAndUnknownTermsScoreNothing() {
+        Bm25Index index = new Bm25Index(List.of("the kafka migration", "with the team"));
+
+        assertThat(index.score("the with and")).containsExactly(0, 0);
+        assertThat(index.score("haskell")).containsExactly(0, 0);
+    }
+
+    @Test
+    void termsMatchCaseInsensitively() {
+        Bm25Index index = new Bm25Index(List.of("Node.js and C++", "Java"));
+
+        assertThat(index.score("NODE.JS")[0]).isPositive();
+        assertThat(index.score("c++")[0]).isPositive();
+        assertThat(index.score("c++")[1]).isZero();
+    }
+
+    @Test
+    void emptyIndexScoresNothing() {
+        assertThat(new Bm25Index(List.of()).score("kafka")).isEmpty();
+    }
+}
@@ -0,0 +1,92 @@
+package com.manish.resumeai.retrieval;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResumeChunkerTest {
+
+    @Test
+    void knownSectionNamesAreHeadingsInAnyCase() {
+        assertThat(ResumeChunker.isHeading("Experience")).isTrue();
+        assertThat(ResumeChunker.isHeading("Work Experience:")).isTrue();
+        assertThat(ResumeChunker.isHeading("technical skills")).isTrue();
+        assertThat(ResumeChunker.isHeading("— Education —")).isTrue();
+    }
+
+    @Test
+    void shortAllCapsLinesAreHeadings() {
+        assertThat(ResumeChunker.isHeading("OPEN SOURCE")).isTrue();
+        assertThat(ResumeChunker.isHeading("TALKS & MEETUPS")).isTrue();
+    }
+
+    @Test
+    void ordinaryLinesAreNotHeadings() {
+        assertThat(ResumeChunker.isHeading("Led the migration to Kafka")).isFalse();
+        assertThat(ResumeChunker.isHeading("AWS")).as("too short for an all-caps heading").isFalse();
+        assertThat(ResumeChunker.isHeading("2019 - 2024")).as("no letters").isFalse();
+        assertThat(ResumeChunker.isHeading("BUILT A REAL-TIME PRICING ENGINE SERVING 2M USERS")).as("too long").isFalse();
+    }
+
+    @Test
+    void packsShortSectionsIntoOneChunk() {
+        String text = "SUMMARY\nBackend engineer.\n\nSKILLS\nJava, Kafka\n";
+
+        assertThat(ResumeChunker.chunk(text, 200))
+                .containsExactly("SUMMARY\nBackend engineer.\nSKILLS\nJava, Kafka\n");
+    }
+
+    @Test
+    void startsANewChunkWhenTheNextSectionDoesNotFit() {
+        String text = "SUMMARY\nBackend engineer.\nSKILLS\nJava, Kafka\nEDUCATION\nBSc Computer Science\n";
+
+        List<String> chunks = ResumeChunker.chunk(text, 50);
+
+        assertThat(chunks).containsExactly(
+                "SUMMARY\nBackend engineer.\nSKILLS\nJava, Kafka\n",
+                "EDUCATION\nBSc Computer Science\n");
+    }
+
+    @Test
+    void splitsALongSectionAtLinesAndRepeatsItsHeading() {
+        String text = """
+                EXPERIENCE
+                Acme: led the Kafka migration
+                Acme: cut p99 latency by half
+                Initech: built the billing API
+                """;
+
+        assertThat(ResumeChunker.chunk(text, 80)).containsExactly(
+                "EXPERIENCE\nAcme: led the Kafka migration\nAcme: cut p99 latency by half\n",
+                "EXPERIENCE (continued)\nInitech: built the billing API\n");
+        // The repeated heading may take a piece past the chunk size, but every line keeps it
+        assertThat(ResumeChunker.chunk(text, 50)).containsExactly(
+                "EXPERIENCE\nAcme: led the Kafka migration\n",
+                "EXPERIENCE (continued)\nAcme: cut p99 latency by half\n",
+                "EXPERIENCE (continued)\nInitech: built the billing API\n");
+    }
+
+    @Test
+    void textBeforeTheFirstHeadingIsSplitWithoutAHeading() {
+        String text = "Jane Doe\njane@example.com\n+41 79 000 00 00\n";
+
+        assertThat(ResumeChunker.chunk(text, 30))
+                .containsExactly("Jane Doe\njane@example.com\n", "+41 79 000 00 00\n");
+    }
+
+    @Test
+    void keepsAnOverLongLineWhole() {
+        String line = "Built ".repeat(20).strip();
+
+        assertThat(ResumeChunker.chunk("PROJECTS\n" + line + "\n", 40))
+                .containsExactly("PROJECTS\n", "PROJECTS (continued)\n" + line + "\n");
+    }
+
+    @Test
+    void dropsBlankLinesAndSurroundingWhitespace() {
+        assertThat(ResumeChunker.chunk("  SKILLS  \r\n\r\n\t Java \r\n", 100)).containsExactly("SKILLS\nJava\n");
+        assertThat(ResumeChunker.chunk("\n \n", 100)).isEmpty();
+    }
+}
@@ -0,0 +1,181 @@
+package com.manish.resumeai.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manish.resumeai.llm.GeminiClient;
+import com.manish.resumeai.llm.GeminiRequest;
+import com.manish.resumeai.llm.GeminiRequestWriter;
+import com.manish.resumeai.llm.GeminiResponseParser;
+import com.manish.resumeai.llm.ResilientLlmExecutor;
+import com.manish.resumeai.session.CompactText;
+import com.manish.resumeai.session.Conversation;
+import com.manish.resumeai.session.InMemorySessionStore;
+import com.manish.resumeai.session.ResumeDocument;
+import com.manish.resumeai.session.ResumeSession;
+import com.manish.resumeai.session.SessionStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConversationMemoryTest {
+
+    // 10 tokens of history is 40 characters: two of the 20-character turns below
+    private static final int HISTORY_TOKENS = 10;
+    private static final int SUMMARY_TOKENS = 5;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final GeminiClient geminiClient = mock(GeminiClient.class);
+    private final ResilientLlmExecutor llmExecutor = mock(ResilientLlmExecutor.class);
+    private final SessionStore sessionStore =
+            new InMemorySessionStore(1 << 20, Duration.ofHours(1), new SimpleMeterRegistry());
+    private final ResumeSession session = new ResumeSession(new ResumeDocument("ab".repeat(32),
+            CompactText.encode("Jane Doe, backend engineer", CompactText.Encoding.UTF8)));
+
+    ConversationMemoryTest() {
+        when(llmExecutor.execute(any())).thenAnswer(invocation -> invocation.<Supplier<Mono<String>>>getArgument(0).get());
+        sessionStore.put("s1", session);
+    }
+
+    @Test
+    void rememberedTurnIsInTheNextQuestionsHistory() {
+        ConversationMemory memory = memory(true);
+
+        memory.remember("s1", session, "Strengths?", "Kafka work.").block();
+
+        assertThat(memory.history(session).turns()).containsExactly(new Conversation.Turn("Strengths?", "Kafka work."));
+        assertThat(sessionStore.get("s1").getConversation().snapshot().turns()).hasSize(1);
+        verify(geminiClient, never()).generate(any());
+    }
+
+    @Test
+    void sessionRemovedMeanwhileIsNotStoredAgain() {
+        ConversationMemory memory = memory(true);
+        sessionStore.remove("s1");
+
+        memory.remember("s1", session, "Strengths?", "Kafka work.").block();
+
+        assertThat(sessionStore.contains("s1")).isFalse();
+    }
+
+    @Test
+    void disabledMemoryKeepsNoHistory() {
+        ConversationMemory memory = memory(false);
+
+        memory.remember("s1", session, "Strengths?", "Kafka work.").block();
+
+        assertThat(memory.history(session).isEmpty()).isTrue();
+        assertThat(session.getConversation().snapshot().turns()).isEmpty();
+    }
+
+    @Test
+    void foldsTheOldestTurnsIntoTheSummaryOnceOverBudget() throws IOException {
+        respondWith("Asked about turn 1.");
+        ConversationMemory memory = memory(true);
+
+        remember(memory, 1, 2);
+        verify(geminiClient, never()).generate(any());
+        remember(memory, 3);
+
+        Conversation.Snapshot history = memory.history(session);
+        assertThat(history.summary()).isEqualTo("Asked about turn 1.");
+        assertThat(history.turns()).containsExactly(turn(2), turn(3));
+    }
+
+    @Test
+    void compactionPromptHoldsTheCurrentSummaryAndOnlyTheFoldedTurns() throws IOException {
+        respondWith("Asked about turn 1.");
+        ConversationMemory memory = memory(true);
+        remember(memory, 1, 2, 3);
+        remember(memory, 4);
+
+        ArgumentCaptor<GeminiRequest> requests = ArgumentCaptor.forClass(GeminiRequest.class);
+        verify(geminiClient, times(2)).generate(requests.capture());
+        String second = promptText(requests.getAllValues().get(1));
+
+        assertThat(second).contains("Current summary:\nAsked about turn 1.", "User: Question 2\nCoach: Answer 2")
+                .doesNotContain("Question 1", "Question 3", "Question 4");
+    }
+
+    @Test
+    void longSummaryIsCutToItsBudget() throws IOException {
+        respondWith("  " + "x".repeat(100) + "\n");
+        ConversationMemory memory = memory(true);
+
+        remember(memory, 1, 2, 3);
+
+        assertThat(memory.history(session).summary()).isEqualTo("x".repeat(20));
+    }
+
+    @Test
+    void failedCompactionKeepsTheTurns() {
+        when(geminiClient.generate(any())).thenReturn(Mono.error(new IllegalStateException("Gemini unavailable")));
+        ConversationMemory memory = memory(true);
+
+        remember(memory, 1, 2, 3);
+
+        assertThat(memory.history(session).summary()).isNull();
+        assertThat(memory.history(session).turns()).containsExactly(turn(1), turn(2), turn(3));
+    }
+
+    @Test
+    void responseWithoutTextCountsAsAFailedCompaction() throws IOException {
+        respondWith("   ");
+        ConversationMemory memory = memory(true);
+
+        remember(memory, 1, 2, 3);
+        // The next turn tries again
+        respondWith("Turns 1 and 2.");
+        remember(memory, 4);
+
+        assertThat(memory.history(session).summary()).isEqualTo("Turns 1 and 2.");
+        assertThat(memory.history(session).turns()).containsExactly(turn(3), turn(4));
+    }
+
+    private ConversationMemory memory(boolean enabled) {
+        return new ConversationMemory(geminiClient, llmExecutor,
+                new GeminiResponseParser(objectMapper, new SimpleMeterRegistry()), sessionStore,
+                enabled, HISTORY_TOKENS, SUMMARY_TOKENS);
+    }
+
+    private void remember(ConversationMemory memory, int... numbers) {
+        for (int number : numbers) {
+            memory.remember("s1", session, turn(number).question(), turn(number).answer()).block();
+        }
+    }
+
+    /**
+     * A 20-character turn.
+     */
+    private static Conversation.Turn turn(int number) {
+        return new Conversation.Turn("Question " + number, "Answer " + number + "..");
+    }
+
+    private void respondWith(String summary) throws IOException {
+        String response = objectMapper.writeValueAsString(Map.of(
+                "candidates", List.of(Map.of(
+                        "content", Map.of("parts", List.of(Map.of("text", summary))),
+                        "finishReason", "STOP"))));
+        when(geminiClient.generate(any())).thenReturn(Mono.just(response));
+    }
+
+    private String promptText(GeminiRequest request) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new GeminiRequestWriter(objectMapper).write(request, out);
+        return objectMapper.readTree(out.toByteArray()).at("/contents/0/parts/0/text").textValue();
+    }
+}
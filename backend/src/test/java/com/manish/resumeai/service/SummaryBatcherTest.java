@@ -0,0 +1,189 @@
+package com.manish.resumeai.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manish.resumeai.llm.GeminiClient;
+import com.manish.resumeai.llm.GeminiRequest;
+import com.manish.resumeai.llm.GeminiRequestWriter;
+import com.manish.resumeai.llm.GeminiResponseParser;
+import com.manish.resumeai.llm.ResilientLlmExecutor;
+import com.manish.resumeai.session.CompactText;
+import com.manish.resumeai.session.ResumeDocument;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SummaryBatcherTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(5);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final GeminiClient geminiClient = mock(GeminiClient.class);
+    private final ResilientLlmExecutor llmExecutor = mock(ResilientLlmExecutor.class);
+    private final SummaryBatcher batcher;
+
+    SummaryBatcherTest() {
+        // The executor just makes the call
+        when(llmExecutor.execute(any())).thenAnswer(invocation -> invocation.<Supplier<Mono<String>>>getArgument(0).get());
+        GeminiResponseParser parser = new GeminiResponseParser(objectMapper, new SimpleMeterRegistry());
+        // A batch goes out once three resumes are waiting; the linger never runs out in a test
+        batcher = new SummaryBatcher(geminiClient, llmExecutor, parser, objectMapper,
+                true, 3, Duration.ofMinutes(10), 1, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void shutDown() {
+        batcher.destroy();
+    }
+
+    @Test
+    void handsEachResumeItsOwnSummary() throws IOException {
+        respondWith(List.of(
+                Map.of("id", 3, "summary", "Data engineer."),
+                Map.of("id", 1, "summary", "  Backend engineer.\n"),
+                Map.of("id", 2, "summary", "Designer.")));
+
+        List<Mono<String>> results = submit(3);
+
+        assertThat(results.get(0).block(WAIT)).isEqualTo("Backend engineer.");
+        assertThat(results.get(1).block(WAIT)).isEqualTo("Designer.");
+        assertThat(results.get(2).block(WAIT)).isEqualTo("Data engineer.");
+        verify(geminiClient, times(1)).generate(any());
+    }
+
+    @Test
+    void numbersTheResumesInThePrompt() throws IOException {
+        respondWith(List.of());
+        ArgumentCaptor<GeminiRequest> request = ArgumentCaptor.forClass(GeminiRequest.class);
+
+        submit(3);
+
+        verify(geminiClient).generate(request.capture());
+        JsonNode body = write(request.getValue());
+        String prompt = body.at("/contents/0/parts/0/text").textValue();
+        assertThat(prompt).contains("=== Resume 1 ===\nResume number 0", "=== Resume 3 ===\nResume number 2");
+        assertThat(body.at("/generationConfig/responseMimeType").textValue()).isEqualTo("application/json");
+    }
+
+    @Test
+    void resumeLeftOutOfTheResponseFailsAlone() throws IOException {
+        respondWith(List.of(
+                Map.of("id", 1, "summary", "Backend engineer."),
+                Map.of("id", 3, "summary", "Data engineer.")));
+
+        List<Mono<String>> results = submit(3);
+
+        assertThat(results.get(0).block(WAIT)).isEqualTo("Backend engineer.");
+        assertThatThrownBy(() -> results.get(1).block(WAIT)).hasMessageContaining("Summary missing from batch response");
+        assertThat(results.get(2).block(WAIT)).isEqualTo("Data engineer.");
+    }
+
+    @Test
+    void blankSummariesAndBadIdsCountAsMissing() throws IOException {
+        respondWith(List.of(
+                Map.of("id", 1, "summary", "   "),
+                Map.of("id", "second", "summary", "Designer."),
+                Map.of("id", 3, "summary", "Data engineer."),
+                Map.of("id", 7, "summary", "Nobody asked.")));
+
+        List<Mono<String>> results = submit(3);
+
+        assertThatThrownBy(() -> results.get(0).block(WAIT)).hasMessageContaining("Summary missing");
+        assertThatThrownBy(() -> results.get(1).block(WAIT)).hasMessageContaining("Summary missing");
+        assertThat(results.get(2).block(WAIT)).isEqualTo("Data engineer.");
+    }
+
+    @Test
+    void malformedPayloadFailsEveryResume() throws IOException {
+        respondWithText("[{\"id\": 1, \"summary\": \"Backend engin");
+
+        submit(3).forEach(result ->
+                assertThatThrownBy(() -> result.block(WAIT)).hasMessageContaining("Summary missing from batch response"));
+    }
+
+    @Test
+    void payloadThatIsNotAnArrayFailsEveryResume() throws IOException {
+        respondWithText("{\"id\": 1, \"summary\": \"Backend engineer.\"}");
+
+        submit(3).forEach(result ->
+                assertThatThrownBy(() -> result.block(WAIT)).hasMessageContaining("Summary missing from batch response"));
+    }
+
+    @Test
+    void failedCallFailsEveryResumeWithItsError() {
+        IllegalStateException error = new IllegalStateException("Gemini unavailable");
+        when(geminiClient.generate(any())).thenReturn(Mono.error(error));
+
+        submit(3).forEach(result -> assertThatThrownBy(() -> result.block(WAIT)).isSameAs(error));
+    }
+
+    @Test
+    void emptyResponseFailsEveryResume() {
+        when(geminiClient.generate(any())).thenReturn(Mono.empty());
+
+        submit(3).forEach(result ->
+                assertThatThrownBy(() -> result.block(WAIT)).hasMessageContaining("Empty batch response"));
+    }
+
+    @Test
+    void disabledBatcherRefusesResumes() {
+        SummaryBatcher disabled = new SummaryBatcher(geminiClient, llmExecutor,
+                new GeminiResponseParser(objectMapper, new SimpleMeterRegistry()), objectMapper,
+                false, 3, Duration.ofMillis(10), 1, new SimpleMeterRegistry());
+
+        assertThat(disabled.isEnabled()).isFalse();
+        assertThatThrownBy(() -> disabled.submit(document(0)).block(WAIT)).hasMessageContaining("disabled");
+    }
+
+    private List<Mono<String>> submit(int count) {
+        List<Mono<String>> results = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            results.add(batcher.submit(document(i)));
+        }
+        return results;
+    }
+
+    private void respondWith(List<Map<String, Object>> summaries) throws IOException {
+        respondWithText(objectMapper.writeValueAsString(summaries));
+    }
+
+    /**
+     * A finished Gemini response whose answer text is the given batch payload.
+     */
+    private void respondWithText(String payload) throws IOException {
+        String response = objectMapper.writeValueAsString(Map.of(
+                "candidates", List.of(Map.of(
+                        "content", Map.of("parts", List.of(Map.of("text", payload))),
+                        "finishReason", "STOP"))));
+        when(geminiClient.generate(any())).thenReturn(Mono.just(response));
+    }
+
+    private JsonNode write(GeminiRequest request) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new GeminiRequestWriter(objectMapper).write(request, out);
+        return objectMapper.readTree(out.toByteArray());
+    }
+
+    private static ResumeDocument document(int i) {
+        return new ResumeDocument(String.format("%064x", i),
+                CompactText.encode("Resume number " + i, CompactText.Encoding.UTF8));
+    }
+}
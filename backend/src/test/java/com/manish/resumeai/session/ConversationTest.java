@@ -0,0 +1,112 @@
+package com.manish.resumeai.session;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConversationTest {
+
+    // Each turn is 10 characters
+    private static final int BUDGET = 30;
+
+    private final Conversation conversation = new Conversation();
+
+    @Test
+    void keepsTurnsVerbatimWithinTheBudget() {
+        assertThat(conversation.append(turn(1), BUDGET)).isEmpty();
+        assertThat(conversation.append(turn(2), BUDGET)).isEmpty();
+        assertThat(conversation.append(turn(3), BUDGET)).isEmpty();
+
+        assertThat(conversation.snapshot().turns()).containsExactly(turn(1), turn(2), turn(3));
+        assertThat(conversation.snapshot().summary()).isNull();
+    }
+
+    @Test
+    void returnsTheOldestTurnsOnceOverBudget() {
+        append(1, 2, 3);
+
+        List<Conversation.Turn> oldest = conversation.append(turn(4), BUDGET);
+
+        assertThat(oldest).containsExactly(turn(1));
+        // Still sent with questions until the summary arrives
+        assertThat(conversation.snapshot().turns()).containsExactly(turn(1), turn(2), turn(3), turn(4));
+    }
+
+    @Test
+    void compactedSummaryReplacesTheFoldedTurns() {
+        append(1, 2, 3);
+        conversation.append(turn(4), BUDGET);
+
+        conversation.compacted("Summary of turn 1");
+
+        assertThat(conversation.snapshot().summary()).isEqualTo("Summary of turn 1");
+        assertThat(conversation.snapshot().turns()).containsExactly(turn(2), turn(3), turn(4));
+    }
+
+    @Test
+    void turnsAddedDuringCompactionAreKept() {
+        append(1, 2, 3);
+        assertThat(conversation.append(turn(4), BUDGET)).containsExactly(turn(1));
+
+        assertThat(conversation.append(turn(5), BUDGET)).as("one compaction at a time").isEmpty();
+        conversation.compacted("Summary of turn 1");
+
+        assertThat(conversation.snapshot().turns()).containsExactly(turn(2), turn(3), turn(4), turn(5));
+        // The next turn folds what is still over budget
+        assertThat(conversation.append(turn(6), BUDGET)).containsExactly(turn(2), turn(3));
+    }
+
+    @Test
+    void alwaysKeepsTheNewestTurnVerbatim() {
+        Conversation.Turn large = new Conversation.Turn("q".repeat(50), "a".repeat(50));
+
+        assertThat(conversation.append(large, BUDGET)).isEmpty();
+
+        assertThat(conversation.append(turn(1), BUDGET)).containsExactly(large);
+    }
+
+    @Test
+    void failedCompactionKeepsTheTurnsForTheNextAttempt() {
+        append(1, 2, 3);
+        conversation.append(turn(4), BUDGET);
+
+        conversation.compactionFailed(BUDGET * 2);
+
+        assertThat(conversation.snapshot().turns()).containsExactly(turn(1), turn(2), turn(3), turn(4));
+        assertThat(conversation.append(turn(5), BUDGET)).containsExactly(turn(1), turn(2));
+    }
+
+    @Test
+    void failedCompactionDropsTheOldestTurnsPastTheHardLimit() {
+        append(1, 2, 3);
+        conversation.append(turn(4), BUDGET);
+
+        conversation.compactionFailed(20);
+
+        assertThat(conversation.snapshot().turns()).containsExactly(turn(3), turn(4));
+        assertThat(conversation.snapshot().summary()).isNull();
+    }
+
+    @Test
+    void retainedBytesShrinkAfterCompaction() {
+        append(1, 2, 3);
+        conversation.append(turn(4), BUDGET);
+        int before = conversation.retainedBytes();
+
+        conversation.compacted("S");
+
+        assertThat(conversation.retainedBytes()).isLessThan(before);
+    }
+
+    private void append(int... numbers) {
+        for (int number : numbers) {
+            assertThat(conversation.append(turn(number), BUDGET)).isEmpty();
+        }
+    }
+
+    private static Conversation.Turn turn(int number) {
+        return new Conversation.Turn("q" + number + "...", "a" + number + "...");
+    }
+}
@@ -0,0 +1,234 @@
+package com.manish.resumeai.session;
+
+import com.manish.resumeai.cache.ResumeDocumentCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileSessionStoreTest {
+
+    private static final Duration IDLE_TTL = Duration.ofHours(2);
+
+    @TempDir
+    Path dir;
+
+    private final List<FileSessionStore> stores = new ArrayList<>();
+
+    @AfterEach
+    void close() {
+        stores.forEach(FileSessionStore::close);
+    }
+
+    @Test
+    void anotherInstanceReadsTheSessionFromDisk() {
+        ResumeSession session = new ResumeSession(document(1, "Jane Doe — backend engineer"));
+        session.getConversation().append(new Conversation.Turn("Strengths?", "Kafka work."), 1000);
+        store().put("s1", session);
+
+        ResumeSession read = store().get("s1");
+
+        assertThat(read.getResumeText()).isEqualTo("Jane Doe — backend engineer");
+        assertThat(read.getConversation().snapshot()).isEqualTo(session.getConversation().snapshot());
+    }
+
+    @Test
+    void sessionsOfOneDocumentShareOneFileAndOneCopyInMemory() throws IOException {
+        FileSessionStore writer = store();
+        writer.put("s1", new ResumeSession(document(1, "Jane Doe")));
+        writer.put("s2", new ResumeSession(document(1, "Jane Doe")));
+
+        FileSessionStore reader = store();
+        assertThat(reader.get("s1").getDocument()).isSameAs(reader.get("s2").getDocument());
+        try (var documents = Files.list(dir.resolve("documents"))) {
+            assertThat(documents).hasSize(1);
+        }
+    }
+
+    @Test
+    void changesFromAnotherInstanceAreSeenAfterRevalidation() {
+        FileSessionStore first = store();
+        FileSessionStore second = store();
+        ResumeSession session = new ResumeSession(document(1, "Jane Doe"));
+        first.put("s1", session);
+        assertThat(second.get("s1").getConversation().snapshot().turns()).isEmpty();
+
+        session.getConversation().append(new Conversation.Turn("Strengths?", "Kafka work."), 1000);
+        first.put("s1", session);
+
+        assertThat(second.get("s1").getConversation().snapshot().turns()).hasSize(1);
+    }
+
+    @Test
+    void removalIsSeenByOtherInstancesAndReported() {
+        FileSessionStore first = store();
+        FileSessionStore second = store();
+        List<String> removed = new ArrayList<>();
+        first.addRemovalListener(removed::add);
+        first.put("s1", new ResumeSession(document(1, "Jane Doe")));
+        assertThat(second.contains("s1")).isTrue();
+
+        first.remove("s1");
+
+        assertThat(second.get("s1")).isNull();
+        assertThat(removed).containsExactly("s1");
+    }
+
+    @Test
+    void savedSummaryReachesOtherInstances() {
+        FileSessionStore first = store();
+        ResumeDocument document = document(1, "Jane Doe");
+        first.put("s1", new ResumeSession(document));
+
+        document.setSummary("A backend engineer.");
+        first.saveDocument(document);
+
+        assertThat(store().get("s1").getDocument().getSummary()).isEqualTo("A backend engineer.");
+    }
+
+    @Test
+    void sessionWhoseDocumentIsGoneIsAbsent() throws IOException {
+        store().put("s1", new ResumeSession(document(1, "Jane Doe")));
+        Files.delete(documentFile(1));
+
+        assertThat(store().get("s1")).isNull();
+    }
+
+    @Test
+    void idsThatAreNotFileNamesAreAbsent() {
+        FileSessionStore store = store();
+
+        assertThat(store.get("../documents/x")).isNull();
+        assertThat(store.contains("")).isFalse();
+    }
+
+    @Test
+    void sweepExpiresIdleSessionsAndReportsThem() throws IOException {
+        FileSessionStore store = store();
+        List<String> removed = new ArrayList<>();
+        store.addRemovalListener(removed::add);
+        store.put("idle", new ResumeSession(document(1, "Jane Doe")));
+        store.put("active", new ResumeSession(document(2, "John Roe")));
+        age(sessionFile("idle"), IDLE_TTL.plusMinutes(1));
+
+        store.sweep();
+
+        assertThat(sessionFile("idle")).doesNotExist();
+        assertThat(store.get("idle")).as("gone from the near-cache too").isNull();
+        assertThat(store.get("active")).isNotNull();
+        assertThat(removed).containsExactly("idle");
+    }
+
+    @Test
+    void unreferencedDocumentIsDeletedOnlyAfterAGracePeriod() throws IOException {
+        FileSessionStore store = store();
+        store.put("s1", new ResumeSession(document(1, "Jane Doe")));
+        store.remove("s1");
+
+        store.sweep();
+        assertThat(documentFile(1)).as("may belong to a session being stored").exists();
+
+        age(documentFile(1), Duration.ofMinutes(2));
+        store.sweep();
+        assertThat(documentFile(1)).doesNotExist();
+    }
+
+    @Test
+    void documentStaysWhileAnySessionRefersToIt() throws IOException {
+        FileSessionStore store = store();
+        store.put("idle", new ResumeSession(document(1, "Jane Doe")));
+        store.put("active", new ResumeSession(document(1, "Jane Doe")));
+        age(sessionFile("idle"), IDLE_TTL.plusMinutes(1));
+        age(documentFile(1), Duration.ofHours(3));
+
+        store.sweep();
+
+        assertThat(sessionFile("idle")).doesNotExist();
+        assertThat(documentFile(1)).exists();
+        assertThat(store().get("active").getResumeText()).isEqualTo("Jane Doe");
+    }
+
+    @Test
+    void sweepEvictsTheLeastRecentlyUsedSessionsOverTheDiskBudget() throws IOException {
+        FileSessionStore sizing = store();
+        sizing.put("probe", new ResumeSession(document(9, text(9))));
+        long perSession = Files.size(sessionFile("probe")) + Files.size(documentFile(9));
+        sizing.remove("probe");
+
+        // Room for two sessions with their documents
+        FileSessionStore store = store(perSession * 2 + perSession / 2);
+        List<String> removed = new ArrayList<>();
+        store.addRemovalListener(removed::add);
+        for (int i = 1; i <= 4; i++) {
+            store.put("s" + i, new ResumeSession(document(i, text(i))));
+            age(sessionFile("s" + i), Duration.ofMinutes(10 - i));
+        }
+
+        store.sweep();
+
+        assertThat(removed).containsExactly("s1", "s2");
+        assertThat(store.get("s3")).isNotNull();
+        assertThat(store.get("s4")).isNotNull();
+        age(documentFile(1), Duration.ofMinutes(2));
+        age(documentFile(3), Duration.ofMinutes(2));
+        store.sweep();
+        assertThat(documentFile(1)).as("evicted session's document").doesNotExist();
+        assertThat(documentFile(3)).exists();
+    }
+
+    private FileSessionStore store() {
+        return store(1L << 30);
+    }
+
+    /**
+     * A store on the shared directory, with its own near-cache and document
+     * cache as a separate instance would have. It revalidates on every read
+     * and sweeps only when a test asks it to.
+     */
+    private FileSessionStore store(long maxDiskBytes) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        FileSessionStore store = new FileSessionStore(dir, 1 << 20, IDLE_TTL, maxDiskBytes, Duration.ZERO,
+                Duration.ofHours(1), CompactText.Encoding.UTF8,
+                new ResumeDocumentCache(1 << 20, Duration.ofHours(1), meterRegistry), meterRegistry);
+        stores.add(store);
+        return store;
+    }
+
+    private Path sessionFile(String sessionId) {
+        return dir.resolve("sessions").resolve(sessionId + ".ses");
+    }
+
+    private Path documentFile(int i) {
+        return dir.resolve("documents").resolve(hash(i) + ".doc");
+    }
+
+    private static void age(Path file, Duration age) throws IOException {
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(age)));
+    }
+
+    private static ResumeDocument document(int i, String text) {
+        return new ResumeDocument(hash(i), CompactText.encode(text, CompactText.Encoding.UTF8));
+    }
+
+    private static String hash(int i) {
+        return String.format("%064x", i);
+    }
+
+    /**
+     * Resume text of the same length for every {@code i}.
+     */
+    private static String text(int i) {
+        return ("Resume " + i + " ").repeat(200);
+    }
+}
@@ -0,0 +1,113 @@
+package com.manish.resumeai.session;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SessionCodecTest {
+
+    private static final String HASH = "3f".repeat(32);
+    private static final String TEXT = "Jane Doe — Senior Engineer\nZürich · 2019–2024\nLed the migration to Kafka.";
+
+    @Test
+    void sessionRoundTripsWithItsConversation() throws IOException {
+        Conversation conversation = new Conversation("Talked about the Kafka migration.", List.of(
+                new Conversation.Turn("What stands out?", "Your migration work — it shows ownership."),
+                new Conversation.Turn("And the gaps?", "None worth worrying about.")));
+        ResumeSession session = new ResumeSession(document(CompactText.Encoding.UTF8), conversation);
+
+        SessionCodec.SessionRecord record = SessionCodec.decodeSession(SessionCodec.encodeSession(session));
+
+        assertThat(record.documentHash()).isEqualTo(HASH);
+        assertThat(record.conversation().snapshot()).isEqualTo(conversation.snapshot());
+    }
+
+    @Test
+    void sessionWithoutHistoryRoundTrips() throws IOException {
+        ResumeSession session = new ResumeSession(document(CompactText.Encoding.UTF8));
+
+        SessionCodec.SessionRecord record = SessionCodec.decodeSession(SessionCodec.encodeSession(session));
+
+        assertThat(record.conversation().snapshot().summary()).isNull();
+        assertThat(record.conversation().snapshot().turns()).isEmpty();
+    }
+
+    @Test
+    void documentHashIsReadFromTheStartOfASessionRecord() throws IOException {
+        Conversation conversation = new Conversation(null, List.of(new Conversation.Turn("q", "a".repeat(100_000))));
+        byte[] encoded = SessionCodec.encodeSession(new ResumeSession(document(CompactText.Encoding.UTF8), conversation));
+
+        assertThat(SessionCodec.readDocumentHash(new ByteArrayInputStream(encoded))).isEqualTo(HASH);
+    }
+
+    @ParameterizedTest
+    @EnumSource(CompactText.Encoding.class)
+    void documentRoundTripsInEveryEncoding(CompactText.Encoding encoding) throws IOException {
+        ResumeDocument document = document(CompactText.Encoding.STRING);
+        document.setSummary("A backend engineer who leads migrations.");
+
+        ResumeDocument read = SessionCodec.readDocument(new ByteArrayInputStream(write(document)), encoding);
+
+        assertThat(read.getContentHash()).isEqualTo(HASH);
+        assertThat(read.getText()).isEqualTo(TEXT);
+        assertThat(read.getLength()).isEqualTo(TEXT.length());
+        assertThat(read.getSummary()).isEqualTo(document.getSummary());
+    }
+
+    @Test
+    void documentWithoutSummaryRoundTrips() throws IOException {
+        ResumeDocument read = SessionCodec.readDocument(
+                new ByteArrayInputStream(write(document(CompactText.Encoding.UTF8))), CompactText.Encoding.UTF8);
+
+        assertThat(read.getSummary()).isNull();
+    }
+
+    @Test
+    void stringsLongerThanWriteUtfAllowsRoundTrip() throws IOException {
+        String longAnswer = "é".repeat(70_000);
+        Conversation conversation = new Conversation(longAnswer, List.of(new Conversation.Turn("q", longAnswer)));
+
+        SessionCodec.SessionRecord record = SessionCodec.decodeSession(
+                SessionCodec.encodeSession(new ResumeSession(document(CompactText.Encoding.UTF8), conversation)));
+
+        assertThat(record.conversation().snapshot().summary()).isEqualTo(longAnswer);
+        assertThat(record.conversation().snapshot().turns().get(0).answer()).isEqualTo(longAnswer);
+    }
+
+    @Test
+    void rejectsRecordsOfTheWrongKind() throws IOException {
+        byte[] documentRecord = write(document(CompactText.Encoding.UTF8));
+
+        assertThatThrownBy(() -> SessionCodec.decodeSession(documentRecord))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Not a session store record");
+    }
+
+    @Test
+    void rejectsOtherVersions() throws IOException {
+        byte[] encoded = SessionCodec.encodeSession(new ResumeSession(document(CompactText.Encoding.UTF8)));
+        encoded[4] = 99;
+
+        assertThatThrownBy(() -> SessionCodec.decodeSession(encoded))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("version 99");
+    }
+
+    private static ResumeDocument document(CompactText.Encoding encoding) {
+        return new ResumeDocument(HASH, CompactText.encode(TEXT, encoding));
+    }
+
+    private static byte[] write(ResumeDocument document) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SessionCodec.writeDocument(document, out);
+        return out.toByteArray();
+    }
+}
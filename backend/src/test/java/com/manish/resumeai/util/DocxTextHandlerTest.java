@@ -0,0 +1,124 @@
+package com.manish.resumeai.util;
+
+import org.junit.jupiter.api.Test;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.SAXParserFactory;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DocxTextHandlerTest {
+
+    @Test
+    void joinsRunsAndEndsParagraphsWithNewlines() throws Exception {
+        String body = """
+                <w:p><w:r><w:t>Jane </w:t></w:r><w:r><w:rPr><w:b/></w:rPr><w:t>Doe</w:t></w:r></w:p>
+                <w:p><w:r><w:t>Senior Engineer</w:t></w:r></w:p>
+                """;
+
+        assertThat(extract(body, 1000)).isEqualTo("Jane Doe\nSenior Engineer\n");
+    }
+
+    @Test
+    void tabsAndBreaksInRunsBecomeWhitespace() throws Exception {
+        String body = """
+                <w:p><w:r><w:t>Acme</w:t><w:tab/><w:t>2019</w:t><w:br/><w:t>Zürich</w:t><w:cr/><w:t>Remote</w:t></w:r></w:p>
+                """;
+
+        assertThat(extract(body, 1000)).isEqualTo("Acme\t2019\nZürich\nRemote\n");
+    }
+
+    @Test
+    void tabStopDefinitionsAreNotText() throws Exception {
+        String body = """
+                <w:p>
+                  <w:pPr><w:tabs><w:tab w:val="right" w:pos="9000"/><w:tab w:val="left" w:pos="4500"/></w:tabs></w:pPr>
+                  <w:r><w:t>Engineer</w:t><w:tab/><w:t>2020</w:t></w:r>
+                </w:p>
+                """;
+
+        assertThat(extract(body, 1000)).isEqualTo("Engineer\t2020\n");
+    }
+
+    @Test
+    void tableCellsAreTabSeparatedAndRowsEndLines() throws Exception {
+        String body = """
+                <w:tbl>
+                  <w:tr>
+                    <w:tc><w:p><w:r><w:t>Java</w:t></w:r></w:p><w:p><w:r><w:t>Kotlin</w:t></w:r></w:p></w:tc>
+                    <w:tc><w:p><w:r><w:t>8 years</w:t></w:r></w:p></w:tc>
+                  </w:tr>
+                  <w:tr>
+                    <w:tc><w:p><w:r><w:t>Kafka</w:t></w:r></w:p></w:tc>
+                    <w:tc><w:p><w:r><w:t>3 years</w:t></w:r></w:p></w:tc>
+                  </w:tr>
+                </w:tbl>
+                <w:p><w:r><w:t>After</w:t></w:r></w:p>
+                """;
+
+        assertThat(extract(body, 1000)).isEqualTo("Java Kotlin \t8 years \t\nKafka \t3 years \t\nAfter\n");
+    }
+
+    @Test
+    void skipsDeletedTextAndFieldCodes() throws Exception {
+        String body = """
+                <w:p>
+                  <w:del><w:r><w:delText>old title</w:delText></w:r></w:del>
+                  <w:r><w:instrText> HYPERLINK "https://example.com" </w:instrText></w:r>
+                  <w:r><w:t>example.com</w:t></w:r>
+                </w:p>
+                """;
+
+        assertThat(extract(body, 1000)).isEqualTo("example.com\n");
+    }
+
+    @Test
+    void textThatFitsExactlyIsNotTruncated() throws Exception {
+        String body = "<w:p><w:r><w:t>0123456789</w:t></w:r></w:p>";
+
+        assertThat(extract(body, 10)).as("the trailing newline is dropped, not the text").isEqualTo("0123456789");
+    }
+
+    @Test
+    void stopsAtTheCharacterLimit() {
+        String body = """
+                <w:p><w:r><w:t>0123456789</w:t></w:r></w:p>
+                <w:p><w:r><w:t>never read</w:t></w:r></w:p>
+                """;
+        StringBuilder out = new StringBuilder();
+
+        assertThatThrownBy(() -> parse(body, out, 8)).isInstanceOf(DocxTextHandler.LimitReachedException.class);
+        assertThat(out).hasToString("01234567");
+    }
+
+    @Test
+    void textAfterAFullBufferStopsParsing() {
+        String body = """
+                <w:p><w:r><w:t>01234</w:t></w:r></w:p>
+                <w:p><w:r><w:t>more</w:t></w:r></w:p>
+                """;
+        StringBuilder out = new StringBuilder();
+
+        assertThatThrownBy(() -> parse(body, out, 5)).isInstanceOf(DocxTextHandler.LimitReachedException.class);
+        assertThat(out).hasToString("01234");
+    }
+
+    private static String extract(String body, int maxChars) throws Exception {
+        StringBuilder out = new StringBuilder();
+        parse(body, out, maxChars);
+        return out.toString();
+    }
+
+    private static void parse(String body, StringBuilder out, int maxChars) throws Exception {
+        String xml = "<w:document xmlns:w=\"http://schemas.openxmlformats.org/wordprocessingml/2006/main\">"
+                + "<w:body>" + body + "</w:body></w:document>";
+        SAXParserFactory factory = SAXParserFactory.newInstance();
+        factory.setNamespaceAware(true);
+        XMLReader reader = factory.newSAXParser().getXMLReader();
+        reader.setContentHandler(new DocxTextHandler(out, maxChars));
+        reader.parse(new InputSource(new StringReader(xml)));
+    }
+}